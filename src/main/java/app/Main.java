@@ -1,29 +1,45 @@
 package app;
 
+import app.admin.AdminApi;
+import app.calendar.CalendarApi;
+import app.events.ListingEventsApi;
 import app.groups.GroupsApi;
+import app.http.ConditionalRequest;
+import app.http.RequestId;
+import app.http.ResponseCache;
+import app.http.ResponseCompression;
+import app.metrics.MetricsApi;
 import app.request.BulkUpdateInputRequest;
 import app.users.UsersApi;
 import database.search.GroupSearchParams;
 import database.utils.ConnectionProvider;
+import database.version.InvalidationChannel;
 import io.javalin.Javalin;
 import org.apache.logging.log4j.Logger;
 import service.*;
 import service.auth.AuthService;
 import service.auth.supabase.SupabaseAuthProvider;
+import service.read.ChangeService;
 import service.read.GameLocationsService;
 import service.read.SearchService;
+import service.read.TimelineService;
+import service.data.QueryParams;
+import service.data.SearchParameterException;
 import service.user.UserService;
 import utils.LogUtils;
+import utils.Params;
 
 import java.time.LocalDate;
 
 public class Main {
 
-  public static Logger logger = LogUtils.getLogger();
+  public static Logger logger = LogUtils.getLogger(Main.class);
   public static void main(String[] args) {
     var app = Javalin
       .create(
         config -> {
+          ResponseCompression.configure(config);
+          MetricsApi.configure(config);
           config.bundledPlugins.enableCors(
             cors -> {
               cors.addRule(
@@ -38,8 +54,15 @@ public class Main {
       .get("/", ctx -> ctx.result("Hello World"))
       .start(7070);
 
+    InvalidationChannel.start(new ConnectionProvider());
+
+    RequestId.register(app);
+    MetricsApi.metricsEndpoints(app);
     UsersApi.createEndpoints(app);
     GroupsApi.groupEndpoints(app);
+    CalendarApi.calendarEndpoints(app);
+    ListingEventsApi.listingEventEndpoints(app);
+    AdminApi.adminEndpoints(app);
     app.get(
       "/countLocations",
       ctx -> {
@@ -54,28 +77,78 @@ public class Main {
 
         long start = System.currentTimeMillis();
         try {
-          var connectionProvider = new ConnectionProvider();
-          var searchParams = GroupSearchParams.generateParameterMapFromQueryString(
-            ctx
+          var conditionalRequest = ConditionalRequest.createForUser(
+            ctx,
+            null,
+            ConditionalRequest.GROUP_SEARCH_TABLES
           );
+          if (conditionalRequest.isNotModified(ctx)) {
+            return;
+          }
+          ResponseCache.respond(ctx, conditionalRequest, () -> {
+            var connectionProvider = new ConnectionProvider();
+            var searchParams = GroupSearchParams.generateParameterMapFromQueryString(
+              ctx
+            );
 
-          var searchService = new SearchService();
+            var searchService = new SearchService();
 
-          var groupSearchResult = searchService.getGroups(
-            searchParams,
-            connectionProvider
-          );
+            var groupSearchResult = searchService.getGroups(
+              searchParams,
+              connectionProvider
+            );
+
+            var currentUser = AuthService.getUser(connectionProvider.getDatabaseConnection(), ctx);
+            searchService.addPermissions(currentUser, groupSearchResult, connectionProvider);
 
-          long end = System.currentTimeMillis();
+            long end = System.currentTimeMillis();
 
-          logger.info("Search time:"+((end-start)/100));
-          ctx.json(groupSearchResult);
-          ctx.status(200);
+            logger.debug("Search time:{}ms", end - start);
+            return groupSearchResult;
+          });
+
+          logger.debug("Finished search");
+
+        } catch (Exception e) {
+          logger.warn("Group search failed", e);
+          ctx.result("Invalid search parameter");
+          ctx.status(400);
+        }
+      }
+    );
+
+    app.get(
+      "/timeline",
+      ctx -> {
+        try {
+          LocalDate today = LocalDate.now();
+          var conditionalRequest = ConditionalRequest.createForDay(
+            ctx,
+            today,
+            ConditionalRequest.TIMELINE_TABLES
+          );
+          if (conditionalRequest.isNotModified(ctx)) {
+            return;
+          }
+          ResponseCache.respond(ctx, conditionalRequest, () -> {
+            var connectionProvider = new ConnectionProvider();
+            var searchParams = GroupSearchParams.generateParameterMapFromQueryString(
+              ctx
+            );
 
-          logger.info("Finished search");
+            LocalDate from = QueryParams.parseDate(ctx.queryParam("from"), today);
+            LocalDate to = QueryParams.parseDate(ctx.queryParam("to"), from.plusDays(30));
+            int page = QueryParams.parseInt(ctx.queryParam("page"), 0);
+            int pageSize = QueryParams.parseInt(ctx.queryParam("pageSize"), 50);
 
+            var timelineService = new TimelineService();
+            return timelineService.getTimeline(searchParams, from, to, page, pageSize, connectionProvider);
+          });
+        } catch (SearchParameterException e) {
+          ctx.result(e.getMessage());
+          ctx.status(400);
         } catch (Exception e) {
-          e.printStackTrace();
+          logger.warn("Timeline request failed", e);
           ctx.result("Invalid search parameter");
           ctx.status(400);
         }
@@ -89,28 +162,81 @@ public class Main {
           var connectionProvider = new ConnectionProvider();
           GameLocationsService gameLocationsService = new GameLocationsService();
 
-          var gameLocationData = gameLocationsService.getGameLocations(connectionProvider, LocalDate.now());
-          logger.info("Retrieved game location data");
+          try {
+            LocalDate today = LocalDate.now();
+            var conditionalRequest = ConditionalRequest.createForDay(
+                ctx,
+                today,
+                ConditionalRequest.LOCATION_TABLES
+            );
+            if (conditionalRequest.isNotModified(ctx)) {
+              return;
+            }
+            String horizonParam = ctx.queryParam("horizon");
+            Integer horizon = horizonParam == null ? null : QueryParams.parseInt(horizonParam, 0);
+            int limit = QueryParams.parseInt(ctx.queryParam("limit"), Integer.MAX_VALUE);
 
-          ctx.json(gameLocationData);
-          ctx.status(200);
+            ResponseCache.respond(ctx, conditionalRequest, () -> {
+              var gameLocationData = gameLocationsService.getGameLocations(
+                  connectionProvider,
+                  today,
+                  horizon,
+                  limit
+              );
+              logger.info("Retrieved game location data");
+              return gameLocationData;
+            });
+          } catch (SearchParameterException e) {
+            ctx.result(e.getMessage());
+            ctx.status(400);
+          }
 
         });
 
     app.get(
         "/listCities",
         ctx->{
+          var conditionalRequest = ConditionalRequest.create(ctx, null, ConditionalRequest.CITY_TABLES);
+          if (conditionalRequest.isNotModified(ctx)) {
+            return;
+          }
           var connectionProvider = new ConnectionProvider();
           GameLocationsService gameLocationsService = new GameLocationsService();
 
           String areaFilter = ctx.queryParam("area");
 
-          var cities = gameLocationsService.getAllEventLocations(connectionProvider, areaFilter);
-          logger.info("Retrieved event cities");
-          ctx.json(cities);
-          ctx.status(200);
+          ResponseCache.respond(ctx, conditionalRequest, () -> {
+            var cities = gameLocationsService.getAllEventLocations(connectionProvider, areaFilter);
+            logger.info("Retrieved event cities");
+            return cities;
+          });
         });
 
+    app.get(
+        "/changes",
+        ctx->{
+          try {
+            String sinceParam = ctx.queryParam("since");
+            long since = sinceParam == null ? 0 : Long.parseLong(sinceParam);
+            int limit = QueryParams.parseInt(ctx.queryParam("limit"), 1000);
+
+            var changeService = new ChangeService();
+            ctx.json(changeService.getChanges(since, limit, new ConnectionProvider()));
+          } catch (NumberFormatException e) {
+            ctx.result("Invalid since parameter");
+            ctx.status(400);
+          } catch (SearchParameterException e) {
+            ctx.result(e.getMessage());
+            ctx.status(400);
+          }
+        });
+
+    /*
+      Imports the data in chunks of chunkSize items, or IMPORT_CHUNK_SIZE if no chunk size is given. Every write records
+      a change log entry, which holds the change log's advisory lock until the transaction commits, so writes from other
+      requests wait for each chunk. Importing everything in one transaction would block them for the whole import.
+      Submitting a payload that was already imported completely does nothing.
+     */
     //TODO: Consider deleting this endpoint.
     app.post(
       "/admin/saveData",
@@ -123,10 +249,25 @@ public class Main {
         AuthService authService = new AuthService(supabaseAuthProvider, userService);
         var data = ctx.bodyAsClass(BulkUpdateInputRequest.class);
         authService.validateBulkUpdateInputRequest(data);
+
+        String chunkSizeParam = ctx.queryParam("chunkSize");
+        int chunkSize = Params.getImportChunkSize();
+        try {
+          if (chunkSizeParam != null && !chunkSizeParam.isEmpty()) {
+            chunkSize = QueryParams.parseInt(chunkSizeParam, 0);
+            if (chunkSize <= 0) {
+              throw new SearchParameterException("Chunk size must be greater than 0");
+            }
+          }
+        } catch (SearchParameterException e) {
+          ctx.result(e.getMessage());
+          ctx.status(400);
+          return;
+        }
         ctx.result("Saved data");
 
         var bulkUpdateService = new BulkUpdateService();
-        bulkUpdateService.bulkUpdate(data.getData(), connectionProvider);
+        bulkUpdateService.bulkUpdateInChunks(data.getData(), chunkSize, connectionProvider);
       }
     );
   }
@@ -0,0 +1,323 @@
+package app.admin;
+
+import app.data.auth.User;
+import app.http.ResponseCache;
+import app.http.ResponseCompression;
+import app.http.ResponseCompression.Encoding;
+import database.jdbc.SlowQueryLog;
+import database.jdbc.SqlStatistics;
+import database.jdbc.StatementStats;
+import database.utils.ConnectionProvider;
+import io.javalin.Javalin;
+import io.javalin.http.Context;
+import org.apache.logging.log4j.Logger;
+import service.auth.AuthService;
+import service.read.ChangeService;
+import service.data.QueryParams;
+import service.data.SearchParameterException;
+import utils.LogUtils;
+import utils.Params;
+import utils.cache.SlabStore;
+import utils.jfr.FlightRecordings;
+import utils.metrics.Metrics;
+import utils.metrics.TraceStore;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class AdminApi {
+
+  public static Logger logger = LogUtils.getLogger(AdminApi.class);
+
+  public static void adminEndpoints(Javalin app) {
+    app.get(
+        "/admin/cache",
+        ctx -> {
+          if (!isSiteAdmin(ctx)) {
+            return;
+          }
+
+          SlabStore<String, ResponseCache.CachedResponse> responses = ResponseCache.getCache();
+          LinkedHashMap<String, Object> cache = new LinkedHashMap<>();
+          cache.put("entries", responses.size());
+          cache.put("hits", responses.getHits());
+          cache.put("misses", responses.getMisses());
+          cache.put("evictions", responses.getEvictions());
+          cache.put("compactions", responses.getCompactions());
+          cache.put("liveBytes", responses.getLiveBytes());
+          cache.put("allocatedBytes", responses.getAllocatedBytes());
+          cache.put("budgetBytes", responses.getBudgetBytes());
+
+          LinkedHashMap<String, Object> compression = new LinkedHashMap<>();
+          compression.put("encodings", ResponseCompression.getEnabledEncodings());
+          compression.put("level", ResponseCompression.getLevel());
+          compression.put("minSize", ResponseCompression.getMinSize());
+          compression.put("uncompressedBytes", ResponseCompression.getUncompressedBytes());
+          compression.put("bytesSaved", ResponseCompression.getTotalBytesSaved());
+          for (Encoding encoding : Encoding.values()) {
+            compression.put(encoding.getHeaderValue() + "BytesSent", ResponseCompression.getBytesSent(encoding));
+            compression.put(encoding.getHeaderValue() + "BytesSaved", ResponseCompression.getBytesSaved(encoding));
+          }
+
+          LinkedHashMap<String, Object> result = new LinkedHashMap<>();
+          result.put("responseCache", cache);
+          result.put("compression", compression);
+          ctx.json(result);
+          ctx.status(200);
+        }
+    );
+
+    app.post(
+        "/admin/changes/compact",
+        ctx -> {
+          if (!isSiteAdmin(ctx)) {
+            return;
+          }
+
+          ChangeService changeService = new ChangeService();
+          Duration retention = Duration.ofDays(Params.getChangeLogRetentionDays());
+          int removed = changeService.compact(retention, new ConnectionProvider());
+
+          LinkedHashMap<String, Object> result = new LinkedHashMap<>();
+          result.put("removed", removed);
+          ctx.json(result);
+          ctx.status(200);
+        }
+    );
+
+    app.get(
+        "/admin/traces",
+        ctx -> {
+          if (!isSiteAdmin(ctx)) {
+            return;
+          }
+
+          TraceStore slowTraces = Metrics.getSlowTraces();
+          int limit;
+          try {
+            limit = QueryParams.parseInt(ctx.queryParam("limit"), 50);
+          } catch (SearchParameterException e) {
+            ctx.result(e.getMessage());
+            ctx.status(400);
+            return;
+          }
+
+          LinkedHashMap<String, Object> result = new LinkedHashMap<>();
+          result.put("slowMillis", slowTraces.getSlowMillis());
+          result.put("sampleRate", slowTraces.getSampleRate());
+          result.put("totalKept", slowTraces.getTotalKept());
+          result.put("traces", slowTraces.getTraces(limit));
+          ctx.json(result);
+          ctx.status(200);
+        }
+    );
+
+    app.get(
+        "/admin/sql",
+        ctx -> {
+          if (!isSiteAdmin(ctx)) {
+            return;
+          }
+
+          String sort = ctx.queryParam("sort");
+          Comparator<StatementStats> order = STATEMENT_ORDERS.get(sort == null ? "total" : sort);
+          int limit;
+          try {
+            limit = QueryParams.parseInt(ctx.queryParam("limit"), 50);
+          } catch (SearchParameterException e) {
+            ctx.result(e.getMessage());
+            ctx.status(400);
+            return;
+          }
+          if (order == null) {
+            ctx.result("Sort must be one of " + STATEMENT_ORDERS.keySet());
+            ctx.status(400);
+            return;
+          }
+
+          List<Map<String, Object>> statements = SqlStatistics.getStatements().stream()
+              .sorted(order.reversed())
+              .limit(Math.max(0, limit))
+              .map(AdminApi::describeStatement)
+              .toList();
+
+          LinkedHashMap<String, Object> result = new LinkedHashMap<>();
+          result.put("repeatedThreshold", SqlStatistics.getRepeatedThreshold());
+          result.put("statementCount", SqlStatistics.getStatements().size());
+          result.put("statements", statements);
+          ctx.json(result);
+          ctx.status(200);
+        }
+    );
+
+    app.get(
+        "/admin/sql/slow",
+        ctx -> {
+          if (!isSiteAdmin(ctx)) {
+            return;
+          }
+
+          int limit;
+          try {
+            limit = QueryParams.parseInt(ctx.queryParam("limit"), 50);
+          } catch (SearchParameterException e) {
+            ctx.result(e.getMessage());
+            ctx.status(400);
+            return;
+          }
+
+          LinkedHashMap<String, Object> result = new LinkedHashMap<>();
+          result.put("thresholdMillis", SlowQueryLog.getThresholdMillis());
+          result.put("explainSampleRate", SlowQueryLog.getExplainSampleRate());
+          result.put("slowQueryCount", SlowQueryLog.getSlowQueryCount());
+          result.put("queries", SlowQueryLog.getQueries(limit));
+          result.put("plans", SlowQueryLog.getPlans().values());
+          ctx.json(result);
+          ctx.status(200);
+        }
+    );
+
+    app.get(
+        "/admin/jfr",
+        ctx -> {
+          if (!isSiteAdmin(ctx)) {
+            return;
+          }
+          ctx.json(FlightRecordings.getStatus());
+          ctx.status(200);
+        }
+    );
+
+    app.post(
+        "/admin/jfr/start",
+        ctx -> {
+          if (!isSiteAdmin(ctx)) {
+            return;
+          }
+
+          String template = ctx.queryParam("template");
+          int seconds;
+          try {
+            seconds = QueryParams.parseInt(ctx.queryParam("seconds"), Params.getJfrMaxSeconds());
+          } catch (SearchParameterException e) {
+            ctx.result(e.getMessage());
+            ctx.status(400);
+            return;
+          }
+          if (seconds <= 0 || seconds > Params.getJfrMaxSeconds()) {
+            ctx.result("Seconds must be between 1 and " + Params.getJfrMaxSeconds());
+            ctx.status(400);
+            return;
+          }
+
+          try {
+            FlightRecordings.start(
+                template == null ? Params.getJfrTemplate() : template,
+                Duration.ofSeconds(seconds),
+                Params.getJfrMaxBytes()
+            );
+          } catch (IllegalStateException e) {
+            ctx.result(e.getMessage());
+            ctx.status(409);
+            return;
+          } catch (ParseException | IOException e) {
+            ctx.result("Unknown recording template: " + template);
+            ctx.status(400);
+            return;
+          }
+          logger.info("Started flight recording for {} seconds", seconds);
+          ctx.json(FlightRecordings.getStatus());
+          ctx.status(200);
+        }
+    );
+
+    // Stops the recording and sends it as a .jfr file, which is deleted once it has been sent.
+    app.post(
+        "/admin/jfr/stop",
+        ctx -> {
+          if (!isSiteAdmin(ctx)) {
+            return;
+          }
+
+          Path file;
+          try {
+            file = FlightRecordings.stop();
+          } catch (IllegalStateException e) {
+            ctx.result(e.getMessage());
+            ctx.status(409);
+            return;
+          }
+          logger.info("Stopped flight recording, {} bytes", Files.size(file));
+          ctx.header("Content-Disposition", "attachment; filename=\"" + file.getFileName() + "\"");
+          ctx.contentType("application/octet-stream");
+          ctx.result(Files.newInputStream(file, StandardOpenOption.DELETE_ON_CLOSE));
+          ctx.status(200);
+        }
+    );
+
+    app.delete(
+        "/admin/sql",
+        ctx -> {
+          if (!isSiteAdmin(ctx)) {
+            return;
+          }
+          SqlStatistics.clear();
+          ctx.status(204);
+        }
+    );
+  }
+
+  // Statements are sorted by total time unless another order is requested.
+  private static final Map<String, Comparator<StatementStats>> STATEMENT_ORDERS = Map.of(
+      "total", Comparator.comparingLong(stats -> stats.getLatency().getSumNanos()),
+      "calls", Comparator.comparingLong(StatementStats::getCalls),
+      "mean", Comparator.comparingDouble(AdminApi::getMeanMillis),
+      "rows", Comparator.comparingLong(StatementStats::getRows),
+      "bytes", Comparator.comparingLong(StatementStats::getBytes),
+      "errors", Comparator.comparingLong(StatementStats::getErrors),
+      "repeated", Comparator.comparingLong(StatementStats::getRepeatedRequests)
+  );
+
+  private static double getMeanMillis(StatementStats stats) {
+    long calls = stats.getCalls();
+    return calls == 0 ? 0 : stats.getLatency().getSumNanos() / 1_000_000.0 / calls;
+  }
+
+  private static Map<String, Object> describeStatement(StatementStats stats) {
+    LinkedHashMap<String, Object> statement = new LinkedHashMap<>();
+    statement.put("sql", stats.getSql());
+    statement.put("calls", stats.getCalls());
+    statement.put("errors", stats.getErrors());
+    statement.put("rows", stats.getRows());
+    statement.put("bytesRead", stats.getBytes());
+    statement.put("totalMillis", stats.getLatency().getSumNanos() / 1_000_000.0);
+    statement.put("meanMillis", getMeanMillis(stats));
+    statement.put("p50Millis", stats.getLatency().getPercentileMicros(50) / 1000.0);
+    statement.put("p95Millis", stats.getLatency().getPercentileMicros(95) / 1000.0);
+    statement.put("p99Millis", stats.getLatency().getPercentileMicros(99) / 1000.0);
+    statement.put("repeatedRequests", stats.getRepeatedRequests());
+    return statement;
+  }
+
+  /**
+   * Responds with 403 if the current user is not a site admin.
+   */
+  static boolean isSiteAdmin(Context ctx) throws Exception {
+    User user = AuthService.getUser(new ConnectionProvider().getDatabaseConnection(), ctx);
+    if (!user.isSiteAdmin()) {
+      logger.warn("User {} attempted to access {}", user.getEmail(), ctx.path());
+      ctx.status(403);
+      ctx.result("Site admin access is required");
+      return false;
+    }
+    return true;
+  }
+}
@@ -0,0 +1,114 @@
+package app.calendar;
+
+import app.http.ConditionalRequest;
+import app.result.error.GroupNotFoundError;
+import database.utils.ConnectionProvider;
+import io.javalin.Javalin;
+import io.javalin.http.Context;
+import org.apache.logging.log4j.Logger;
+import service.calendar.CalendarFeed;
+import service.calendar.CalendarService;
+import service.data.SearchParameterException;
+import utils.LogUtils;
+import utils.cache.ExpiringCache;
+
+import java.time.Duration;
+
+public class CalendarApi {
+
+  public static Logger logger = LogUtils.getLogger(CalendarApi.class);
+
+  public record CalendarVersion(String dataVersion, String eTag) {}
+
+  /*
+    ETag of the calendar last sent for each path, and the data version it was built from. While the data version is
+    unchanged, a client with that ETag gets a 304 without the calendar being read from the database.
+   */
+  private static final ExpiringCache<String, CalendarVersion> calendarVersions =
+      new ExpiringCache<>("calendarVersions", 5000, Duration.ofHours(1));
+
+  public static void calendarEndpoints(Javalin app) {
+    app.get(
+        "/groups/{id}/calendar.ics",
+        ctx -> {
+          try {
+            int groupId = Integer.parseInt(ctx.pathParam("id"));
+            // The version is read before the data so that a change made while the calendar is built is not missed.
+            String dataVersion = getDataVersion(ctx);
+            if (isNotModified(ctx, dataVersion)) {
+              return;
+            }
+            var calendarService = new CalendarService();
+            CalendarFeed feed = calendarService.getGroupCalendar(groupId, new ConnectionProvider());
+            writeCalendar(ctx, dataVersion, feed);
+          } catch (NumberFormatException | GroupNotFoundError | SearchParameterException e) {
+            logger.warn(e.getMessage());
+            ctx.status(404);
+          } catch (Exception e) {
+            logger.error("Failed to build group calendar", e);
+            ctx.status(500);
+          }
+        }
+    );
+
+    app.get(
+        "/areas/{tag}/calendar.ics",
+        ctx -> {
+          try {
+            String dataVersion = getDataVersion(ctx);
+            if (isNotModified(ctx, dataVersion)) {
+              return;
+            }
+            var calendarService = new CalendarService();
+            CalendarFeed feed = calendarService.getAreaCalendar(ctx.pathParam("tag"), new ConnectionProvider());
+            writeCalendar(ctx, dataVersion, feed);
+          } catch (SearchParameterException e) {
+            logger.warn(e.getMessage());
+            ctx.status(404);
+          } catch (Exception e) {
+            logger.error("Failed to build area calendar", e);
+            ctx.status(500);
+          }
+        }
+    );
+  }
+
+  private static String getDataVersion(Context ctx) {
+    return ConditionalRequest.create(ctx, null, ConditionalRequest.TIMELINE_TABLES).getVersionKey();
+  }
+
+  private static boolean isNotModified(Context ctx, String dataVersion) {
+    CalendarVersion version = calendarVersions.get(ctx.path());
+    if (version == null || !version.dataVersion().equals(dataVersion)) {
+      return false;
+    }
+    if (ConditionalRequest.matchesETag(ctx.header("If-None-Match"), version.eTag())) {
+      ctx.header("ETag", version.eTag());
+      ctx.header("Cache-Control", "no-cache");
+      ctx.status(304);
+      return true;
+    }
+    return false;
+  }
+
+  private static void writeCalendar(Context ctx, String dataVersion, CalendarFeed feed) throws Exception {
+    String eTag = feed.getETag();
+    calendarVersions.put(ctx.path(), new CalendarVersion(dataVersion, eTag));
+
+    ctx.header("ETag", eTag);
+    ctx.header("Cache-Control", "no-cache");
+    if (ConditionalRequest.matchesETag(ctx.header("If-None-Match"), eTag)) {
+      ctx.status(304);
+      return;
+    }
+
+    ctx.status(200);
+    ctx.contentType("text/calendar; charset=utf-8");
+    feed.write(ctx.outputStream());
+    logger.debug("Wrote calendar {} with {} events", feed.getName(), feed.countEvents());
+  }
+
+  public static ExpiringCache<String, CalendarVersion> getCache() {
+    return calendarVersions;
+  }
+}
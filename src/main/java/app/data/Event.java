@@ -1,8 +1,18 @@
 package app.data;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 public class Event {
   private Integer id;
   private String day;
+
+  // Set for events that happen on the nth day of the week of each month. Negative values count from the end of the month.
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  private Integer weekOfMonth;
+
+  // Set for events that only happen once. Dates are formatted as yyyy-mm-dd.
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  private String date;
   private String location;
   private String summary;
   private String name;
@@ -18,11 +28,30 @@ public class Event {
   }
 
   public String getDay() {
+    if (day == null) {
+      return null;
+    }
     return day.toLowerCase();
   }
 
   public void setDay(String day) {
-    this.day = day.toLowerCase();
+    this.day = day == null ? null : day.toLowerCase();
+  }
+
+  public Integer getWeekOfMonth() {
+    return weekOfMonth;
+  }
+
+  public void setWeekOfMonth(Integer weekOfMonth) {
+    this.weekOfMonth = weekOfMonth;
+  }
+
+  public String getDate() {
+    return date;
+  }
+
+  public void setDate(String date) {
+    this.date = date;
   }
 
   public String getLocation() {
@@ -14,4 +14,13 @@ public enum GroupAdminType {
   public String toString(){
     return name;
   }
+
+  public static GroupAdminType fromDatabaseString(String dbString) throws Exception{
+    for(GroupAdminType groupAdminType: GroupAdminType.values()){
+      if(groupAdminType.toString().equals(dbString)){
+        return groupAdminType;
+      }
+    }
+    throw new Exception("Invalid string:"+dbString +" for GroupAdminType enum");
+  }
 }
\ No newline at end of file
@@ -2,7 +2,8 @@ package app.data.auth;
 
 public enum PermissionName {
 
-  USER_CAN_EDIT("userCanEdit");
+  USER_CAN_EDIT("userCanEdit"),
+  USER_IS_GROUP_ADMIN("userIsGroupAdmin");
 
   private String name;
 
@@ -30,5 +30,9 @@ public class User {
     return userType.equals(UserType.SITE_ADMIN);
   }
 
+  public boolean isReadOnlyUser(){
+    return userType.equals(UserType.READONLY);
+  }
+
 
 }
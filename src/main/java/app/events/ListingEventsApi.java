@@ -0,0 +1,89 @@
+package app.events;
+
+import database.search.GroupSearchParams;
+import io.javalin.Javalin;
+import io.javalin.http.sse.SseClient;
+import io.javalin.http.sse.SseHandler;
+import org.apache.logging.log4j.Logger;
+import service.events.ListingEventBus;
+import service.events.ListingFilter;
+import service.events.ListingSubscriber;
+import utils.LogUtils;
+import utils.Params;
+
+public class ListingEventsApi {
+
+  public static Logger logger = LogUtils.getLogger(ListingEventsApi.class);
+
+  /*
+    Clients open an event stream with the same area, day and city parameters they search with, and fetch listings
+    again when a change or refresh message arrives instead of polling. Messages carry the change feed version, so a
+    client that was disconnected can catch up from /changes.
+
+    The number of open streams is limited by LISTING_MAX_SUBSCRIBERS. The stream's status is sent as soon as it is
+    opened, so a place is reserved before then and requests over the limit get a 503.
+   */
+  public static void listingEventEndpoints(Javalin app) {
+    int maxSubscribers = Params.getMaxListingSubscribers();
+    SseHandler streamHandler = new SseHandler(ListingEventsApi::subscribe);
+    app.get(
+        "/listings/events",
+        ctx -> {
+          if (!ListingEventBus.reserve(maxSubscribers)) {
+            logger.warn("Rejected listing subscriber. Subscribers: {}", ListingEventBus.getSubscriberCount());
+            ctx.header("Retry-After", "30");
+            ctx.status(503);
+            return;
+          }
+          try {
+            streamHandler.handle(ctx);
+          } catch (Exception e) {
+            ListingEventBus.release();
+            throw e;
+          }
+        }
+    );
+  }
+
+  // The client only has one close callback, which releases the place reserved for the stream.
+  private static void subscribe(SseClient client) {
+    ListingSubscriber subscriber;
+    try {
+      client.keepAlive();
+      var ctx = client.ctx();
+      ListingFilter filter = ListingFilter.create(
+          ctx.queryParam(GroupSearchParams.AREA),
+          ctx.queryParam(GroupSearchParams.DAY_OF_WEEK),
+          ctx.queryParam(GroupSearchParams.CITY)
+      );
+      subscriber = ListingEventBus.subscribe(filter, new SseSink(client));
+    } catch (RuntimeException e) {
+      ListingEventBus.release();
+      throw e;
+    }
+    client.onClose(() -> {
+      ListingEventBus.unsubscribe(subscriber);
+      subscriber.close();
+      ListingEventBus.release();
+    });
+    logger.info("Listing subscriber connected. Subscribers: {}", ListingEventBus.getSubscriberCount());
+  }
+
+  private record SseSink(SseClient client) implements ListingSubscriber.Sink {
+
+    @Override
+    public void send(String event, Object data) {
+      client.sendEvent(event, data);
+    }
+
+    @Override
+    public void sendComment(String comment) {
+      client.sendComment(comment);
+    }
+
+    @Override
+    public void close() {
+      client.close();
+    }
+  }
+}
@@ -4,16 +4,20 @@ import app.groups.data.Group;
 import app.result.error.InvalidGroupParameterError;
 import com.fasterxml.jackson.databind.JsonNode;
 import io.javalin.http.Context;
+import org.apache.logging.log4j.Logger;
+import utils.LogUtils;
 
 import java.lang.reflect.Field;
 import java.util.*;
 
 public class GroupRequestParser {
 
+  private static final Logger logger = LogUtils.getLogger(GroupRequestParser.class);
+
   public static Group getGroupFromRequestBody(Context ctx) throws Exception{
 
     JsonNode groupJson = ctx.bodyAsClass(JsonNode.class);
-    System.out.println(groupJson);
+    logger.debug("Group request: {}", groupJson);
 
     List<String> groupFields =
         Arrays.stream(Group.class.getDeclaredFields())
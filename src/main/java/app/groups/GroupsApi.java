@@ -1,6 +1,9 @@
 package app.groups;
 
 import app.groups.data.Group;
+import app.http.ConditionalRequest;
+import app.http.ResponseCache;
+import app.result.error.AmbiguousGroupNameError;
 import app.result.error.GroupNotFoundError;
 import app.result.error.InvalidGroupParameterError;
 import app.result.error.InvalidGroupRequestError;
@@ -18,9 +21,11 @@ import service.read.ReadGroupService;
 import service.update.GroupEditService;
 import utils.LogUtils;
 
+import java.time.LocalDate;
+
 public class GroupsApi {
 
-  public static Logger logger = LogUtils.getLogger();
+  public static Logger logger = LogUtils.getLogger(GroupsApi.class);
   public static String GROUP_ID_PARAM = "id";
 
   public static void groupEndpoints(Javalin app) {
@@ -29,26 +34,44 @@ public class GroupsApi {
         ctx -> {
 
           try {
-            var connectionProvider = new ConnectionProvider();
-            var searchParams = GroupSearchParams.generateParameterMapFromQueryString(
-                ctx
+            // Group pages list upcoming dates, so they change every day.
+            var conditionalRequest = ConditionalRequest.createForUserAndDay(
+                ctx,
+                LocalDate.now(),
+                ConditionalRequest.GROUP_SEARCH_TABLES
             );
-
-            var currentUser = AuthService.getUser(connectionProvider.getDatabaseConnection(), ctx);
-            logger.info("Current user:"+currentUser);
-
-            var readGroupDataProvider = ReadGroupDataProvider.create();
-            var groupService = new ReadGroupService(readGroupDataProvider);
-
-            GroupPageData pageData = groupService.getGroupPageData(currentUser, searchParams, connectionProvider);
-            logger.info("Retrieved group data");
-            ctx.json(pageData);
-            ctx.status(200);
+            if (conditionalRequest.isNotModified(ctx)) {
+              return;
+            }
+            ResponseCache.respond(ctx, conditionalRequest, () -> {
+              var connectionProvider = new ConnectionProvider();
+              var searchParams = GroupSearchParams.generateParameterMapFromQueryString(
+                  ctx
+              );
+              String groupId = ctx.queryParam(GroupSearchParams.ID);
+              if(groupId != null && !groupId.isEmpty()){
+                searchParams.put(GroupSearchParams.ID, groupId);
+              }
+
+              var currentUser = AuthService.getUser(connectionProvider.getDatabaseConnection(), ctx);
+              logger.debug("Current user:{}", currentUser);
+
+              var readGroupDataProvider = ReadGroupDataProvider.create();
+              var groupService = new ReadGroupService(readGroupDataProvider);
+
+              GroupPageData pageData = groupService.getGroupPageData(currentUser, searchParams, connectionProvider);
+              logger.debug("Retrieved group data");
+              return pageData;
+            });
           } catch (SearchParameterException e) {
-            e.printStackTrace();
+            logger.warn("Group not found: {}", e.getMessage());
             ctx.status(404);
+          } catch (AmbiguousGroupNameError e) {
+            logger.warn(e.getMessage());
+            ctx.status(409);
+            ctx.result(e.getMessage());
           } catch(Exception e){
-            e.printStackTrace();
+            logger.error("Failed to retrieve group", e);
             ctx.result(e.getMessage());
             ctx.status(500);
           }
@@ -70,7 +93,7 @@ public class GroupsApi {
 
           groupEditService.editGroup(currentUser,group, connectionProvider);
 
-          logger.info("Updated group:"+group.id);
+          logger.info("Updated group:{}", group.id);
           ctx.status(200);
         } catch (UnrecognizedPropertyException | GroupNotFoundError | InvalidGroupRequestError e) {
           logger.error(e.getMessage());
@@ -82,7 +105,7 @@ public class GroupsApi {
           ctx.result(e.getMessage());
         }
         catch(Exception e){
-          e.printStackTrace();
+          logger.error("Failed to update group", e);
 
           ctx.status(500);
         }
@@ -102,7 +125,7 @@ public class GroupsApi {
 
             Group createdGroup = groupEditService.insertGroup(currentUser,groupToCreate, connectionProvider);
 
-            logger.info("Created group group with id:"+createdGroup.id);
+            logger.info("Created group with id:{}", createdGroup.id);
             ctx.json(createdGroup);
             ctx.status(200);
           } catch (GroupNotFoundError | InvalidGroupRequestError e) {
@@ -119,7 +142,7 @@ public class GroupsApi {
             ctx.result(e.getMessage());
           }
           catch(Exception e){
-            e.printStackTrace();
+            logger.error("Failed to create group", e);
             ctx.result(e.getMessage());
             ctx.status(500);
           }
@@ -139,11 +162,11 @@ public class GroupsApi {
 
         groupEditService.deleteGroup(currentUser,groupId, connectionProvider);
 
-        logger.info("Deleted group");
+        logger.info("Deleted group:{}", groupId);
         ctx.status(200);
       }
       catch(Exception e){
-        e.printStackTrace();
+        logger.error("Failed to delete group", e);
         ctx.result(e.getMessage());
         ctx.status(500);
       }
@@ -3,6 +3,9 @@ package app.groups.data;
 import app.data.ContentItem;
 import app.data.ContentType;
 import app.data.Event;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.HashMap;
 
 public class Group extends ContentItem {
   public Event[] events;
@@ -12,8 +15,13 @@ public class Group extends ContentItem {
   public String summary;
   public String name;
 
+  // Permissions of the current user for this group. These are only returned in responses and cannot be set by clients.
+  @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+  public HashMap<String, Boolean> permissions;
+
   public Group() {
     super(ContentType.GROUP);
+    permissions = new HashMap<>();
   }
 
   public Integer getId() {
@@ -68,6 +76,14 @@ public class Group extends ContentItem {
     return events;
   }
 
+  public HashMap<String, Boolean> getPermissions() {
+    return permissions;
+  }
+
+  public void enablePermission(String permissionName, boolean isEnabled) {
+    permissions.put(permissionName, isEnabled);
+  }
+
 
   public String toString() {
     return (
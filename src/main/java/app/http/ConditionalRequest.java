@@ -0,0 +1,292 @@
+package app.http;
+
+import database.version.DataTable;
+import database.version.DataVersion;
+import io.javalin.http.Context;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Validators for a GET request, calculated from the versions of the tables the response is built from. The ETag covers
+ * the path, the query string, any variant the response depends on (such as the current user or date) and the table
+ * versions, so it changes whenever the response could change.
+ *
+ * <p>The ETag and Last-Modified headers use the shared versions of DataVersion, so every instance sends the same
+ * validators for the same data. Cached responses are checked against the versions of this instance instead, which
+ * change as soon as a transaction writes to a table.
+ */
+public class ConditionalRequest {
+
+  // Header used for authentication. Responses that include permissions are different for every token.
+  public static final String AUTH_HEADER = "authToken";
+
+  // Tables read by each endpoint.
+  public static final DataTable[] GROUP_SEARCH_TABLES = {
+      DataTable.GROUPS,
+      DataTable.EVENTS,
+      DataTable.LOCATIONS,
+      DataTable.LOCATION_TAGS,
+      DataTable.USERS,
+      DataTable.GROUP_ADMINS
+  };
+  public static final DataTable[] TIMELINE_TABLES = {
+      DataTable.GROUPS,
+      DataTable.EVENTS,
+      DataTable.LOCATIONS,
+      DataTable.LOCATION_TAGS
+  };
+  public static final DataTable[] LOCATION_TABLES = {
+      DataTable.CONVENTIONS,
+      DataTable.EVENTS,
+      DataTable.GAME_STORES,
+      DataTable.GAME_RESTAURANTS,
+      DataTable.LOCATIONS
+  };
+  public static final DataTable[] CITY_TABLES = {
+      DataTable.LOCATIONS,
+      DataTable.LOCATION_TAGS
+  };
+
+  private final String cacheKey;
+  private final DataTable[] tables;
+  private final boolean personalized;
+  private final ResponseFormat format;
+  private final String versionKey;
+  private final String eTag;
+  private final long lastModified;
+
+  private ConditionalRequest(
+      String cacheKey,
+      DataTable[] tables,
+      boolean personalized,
+      ResponseFormat format,
+      String versionKey,
+      String eTag,
+      long lastModified
+  ) {
+    this.cacheKey = cacheKey;
+    this.tables = tables;
+    this.personalized = personalized;
+    this.format = format;
+    this.versionKey = versionKey;
+    this.eTag = eTag;
+    this.lastModified = lastModified;
+  }
+
+  public static ConditionalRequest create(Context ctx, String variant, DataTable... tables) {
+    return create(ctx, variant, false, null, tables);
+  }
+
+  /**
+   * Creates validators for a response that depends on the current date. The response changes at the start of the day
+   * even if the tables do not, so the response is not modified before then.
+   */
+  public static ConditionalRequest createForDay(Context ctx, LocalDate day, DataTable... tables) {
+    return create(ctx, day.toString(), false, day, tables);
+  }
+
+  /**
+   * Creates validators for a response that depends on the current user.
+   */
+  public static ConditionalRequest createForUser(Context ctx, String variant, DataTable... tables) {
+    return createForUser(ctx, variant, null, tables);
+  }
+
+  /**
+   * Creates validators for a response that depends on the current user and date.
+   */
+  public static ConditionalRequest createForUserAndDay(Context ctx, LocalDate day, DataTable... tables) {
+    return createForUser(ctx, day.toString(), day, tables);
+  }
+
+  private static ConditionalRequest createForUser(Context ctx, String variant, LocalDate day, DataTable... tables) {
+    String token = ctx.header(AUTH_HEADER);
+    if (token == null || token.isBlank()) {
+      return create(ctx, variant, false, day, tables);
+    }
+    return create(ctx, hash(token) + "|" + (variant == null ? "" : variant), true, day, tables);
+  }
+
+  private static ConditionalRequest create(
+      Context ctx,
+      String variant,
+      boolean personalized,
+      LocalDate day,
+      DataTable... tables
+  ) {
+    ResponseFormat format = ResponseFormat.negotiate(ctx.header("Accept"));
+    String cacheKey = ctx.path()
+        + "?" + getCanonicalQuery(ctx)
+        + "|" + (variant == null ? "" : variant)
+        + "|" + format.name();
+
+    String versionKey = getVersionKey(tables);
+    String eTag = getETag(cacheKey, tables);
+
+    long lastModified = DataVersion.getSharedLastModified(tables);
+    if (day != null) {
+      lastModified = Math.max(lastModified, day.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli());
+    }
+    // HTTP dates only have second precision.
+    lastModified = lastModified / 1000 * 1000;
+    return new ConditionalRequest(cacheKey, tables, personalized, format, versionKey, eTag, lastModified);
+  }
+
+  private static String getETag(String cacheKey, DataTable[] tables) {
+    StringBuilder key = new StringBuilder(cacheKey);
+    for (DataTable table : tables) {
+      key.append('|').append(DataVersion.getSharedVersion(table));
+    }
+    return "W/\"" + hash(key.toString()) + "\"";
+  }
+
+  private static String getVersionKey(DataTable[] tables) {
+    StringBuilder key = new StringBuilder();
+    for (DataTable table : tables) {
+      key.append(DataVersion.getVersion(table)).append('|');
+    }
+    return key.toString();
+  }
+
+  /**
+   * @return Returns false if any of the tables changed after the request was created.
+   */
+  public boolean isCurrent() {
+    return versionKey.equals(getVersionKey(tables));
+  }
+
+  // Query parameters sorted by name, so the order of parameters in the URL does not matter.
+  private static String getCanonicalQuery(Context ctx) {
+    StringBuilder query = new StringBuilder();
+    for (Map.Entry<String, List<String>> param : new TreeMap<>(ctx.queryParamMap()).entrySet()) {
+      for (String value : param.getValue()) {
+        if (!query.isEmpty()) {
+          query.append('&');
+        }
+        query.append(param.getKey()).append('=').append(value);
+      }
+    }
+    return query.toString();
+  }
+
+  /**
+   * @return Returns a key for the response that does not include the data versions.
+   */
+  public String getCacheKey() {
+    return cacheKey;
+  }
+
+  public DataTable[] getTables() {
+    return tables;
+  }
+
+  /**
+   * @return Returns true if the response is for a logged in user.
+   */
+  public boolean isPersonalized() {
+    return personalized;
+  }
+
+  public ResponseFormat getFormat() {
+    return format;
+  }
+
+  /**
+   * @return Returns the versions of the tables on this instance when the request was created.
+   */
+  public String getVersionKey() {
+    return versionKey;
+  }
+
+  public String getETag() {
+    return eTag;
+  }
+
+  public long getLastModified() {
+    return lastModified;
+  }
+
+  /**
+   * Sets the validator headers on the response. If the client already has the current response, the status is set to
+   * 304 and true is returned, in which case the request should not be processed further.
+   */
+  public boolean isNotModified(Context ctx) {
+    ctx.header("ETag", eTag);
+    ctx.header("Last-Modified", formatDate(lastModified));
+    ctx.header("Cache-Control", "no-cache");
+
+    if (matches(ctx.header("If-None-Match"))) {
+      ctx.status(304);
+      return true;
+    }
+    // If-Modified-Since is ignored when If-None-Match is present.
+    if (ctx.header("If-None-Match") == null && notModifiedSince(ctx.header("If-Modified-Since"))) {
+      ctx.status(304);
+      return true;
+    }
+    return false;
+  }
+
+  private boolean matches(String ifNoneMatch) {
+    return matchesETag(ifNoneMatch, eTag);
+  }
+
+  /**
+   * Compares an If-None-Match header with an ETag using the weak comparison function.
+   */
+  public static boolean matchesETag(String ifNoneMatch, String eTag) {
+    if (ifNoneMatch == null) {
+      return false;
+    }
+    String opaqueTag = stripWeakPrefix(eTag);
+    for (String candidate : ifNoneMatch.split(",")) {
+      String value = candidate.trim();
+      if (value.equals("*") || stripWeakPrefix(value).equals(opaqueTag)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static String stripWeakPrefix(String eTag) {
+    return eTag.startsWith("W/") ? eTag.substring(2) : eTag;
+  }
+
+  private boolean notModifiedSince(String ifModifiedSince) {
+    if (ifModifiedSince == null) {
+      return false;
+    }
+    try {
+      long since = DateTimeFormatter.RFC_1123_DATE_TIME.parse(ifModifiedSince, Instant::from).toEpochMilli();
+      return lastModified <= since;
+    } catch (DateTimeParseException e) {
+      return false;
+    }
+  }
+
+  private static String formatDate(long millis) {
+    return DateTimeFormatter.RFC_1123_DATE_TIME.format(Instant.ofEpochMilli(millis).atOffset(ZoneOffset.UTC));
+  }
+
+  private static String hash(String value) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      byte[] hash = digest.digest(value.getBytes(StandardCharsets.UTF_8));
+      return HexFormat.of().formatHex(hash, 0, 12);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -0,0 +1,45 @@
+package app.http;
+
+import io.javalin.Javalin;
+import io.javalin.http.Context;
+import org.apache.logging.log4j.ThreadContext;
+import utils.LogUtils;
+
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/*
+  Gives every request an id that is added to its log lines and returned in the X-Request-Id header. An id sent by the
+  client or a proxy is kept if it is short and only uses safe characters, so a request can be followed across
+  services, and otherwise a new one is generated.
+ */
+public class RequestId {
+
+  public static final String HEADER = "X-Request-Id";
+
+  private static final String ATTRIBUTE = "requestId";
+  private static final Pattern VALID_ID = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+
+  public static void register(Javalin app) {
+    app.before(ctx -> {
+      String requestId = ctx.header(HEADER);
+      if (requestId == null || !isValid(requestId)) {
+        requestId = UUID.randomUUID().toString();
+      }
+      ctx.attribute(ATTRIBUTE, requestId);
+      ctx.header(HEADER, requestId);
+      ThreadContext.put(LogUtils.REQUEST_ID, requestId);
+    });
+  }
+
+  /**
+   * @return Returns the id of the request, or null if the request failed before the before handlers ran.
+   */
+  public static String get(Context ctx) {
+    return ctx.attribute(ATTRIBUTE);
+  }
+
+  static boolean isValid(String requestId) {
+    return VALID_ID.matcher(requestId).matches();
+  }
+}
@@ -0,0 +1,153 @@
+package app.http;
+
+import app.http.ResponseCompression.Encoding;
+import app.metrics.MetricsApi;
+import database.version.DataTable;
+import database.version.DataVersion;
+import io.javalin.http.Context;
+import jakarta.servlet.ServletOutputStream;
+import org.eclipse.jetty.server.HttpOutput;
+import utils.Params;
+import utils.cache.SlabStore;
+import utils.jfr.CacheLookupEvent;
+import utils.metrics.RequestTrace;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/*
+  Serialized responses of read endpoints, stored with a compressed copy of the body for each enabled encoding.
+  A response is reused while the data versions it was built from are unchanged, so a cache hit is a map lookup and a
+  write of the stored bytes, and bodies are only compressed when the cache is filled. Responses for logged in users
+  contain their permissions and are not cached.
+
+  Bodies are kept off the heap in a SlabStore limited by RESPONSE_CACHE_MB, and are written to Jetty straight from
+  the slab. Entries are removed as soon as a table they were built from is written to.
+ */
+public class ResponseCache {
+
+  // The uncompressed body is the first variant, followed by one variant for each encoding.
+  private static final int IDENTITY = 0;
+
+  public interface ResponseLoader {
+    Object load() throws Exception;
+  }
+
+  public record CachedResponse(String versionKey, DataTable[] tables) {
+    public boolean dependsOn(DataTable table) {
+      return Arrays.asList(tables).contains(table);
+    }
+  }
+
+  private static final SlabStore<String, CachedResponse> responses = new SlabStore<>(
+      "responses",
+      Params.getResponseCacheBytes(),
+      Params.getResponseCacheSlabBytes()
+  );
+
+  static {
+    DataVersion.addListener(table -> responses.removeIf((key, response) -> response.dependsOn(table)));
+  }
+
+  private static int getVariantIndex(Encoding encoding) {
+    return encoding.ordinal() + 1;
+  }
+
+  /**
+   * Sends the cached response for the request, or loads, serializes and caches the response if the cache does not
+   * have the current version.
+   */
+  public static void respond(Context ctx, ConditionalRequest request, ResponseLoader loader) throws Exception {
+    ResponseFormat format = request.getFormat();
+    if (request.isPersonalized()) {
+      ctx.header("Vary", "Accept, Accept-Encoding");
+      ctx.contentType(format.getContentType());
+      Object result = loader.load();
+      try (RequestTrace.Span span = RequestTrace.span(RequestTrace.SERIALIZE)) {
+        ctx.result(format.serialize(ctx, result));
+      }
+      return;
+    }
+
+    CacheLookupEvent event = new CacheLookupEvent();
+    event.begin();
+    try (SlabStore.Handle<CachedResponse> cached = responses.acquire(request.getCacheKey())) {
+      if (cached != null && cached.getMetadata().versionKey().equals(request.getVersionKey())) {
+        event.commit(responses.getName(), true);
+        ByteBuffer[] variants = new ByteBuffer[Encoding.values().length + 1];
+        for (int i = 0; i < variants.length; i++) {
+          variants[i] = cached.getVariant(i);
+        }
+        write(ctx, format, variants);
+        return;
+      }
+    }
+
+    Object result = loader.load();
+    byte[][] variants = new byte[Encoding.values().length + 1][];
+    try (RequestTrace.Span span = RequestTrace.span(RequestTrace.SERIALIZE)) {
+      variants[IDENTITY] = format.serialize(ctx, result);
+    }
+    try (RequestTrace.Span span = RequestTrace.span(RequestTrace.COMPRESS)) {
+      for (Encoding encoding : Encoding.values()) {
+        variants[getVariantIndex(encoding)] = ResponseCompression.compress(variants[IDENTITY], encoding);
+      }
+    }
+
+    // The versions could have changed while the response was loaded, in which case it is sent but not cached.
+    if (request.isCurrent()) {
+      responses.put(request.getCacheKey(), new CachedResponse(request.getVersionKey(), request.getTables()), variants);
+    }
+    event.commit(responses.getName(), false);
+
+    ByteBuffer[] buffers = new ByteBuffer[variants.length];
+    for (int i = 0; i < variants.length; i++) {
+      buffers[i] = variants[i] == null ? null : ByteBuffer.wrap(variants[i]);
+    }
+    write(ctx, format, buffers);
+  }
+
+  private static void write(Context ctx, ResponseFormat format, ByteBuffer[] variants) throws IOException {
+    ByteBuffer body = variants[IDENTITY];
+    int uncompressedLength = body.remaining();
+
+    ctx.header("Vary", "Accept, Accept-Encoding");
+    Encoding encoding = ResponseCompression.negotiate(
+        ctx.header("Accept-Encoding"),
+        candidate -> variants[getVariantIndex(candidate)] != null
+    );
+    if (encoding != null) {
+      body = variants[getVariantIndex(encoding)];
+      ctx.header("Content-Encoding", encoding.getHeaderValue());
+    }
+    ResponseCompression.recordResponse(uncompressedLength, encoding, body.remaining());
+
+    ctx.status(200);
+    ctx.contentType(format.getContentType());
+    ctx.res().setContentLength(body.remaining());
+    MetricsApi.addServerTiming(ctx);
+
+    // Written directly to the response, which skips compression by Javalin. Jetty writes buffers to the connection
+    // without copying them into its own buffer first.
+    ServletOutputStream out = ctx.res().getOutputStream();
+    if (out instanceof HttpOutput httpOutput) {
+      httpOutput.write(body);
+    } else {
+      byte[] chunk = new byte[Math.min(body.remaining(), 8192)];
+      while (body.hasRemaining()) {
+        int length = Math.min(chunk.length, body.remaining());
+        body.get(chunk, 0, length);
+        out.write(chunk, 0, length);
+      }
+    }
+  }
+
+  public static void clear() {
+    responses.clear();
+  }
+
+  public static SlabStore<String, CachedResponse> getCache() {
+    return responses;
+  }
+}
@@ -0,0 +1,217 @@
+package app.http;
+
+import io.javalin.compression.CompressionStrategy;
+import io.javalin.compression.Gzip;
+import io.javalin.config.JavalinConfig;
+import utils.Params;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/*
+  Compression of response bodies. Encodings, level and minimum size are read from RESPONSE_COMPRESSION,
+  COMPRESSION_LEVEL and COMPRESSION_MIN_BYTES. Brotli is not supported because the JDK has no encoder for it, and the
+  encoders that Javalin supports use native libraries.
+ */
+public class ResponseCompression {
+
+  public enum Encoding {
+    GZIP("gzip"),
+    DEFLATE("deflate");
+
+    private final String headerValue;
+
+    Encoding(String headerValue) {
+      this.headerValue = headerValue;
+    }
+
+    public String getHeaderValue() {
+      return headerValue;
+    }
+  }
+
+  private static final List<Encoding> enabledEncodings = parseEncodings(Params.getResponseCompression());
+  private static final int level = Math.max(1, Math.min(9, Params.getCompressionLevel()));
+  private static final int minSize = Params.getCompressionMinBytes();
+
+  private static final AtomicLong uncompressedBytes = new AtomicLong();
+  private static final Map<Encoding, AtomicLong> bytesSent = new EnumMap<>(Encoding.class);
+  private static final Map<Encoding, AtomicLong> bytesSaved = new EnumMap<>(Encoding.class);
+
+  static {
+    for (Encoding encoding : Encoding.values()) {
+      bytesSent.put(encoding, new AtomicLong());
+      bytesSaved.put(encoding, new AtomicLong());
+    }
+  }
+
+  static List<Encoding> parseEncodings(String value) {
+    List<Encoding> encodings = new ArrayList<>();
+    if (value == null) {
+      return encodings;
+    }
+    for (String name : value.split(",")) {
+      for (Encoding encoding : Encoding.values()) {
+        if (encoding.getHeaderValue().equals(name.trim().toLowerCase(Locale.ROOT)) && !encodings.contains(encoding)) {
+          encodings.add(encoding);
+        }
+      }
+    }
+    return encodings;
+  }
+
+  public static List<Encoding> getEnabledEncodings() {
+    return enabledEncodings;
+  }
+
+  public static int getLevel() {
+    return level;
+  }
+
+  public static int getMinSize() {
+    return minSize;
+  }
+
+  /**
+   * Sets up the compression Javalin uses for responses that are not cached. Javalin only supports gzip without
+   * native libraries, so deflate is only used for cached responses.
+   */
+  public static void configure(JavalinConfig config) {
+    if (!enabledEncodings.contains(Encoding.GZIP)) {
+      config.http.disableCompression();
+      return;
+    }
+    CompressionStrategy strategy = new CompressionStrategy(null, new Gzip(level));
+    strategy.setDefaultMinSizeForCompression(minSize);
+    config.http.customCompression(strategy);
+  }
+
+  /**
+   * @return Returns the compressed body, or null if the body is below the minimum size or does not get smaller.
+   */
+  public static byte[] compress(byte[] body, Encoding encoding) {
+    if (body.length < minSize || !enabledEncodings.contains(encoding)) {
+      return null;
+    }
+    ByteArrayOutputStream compressed = new ByteArrayOutputStream(body.length / 4);
+    // A deflater passed to DeflaterOutputStream is not ended when the stream is closed, and holds native memory until
+    // it is.
+    Deflater deflater = encoding == Encoding.DEFLATE ? new Deflater(level) : null;
+    try (OutputStream out = createStream(compressed, encoding, deflater)) {
+      out.write(body);
+    } catch (IOException e) {
+      throw new IllegalStateException("Failed to compress response", e);
+    } finally {
+      if (deflater != null) {
+        deflater.end();
+      }
+    }
+    return compressed.size() < body.length ? compressed.toByteArray() : null;
+  }
+
+  private static OutputStream createStream(OutputStream out, Encoding encoding, Deflater deflater) throws IOException {
+    return switch (encoding) {
+      case GZIP -> new GZIPOutputStream(out) {
+        {
+          def.setLevel(level);
+        }
+      };
+      case DEFLATE -> new DeflaterOutputStream(out, deflater);
+    };
+  }
+
+  /**
+   * Picks the encoding to send from the Accept-Encoding header. Encodings with a higher q value are preferred, and
+   * ties are broken by the order of the configured encodings.
+   *
+   * @param available Returns whether a variant exists for the encoding.
+   * @return Returns the encoding, or null to send the body uncompressed.
+   */
+  public static Encoding negotiate(String acceptEncoding, Predicate<Encoding> available) {
+    if (acceptEncoding == null || acceptEncoding.isBlank()) {
+      return null;
+    }
+    Encoding best = null;
+    double bestQuality = 0;
+    for (Encoding encoding : enabledEncodings) {
+      if (!available.test(encoding)) {
+        continue;
+      }
+      double quality = getQuality(acceptEncoding, encoding.getHeaderValue());
+      if (quality > bestQuality) {
+        best = encoding;
+        bestQuality = quality;
+      }
+    }
+    return best;
+  }
+
+  // Returns the q value of the encoding, using the wildcard when the encoding is not listed.
+  static double getQuality(String acceptEncoding, String name) {
+    Double wildcard = null;
+    for (String part : acceptEncoding.split(",")) {
+      String[] params = part.trim().split(";");
+      String coding = params[0].trim().toLowerCase(Locale.ROOT);
+      double quality = 1;
+      for (int i = 1; i < params.length; i++) {
+        String param = params[i].trim();
+        if (param.startsWith("q=")) {
+          try {
+            quality = Double.parseDouble(param.substring(2).trim());
+          } catch (NumberFormatException e) {
+            quality = 0;
+          }
+        }
+      }
+      if (coding.equals(name)) {
+        return quality;
+      }
+      if (coding.equals("*")) {
+        wildcard = quality;
+      }
+    }
+    return wildcard == null ? 0 : wildcard;
+  }
+
+  /**
+   * Records a response that was sent. A null encoding means that the body was sent uncompressed.
+   */
+  public static void recordResponse(int uncompressedLength, Encoding encoding, int sentLength) {
+    uncompressedBytes.addAndGet(uncompressedLength);
+    if (encoding != null) {
+      bytesSent.get(encoding).addAndGet(sentLength);
+      bytesSaved.get(encoding).addAndGet(uncompressedLength - sentLength);
+    }
+  }
+
+  public static long getUncompressedBytes() {
+    return uncompressedBytes.get();
+  }
+
+  public static long getBytesSent(Encoding encoding) {
+    return bytesSent.get(encoding).get();
+  }
+
+  public static long getBytesSaved(Encoding encoding) {
+    return bytesSaved.get(encoding).get();
+  }
+
+  public static long getTotalBytesSaved() {
+    long total = 0;
+    for (AtomicLong saved : bytesSaved.values()) {
+      total += saved.get();
+    }
+    return total;
+  }
+}
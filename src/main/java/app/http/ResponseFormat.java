@@ -0,0 +1,98 @@
+package app.http;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORGenerator;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import io.javalin.http.Context;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * Formats that responses can be serialized in, chosen with the Accept header. JSON is used unless the client prefers
+ * CBOR or Smile. Both binary formats are set up to write repeated names and values once and refer back to them,
+ * which makes the many repeated day, city and field names in search results much smaller.
+ */
+public enum ResponseFormat {
+  JSON("application/json", null),
+  CBOR("application/cbor", CBORMapper.builder()
+      .enable(CBORGenerator.Feature.STRINGREF)
+      .build()),
+  SMILE("application/x-jackson-smile", SmileMapper.builder()
+      .enable(SmileGenerator.Feature.CHECK_SHARED_NAMES, SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+      .build());
+
+  private final String contentType;
+  private final ObjectMapper mapper;
+
+  ResponseFormat(String contentType, ObjectMapper mapper) {
+    this.contentType = contentType;
+    this.mapper = mapper;
+  }
+
+  public String getContentType() {
+    return contentType;
+  }
+
+  public byte[] serialize(Context ctx, Object result) throws Exception {
+    if (mapper == null) {
+      return ctx.jsonMapper().toJsonString(result, result.getClass()).getBytes(StandardCharsets.UTF_8);
+    }
+    return mapper.writeValueAsBytes(result);
+  }
+
+  // Used when there is no request, such as in benchmarks.
+  public byte[] serialize(ObjectMapper jsonMapper, Object result) throws Exception {
+    return (mapper == null ? jsonMapper : mapper).writeValueAsBytes(result);
+  }
+
+  /**
+   * @return Returns the binary format with the highest q value in the Accept header if that is higher than the q value
+   *         of JSON, or JSON otherwise. JSON gets the q value of application/json, or of the wildcard type that
+   *         matches it if it is not listed.
+   */
+  public static ResponseFormat negotiate(String accept) {
+    if (accept == null || accept.isBlank()) {
+      return JSON;
+    }
+    ResponseFormat best = JSON;
+    double bestQuality = 0;
+    double jsonQuality = -1;
+    double applicationQuality = -1;
+    double anyQuality = -1;
+    for (String part : accept.split(",")) {
+      String[] params = part.trim().split(";");
+      String mediaType = params[0].trim().toLowerCase(Locale.ROOT);
+      double quality = 1;
+      for (int i = 1; i < params.length; i++) {
+        String param = params[i].trim();
+        if (param.startsWith("q=")) {
+          try {
+            quality = Double.parseDouble(param.substring(2).trim());
+          } catch (NumberFormatException e) {
+            quality = 0;
+          }
+        }
+      }
+      switch (mediaType) {
+        case "application/json" -> jsonQuality = Math.max(jsonQuality, quality);
+        case "application/*" -> applicationQuality = Math.max(applicationQuality, quality);
+        case "*/*" -> anyQuality = Math.max(anyQuality, quality);
+        default -> {
+          for (ResponseFormat format : values()) {
+            if (format != JSON && format.contentType.equals(mediaType) && quality > bestQuality) {
+              best = format;
+              bestQuality = quality;
+            }
+          }
+        }
+      }
+    }
+    if (jsonQuality < 0) {
+      jsonQuality = applicationQuality >= 0 ? applicationQuality : anyQuality;
+    }
+    return bestQuality > jsonQuality ? best : JSON;
+  }
+}
@@ -0,0 +1,231 @@
+package app.metrics;
+
+import app.calendar.CalendarApi;
+import app.http.RequestId;
+import app.http.ResponseCache;
+import app.http.ResponseCompression;
+import app.http.ResponseCompression.Encoding;
+import database.content.ConventionsRepository;
+import database.permissions.GroupRoleCache;
+import database.user.UserRepository;
+import io.javalin.Javalin;
+import io.javalin.config.JavalinConfig;
+import io.javalin.http.Context;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.ThreadContext;
+import service.events.ListingEventBus;
+import service.recurrence.OccurrenceCache;
+import utils.LogUtils;
+import utils.Params;
+import utils.jfr.HttpRequestEvent;
+import utils.cache.ExpiringCache;
+import utils.cache.SlabStore;
+import utils.metrics.LatencyHistogram;
+import utils.metrics.Metrics;
+import utils.metrics.PrometheusWriter;
+import utils.metrics.RequestTrace;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class MetricsApi {
+
+  public static Logger logger = LogUtils.getLogger(MetricsApi.class);
+
+  public static final String SERVER_TIMING_HEADER = "Server-Timing";
+
+  private static final String ROUTE_ATTRIBUTE = "metricsRoute";
+  private static final String TRACE_ATTRIBUTE = "requestTrace";
+  private static final String EVENT_ATTRIBUTE = "requestEvent";
+  private static final String UNMATCHED_ROUTE = "unmatched";
+
+  /**
+   * Records the latency of every request once its response is complete, including requests that failed, and logs the
+   * time taken by each phase of traced requests. The request id is removed from the thread context afterwards, so it
+   * is not added to lines logged by the next request on the thread.
+   */
+  public static void configure(JavalinConfig config) {
+    config.requestLogger.http((ctx, executionTimeMs) -> {
+      long nanos = (long) (executionTimeMs * 1_000_000);
+      String route = ctx.attribute(ROUTE_ATTRIBUTE);
+      if (route != null) {
+        Metrics.requestFinished(route);
+      } else {
+        route = UNMATCHED_ROUTE;
+      }
+      Metrics.recordRequest(ctx.method().name(), route, ctx.statusCode(), nanos);
+
+      HttpRequestEvent event = ctx.attribute(EVENT_ATTRIBUTE);
+      if (event != null) {
+        event.commit(ctx.statusCode());
+      }
+
+      RequestTrace trace = ctx.attribute(TRACE_ATTRIBUTE);
+      String requestId = RequestId.get(ctx);
+      if (requestId != null) {
+        ThreadContext.put(LogUtils.REQUEST_ID, requestId);
+      }
+      try {
+        if (trace != null) {
+          trace.finish(ctx.statusCode(), nanos);
+          logger.info(trace.toLogLine());
+          Metrics.getSlowTraces().offer(trace, nanos);
+        }
+      } finally {
+        ThreadContext.remove(LogUtils.REQUEST_ID);
+      }
+    });
+  }
+
+  /**
+   * Adds the Server-Timing header with the phases of the request so far, unless the response was already sent.
+   * Handlers that write the response body themselves should call this first.
+   */
+  public static void addServerTiming(Context ctx) {
+    RequestTrace trace = ctx.attribute(TRACE_ATTRIBUTE);
+    if (trace == null || ctx.res().isCommitted() || ctx.res().containsHeader(SERVER_TIMING_HEADER)) {
+      return;
+    }
+    ctx.header(SERVER_TIMING_HEADER, trace.toServerTiming());
+  }
+
+  public static void metricsEndpoints(Javalin app) {
+    app.beforeMatched(ctx -> {
+      String route = ctx.endpointHandlerPath();
+      ctx.attribute(ROUTE_ATTRIBUTE, route);
+      ctx.attribute(TRACE_ATTRIBUTE, RequestTrace.start(ctx.method().name(), ctx.path(), route));
+      ctx.attribute(EVENT_ATTRIBUTE, HttpRequestEvent.begin(ctx.method().name(), route));
+      Metrics.requestStarted(route);
+    });
+
+    // Results set with ctx.result are written after the after handlers, so the header can still be added here.
+    app.after(ctx -> {
+      addServerTiming(ctx);
+      RequestTrace.detach();
+    });
+
+    app.get(
+        "/metrics",
+        ctx -> {
+          Optional<String> token = Params.getMetricsToken();
+          // The endpoint is disabled unless a token is configured.
+          if (token.isEmpty()) {
+            ctx.status(404);
+            return;
+          }
+          if (!isAuthorized(ctx, token.get())) {
+            ctx.status(401);
+            return;
+          }
+          ctx.contentType(PrometheusWriter.CONTENT_TYPE);
+          ctx.result(writeMetrics());
+        }
+    );
+  }
+
+  private static boolean isAuthorized(Context ctx, String token) {
+    String authorization = ctx.header("Authorization");
+    return authorization != null && MessageDigest.isEqual(
+        ("Bearer " + token).getBytes(StandardCharsets.UTF_8),
+        authorization.getBytes(StandardCharsets.UTF_8)
+    );
+  }
+
+  static String writeMetrics() {
+    PrometheusWriter writer = new PrometheusWriter();
+    writeRequests(writer);
+    writeDatabase(writer);
+    writeCaches(writer);
+    writeSupabase(writer);
+
+    writer.describe("listing_subscribers", "gauge", "Clients subscribed to listing events.")
+        .sample("listing_subscribers", ListingEventBus.getSubscriberCount());
+    writer.describe("listing_subscribers_dropped_total", "counter", "Subscribers disconnected for falling behind.")
+        .sample("listing_subscribers_dropped_total", ListingEventBus.getDroppedCount());
+    return writer.toString();
+  }
+
+  private static void writeRequests(PrometheusWriter writer) {
+    writer.describe("http_server_requests_seconds", "histogram", "Time taken to handle requests.");
+    for (Map.Entry<Metrics.RequestKey, LatencyHistogram> entry : Metrics.getRequests().entrySet()) {
+      Metrics.RequestKey key = entry.getKey();
+      writer.histogram(
+          "http_server_requests_seconds",
+          entry.getValue(),
+          "method", key.method(),
+          "route", key.route(),
+          "status", Integer.toString(key.status())
+      );
+    }
+
+    writer.describe("http_server_requests_in_flight", "gauge", "Requests being handled.");
+    for (Map.Entry<String, AtomicInteger> entry : Metrics.getInFlight().entrySet()) {
+      writer.sample("http_server_requests_in_flight", entry.getValue().get(), "route", entry.getKey());
+    }
+  }
+
+  // Connections are opened for each request rather than taken from a pool, so the time to connect is tracked instead
+  // of pool usage.
+  private static void writeDatabase(PrometheusWriter writer) {
+    writer.describe("db_connect_seconds", "histogram", "Time taken to open database connections.")
+        .histogram("db_connect_seconds", Metrics.getDbConnect());
+    writer.describe("db_connect_errors_total", "counter", "Database connections that failed to open.")
+        .sample("db_connect_errors_total", Metrics.getDbConnectErrors());
+  }
+
+  private static void writeCaches(PrometheusWriter writer) {
+    List<ExpiringCache<?, ?>> caches = List.of(
+        GroupRoleCache.getCache(),
+        UserRepository.getActiveUserCache(),
+        ConventionsRepository.getCache(),
+        OccurrenceCache.getCache(),
+        CalendarApi.getCache()
+    );
+    writer.describe("cache_hits_total", "counter", "Cache lookups that found a value.");
+    writer.describe("cache_misses_total", "counter", "Cache lookups that did not find a value.");
+    writer.describe("cache_hit_ratio", "gauge", "Share of cache lookups that found a value.");
+    writer.describe("cache_entries", "gauge", "Values stored in the cache.");
+    for (ExpiringCache<?, ?> cache : caches) {
+      writeCache(writer, cache.getName(), cache.getHits(), cache.getMisses(), cache.size());
+    }
+
+    SlabStore<String, ResponseCache.CachedResponse> responses = ResponseCache.getCache();
+    writeCache(writer, responses.getName(), responses.getHits(), responses.getMisses(), responses.size());
+    writer.describe("response_cache_bytes", "gauge", "Memory used by the response cache.")
+        .sample("response_cache_bytes", responses.getLiveBytes(), "type", "live")
+        .sample("response_cache_bytes", responses.getAllocatedBytes(), "type", "allocated")
+        .sample("response_cache_bytes", responses.getBudgetBytes(), "type", "budget");
+
+    writer.describe("response_compression_saved_bytes_total", "counter", "Bytes saved by compressing responses.");
+    for (Encoding encoding : Encoding.values()) {
+      writer.sample(
+          "response_compression_saved_bytes_total",
+          ResponseCompression.getBytesSaved(encoding),
+          "encoding", encoding.getHeaderValue()
+      );
+    }
+  }
+
+  private static void writeCache(PrometheusWriter writer, String name, long hits, long misses, int size) {
+    long lookups = hits + misses;
+    writer.sample("cache_hits_total", hits, "cache", name);
+    writer.sample("cache_misses_total", misses, "cache", name);
+    writer.sample("cache_hit_ratio", lookups == 0 ? 0 : (double) hits / lookups, "cache", name);
+    writer.sample("cache_entries", size, "cache", name);
+  }
+
+  private static void writeSupabase(PrometheusWriter writer) {
+    writer.describe("supabase_requests_seconds", "histogram", "Time taken by calls to the Supabase API.");
+    for (Map.Entry<String, LatencyHistogram> entry : Metrics.getSupabaseRequests().entrySet()) {
+      writer.histogram("supabase_requests_seconds", entry.getValue(), "operation", entry.getKey());
+    }
+    writer.describe("supabase_request_errors_total", "counter", "Calls to the Supabase API that failed.");
+    for (String operation : Metrics.getSupabaseRequests().keySet()) {
+      writer.sample("supabase_request_errors_total", Metrics.getSupabaseErrors(operation), "operation", operation);
+    }
+  }
+}
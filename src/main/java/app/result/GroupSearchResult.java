@@ -1,6 +1,8 @@
 package app.result;
 
 import app.data.Event;
+import app.data.auth.GroupAdminType;
+import app.data.auth.PermissionName;
 import app.groups.data.Group;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
@@ -26,7 +28,7 @@ public class GroupSearchResult {
 
   public GroupSearchResult() {
     groupData = new LinkedHashMap<Integer, Group>();
-    logger = LogUtils.getLogger();
+    logger = LogUtils.getLogger(GroupSearchResult.class);
   }
 
   public void addGroup(
@@ -47,7 +49,7 @@ public class GroupSearchResult {
     }
   }
 
-  public void addEvent(
+  public Event addEvent(
     Integer groupId,
     Integer eventId,
     String name,
@@ -61,7 +63,7 @@ public class GroupSearchResult {
         "Group with id {} does not exist. Event will not be added to group search result",
         groupId
       );
-      return;
+      return null;
     }
 
     Group group = groupData.get(groupId);
@@ -73,6 +75,11 @@ public class GroupSearchResult {
     event.setLocation(address);
     event.setId(eventId);
     group.addEvent(event);
+    return event;
+  }
+
+  public Group getGroup(Integer groupId) {
+    return groupData.get(groupId);
   }
 
   public Group getFirstGroup() {
@@ -102,8 +109,27 @@ public class GroupSearchResult {
             Map.Entry::getKey, Map.Entry::getValue, (e1, e2) -> e1, LinkedHashMap::new));
   }
 
+  public Set<Integer> getGroupIds() {
+    return groupData.keySet();
+  }
+
   public void setCanEdit(Group group, boolean canEdit){
-    //TODO: Add logic.
+    group.enablePermission(PermissionName.USER_CAN_EDIT.toString(), canEdit);
+  }
+
+  /*
+    Sets the permissions of every group in the result using the admin levels of the current user. Groups that are not
+    in the map cannot be edited by the user.
+   */
+  public void setPermissions(Map<Integer, GroupAdminType> adminLevels){
+    for(Group group: groupData.values()){
+      GroupAdminType adminLevel = adminLevels.get(group.getId());
+      setCanEdit(group, adminLevel != null);
+      group.enablePermission(
+          PermissionName.USER_IS_GROUP_ADMIN.toString(),
+          adminLevel == GroupAdminType.GROUP_ADMIN
+      );
+    }
   }
 
 }
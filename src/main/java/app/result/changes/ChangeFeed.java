@@ -0,0 +1,43 @@
+package app.result.changes;
+
+import database.changes.Change;
+
+import java.util.List;
+
+public class ChangeFeed {
+
+  private List<Change> changes;
+  private long version;
+  private boolean hasMore;
+  private boolean fullResync;
+
+  public ChangeFeed(List<Change> changes, long version, boolean hasMore, boolean fullResync){
+    this.changes = changes;
+    this.version = version;
+    this.hasMore = hasMore;
+    this.fullResync = fullResync;
+  }
+
+  public List<Change> getChanges(){
+    return changes;
+  }
+
+  /**
+   * @return Returns the version to send as the since parameter of the next request.
+   */
+  public long getVersion(){
+    return version;
+  }
+
+  public boolean getHasMore(){
+    return hasMore;
+  }
+
+  /**
+   * @return Returns true if changes after the requested version are no longer in the log, in which case the client
+   * should download all data again and continue from the returned version.
+   */
+  public boolean getFullResync(){
+    return fullResync;
+  }
+}
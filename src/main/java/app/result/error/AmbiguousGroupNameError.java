@@ -0,0 +1,7 @@
+package app.result.error;
+
+public class AmbiguousGroupNameError extends Exception{
+  public AmbiguousGroupNameError(String message){
+    super(message);
+  }
+}
@@ -4,9 +4,11 @@ import app.data.Event;
 import app.groups.data.Group;
 import app.data.auth.PermissionName;
 
-import java.time.DayOfWeek;
+import service.recurrence.OccurrenceCache;
+import service.recurrence.OccurrenceWindow;
+import service.recurrence.RecurrenceRule;
+
 import java.time.LocalDate;
-import java.time.temporal.TemporalAdjusters;
 import java.util.HashMap;
 import java.util.Set;
 import java.util.TreeSet;
@@ -78,17 +80,18 @@ public class GroupPageData {
     GroupPageData data = new GroupPageData(group.getId(), group.getName(), group.getUrl(), group.getSummary());
 
     LocalDate currentDate = LocalDate.now();
+    LocalDate lastDate = currentDate.plusDays(TIME_RANGE_DAYS);
 
     if(group.getEvents() != null){
       for(Event event: group.getEvents()) {
-
-        //TODO: Handle case where events are not recurring
-        String day = event.getDay();
-        LocalDate nextEventDate = currentDate.with(TemporalAdjusters.nextOrSame(DayOfWeek.valueOf(day.toUpperCase())));
-        while (nextEventDate.minusDays(TIME_RANGE_DAYS + 1).isBefore(currentDate)) {
-          data.addEventData(nextEventDate, event.getName(), event.getSummary(), event.getLocation(), event.getId());
-          nextEventDate = nextEventDate.plusDays(7);
+        RecurrenceRule rule = RecurrenceRule.fromEvent(event);
+        if (rule == null) {
+          continue;
         }
+        OccurrenceWindow occurrences = OccurrenceCache.getWindow(rule, currentDate);
+        occurrences.forEach(currentDate, lastDate, date ->
+            data.addEventData(date, event.getName(), event.getSummary(), event.getLocation(), event.getId())
+        );
       }
     }
 
@@ -0,0 +1,67 @@
+package app.result.timeline;
+
+import com.fasterxml.jackson.annotation.JsonGetter;
+
+import java.time.LocalDate;
+
+// Single occurrence of an event in the timeline.
+public class TimelineEntry {
+
+  private LocalDate date;
+  private int groupId;
+  private String groupName;
+  private String groupUrl;
+  private int eventId;
+  private String eventName;
+  private String location;
+
+  public TimelineEntry(
+      LocalDate date,
+      int groupId,
+      String groupName,
+      String groupUrl,
+      int eventId,
+      String eventName,
+      String location) {
+    this.date = date;
+    this.groupId = groupId;
+    this.groupName = groupName;
+    this.groupUrl = groupUrl;
+    this.eventId = eventId;
+    this.eventName = eventName;
+    this.location = location;
+  }
+
+  @JsonGetter("date")
+  public String getSerializedDate(){
+    return date.toString();
+  }
+
+  public LocalDate getDate(){
+    return date;
+  }
+
+  public int getGroupId(){
+    return groupId;
+  }
+
+  public String getGroupName(){
+    return groupName;
+  }
+
+  public String getGroupUrl(){
+    return groupUrl;
+  }
+
+  public int getEventId(){
+    return eventId;
+  }
+
+  public String getEventName(){
+    return eventName;
+  }
+
+  public String getLocation(){
+    return location;
+  }
+}
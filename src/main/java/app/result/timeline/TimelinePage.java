@@ -0,0 +1,34 @@
+package app.result.timeline;
+
+import java.util.List;
+
+public class TimelinePage {
+
+  private List<TimelineEntry> entries;
+  private int page;
+  private int pageSize;
+  private boolean hasMore;
+
+  public TimelinePage(List<TimelineEntry> entries, int page, int pageSize, boolean hasMore){
+    this.entries = entries;
+    this.page = page;
+    this.pageSize = pageSize;
+    this.hasMore = hasMore;
+  }
+
+  public List<TimelineEntry> getEntries(){
+    return entries;
+  }
+
+  public int getPage(){
+    return page;
+  }
+
+  public int getPageSize(){
+    return pageSize;
+  }
+
+  public boolean getHasMore(){
+    return hasMore;
+  }
+}
@@ -10,7 +10,7 @@ import service.auth.AuthService;
 import utils.LogUtils;
 
 public class UsersApi {
-  public static Logger logger = LogUtils.getLogger();
+  public static Logger logger = LogUtils.getLogger(UsersApi.class);
 
   public static void createEndpoints(Javalin app){
     app.post(
@@ -37,7 +37,7 @@ public class UsersApi {
               ctx.status(500);
             }
           }catch (Exception e){
-            e.printStackTrace();
+            logger.error("Failed to register user", e);
             ctx.result(e.getMessage());
             ctx.status(500);
           }
@@ -1,5 +1,9 @@
 package database;
 
+import database.permissions.GroupRoleCache;
+import database.version.DataVersion;
+import service.events.ListingEventBus;
+
 import java.sql.Connection;
 
 public class BaseRepository {
@@ -14,9 +18,15 @@ public class BaseRepository {
   }
   public void rollbackChanges() throws Exception{
     connection.rollback();
+    DataVersion.rolledBack(connection);
+    ListingEventBus.rolledBack(connection);
+    GroupRoleCache.rolledBack(connection);
   }
 
   public void commitChanges() throws Exception {
     connection.commit();
+    DataVersion.committed(connection);
+    ListingEventBus.committed(connection);
+    GroupRoleCache.committed(connection);
   }
 }
@@ -0,0 +1,7 @@
+package database.changes;
+
+/**
+ * The latest change to an entity. Clients should fetch upserted entities again and remove deleted ones.
+ */
+public record Change(long version, EntityType type, int id, ChangeOperation operation) {
+}
@@ -0,0 +1,172 @@
+package database.changes;
+
+import org.apache.logging.log4j.Logger;
+import service.events.ListingEventBus;
+import utils.LogUtils;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+  Log of the entities changed by each write. Versions come from a sequence, so they increase across every instance of
+  the server. Entries are written on the same connection as the change they describe, so they are committed or rolled
+  back together with it.
+
+  A version is taken from the sequence when an entry is written, not when it is committed. If two transactions wrote
+  entries at the same time, a client could see the later version committed, sync past it, and never see the earlier
+  one. To prevent this, each entry is written while holding a transaction-level advisory lock, which is kept until the
+  transaction ends. Transactions that write to the log therefore commit one at a time in version order, and a committed
+  version is never followed by a lower one. Writers wait for each other, which is why imports commit in chunks.
+
+  Compaction removes entries that were superseded by a later change to the same entity, which keeps one entry per
+  entity, and removes deletes older than the retention period. The highest version removed that way is saved as the
+  horizon. Clients that last synced before the horizon may have missed a delete and have to download everything again.
+ */
+public class ChangeLogRepository {
+
+  // Key of the advisory lock that orders writes to the change log.
+  static final long CHANGE_LOG_LOCK = 0x6368616e67656cL;
+
+  Logger logger;
+
+  public ChangeLogRepository() {
+    logger = LogUtils.getLogger(ChangeLogRepository.class);
+  }
+
+  /**
+   * Records the change and publishes it to listing subscribers once it is committed.
+   */
+  public void recordChange(EntityType type, int id, ChangeOperation operation, Connection conn) throws Exception {
+    // The lock is taken before the row, and its version, is produced.
+    String query = """
+            WITH lock AS (SELECT pg_advisory_xact_lock(?))
+            INSERT INTO change_log (entity_type, entity_id, operation)
+            SELECT ?, ?, ? FROM lock
+            returning version
+        """;
+    PreparedStatement insert = conn.prepareStatement(query);
+    insert.setLong(1, CHANGE_LOG_LOCK);
+    insert.setString(2, type.name());
+    insert.setInt(3, id);
+    insert.setString(4, operation.name());
+
+    ResultSet rs = insert.executeQuery();
+    rs.next();
+    ListingEventBus.publish(conn, new Change(rs.getLong(1), type, id, operation));
+  }
+
+  public void recordUpsert(EntityType type, int id, Connection conn) throws Exception {
+    recordChange(type, id, ChangeOperation.UPSERT, conn);
+  }
+
+  public void recordDelete(EntityType type, int id, Connection conn) throws Exception {
+    recordChange(type, id, ChangeOperation.DELETE, conn);
+  }
+
+  /**
+   * Returns the latest change to each entity changed after the version, ordered by version. Only the first entries up
+   * to the limit are returned. The version of the last entry can be used to get the next page.
+   */
+  public List<Change> getChangesSince(long since, int limit, Connection conn) throws Exception {
+    String query = """
+            SELECT version, entity_type, entity_id, operation FROM (
+              SELECT DISTINCT ON (entity_type, entity_id) version, entity_type, entity_id, operation
+              FROM change_log
+              WHERE version > ?
+              ORDER BY entity_type, entity_id, version DESC
+            ) latest
+            ORDER BY version
+            LIMIT ?
+        """;
+    PreparedStatement select = conn.prepareStatement(query);
+    select.setLong(1, since);
+    select.setInt(2, limit);
+
+    ResultSet rs = select.executeQuery();
+    List<Change> changes = new ArrayList<>();
+    while (rs.next()) {
+      changes.add(new Change(
+          rs.getLong("version"),
+          EntityType.valueOf(rs.getString("entity_type")),
+          rs.getInt("entity_id"),
+          ChangeOperation.valueOf(rs.getString("operation"))
+      ));
+    }
+    return changes;
+  }
+
+  /**
+   * @return Returns the highest version removed by compaction, or 0 if nothing was removed.
+   */
+  public long getHorizon(Connection conn) throws Exception {
+    String query = "SELECT version FROM change_log_horizon WHERE id = 1";
+    PreparedStatement select = conn.prepareStatement(query);
+    ResultSet rs = select.executeQuery();
+    return rs.next() ? rs.getLong(1) : 0;
+  }
+
+  /**
+   * @return Returns the highest version that was recorded, including versions removed by compaction.
+   */
+  public long getLatestVersion(Connection conn) throws Exception {
+    String query = """
+            SELECT greatest(
+              (SELECT coalesce(max(version), 0) FROM change_log),
+              (SELECT coalesce(max(version), 0) FROM change_log_horizon)
+            )
+        """;
+    PreparedStatement select = conn.prepareStatement(query);
+    ResultSet rs = select.executeQuery();
+    rs.next();
+    return rs.getLong(1);
+  }
+
+  /**
+   * Removes superseded entries and deletes recorded before the cutoff. Should be run in a transaction, so the horizon
+   * is saved together with the removed entries.
+   *
+   * @return Returns the number of entries removed.
+   */
+  public int compact(Instant deleteCutoff, Connection conn) throws Exception {
+    String supersededQuery = """
+            DELETE FROM change_log old
+            USING change_log newer
+            WHERE old.entity_type = newer.entity_type
+              AND old.entity_id = newer.entity_id
+              AND old.version < newer.version
+        """;
+    PreparedStatement deleteSuperseded = conn.prepareStatement(supersededQuery);
+    int removed = deleteSuperseded.executeUpdate();
+
+    String expiredQuery = "DELETE FROM change_log WHERE operation = ? AND changed_at < ? RETURNING version";
+    PreparedStatement deleteExpired = conn.prepareStatement(expiredQuery);
+    deleteExpired.setString(1, ChangeOperation.DELETE.name());
+    deleteExpired.setTimestamp(2, Timestamp.from(deleteCutoff));
+
+    ResultSet rs = deleteExpired.executeQuery();
+    long horizon = 0;
+    while (rs.next()) {
+      horizon = Math.max(horizon, rs.getLong(1));
+      removed++;
+    }
+
+    if (horizon > 0) {
+      String horizonQuery = """
+              INSERT INTO change_log_horizon (id, version)
+              VALUES(1, ?)
+              ON CONFLICT (id) DO UPDATE
+                SET version = greatest(change_log_horizon.version, excluded.version)
+          """;
+      PreparedStatement saveHorizon = conn.prepareStatement(horizonQuery);
+      saveHorizon.setLong(1, horizon);
+      saveHorizon.executeUpdate();
+    }
+    logger.info("Removed {} entries from the change log", removed);
+    return removed;
+  }
+}
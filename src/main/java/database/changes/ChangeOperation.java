@@ -0,0 +1,6 @@
+package database.changes;
+
+public enum ChangeOperation {
+  UPSERT,
+  DELETE
+}
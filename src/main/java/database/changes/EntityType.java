@@ -0,0 +1,13 @@
+package database.changes;
+
+/**
+ * Types of entities recorded in the change log.
+ */
+public enum EntityType {
+  GROUP,
+  EVENT,
+  CONVENTION,
+  GAME_STORE,
+  GAME_RESTAURANT,
+  LOCATION_TAG
+}
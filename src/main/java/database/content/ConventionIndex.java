@@ -0,0 +1,98 @@
+package database.content;
+
+import app.data.Convention;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/*
+  Interval index over the dates of each convention. Conventions are sorted by their first day and stored as an implicit
+  balanced tree, where the middle of each range is the root of that range. Every node also stores the latest end day
+  in its subtree, so subtrees that end before the search range can be skipped. Finding the conventions that overlap a
+  range takes O(log n + k) time, and results are returned in chronological order.
+
+  The Convention objects are shared between requests and should not be modified.
+ */
+public class ConventionIndex {
+
+  public record ConventionSpan(Convention convention, LocalDate start, LocalDate end) {}
+
+  private final Convention[] conventions;
+  private final long[] starts;
+  private final long[] ends;
+  private final long[] maxEnds;
+
+  private ConventionIndex(List<ConventionSpan> spans) {
+    List<ConventionSpan> sorted = new ArrayList<>(spans);
+    sorted.sort(Comparator
+        .comparing(ConventionSpan::start)
+        .thenComparing(span -> span.convention().getId()));
+
+    int size = sorted.size();
+    conventions = new Convention[size];
+    starts = new long[size];
+    ends = new long[size];
+    maxEnds = new long[size];
+    for (int i = 0; i < size; i++) {
+      ConventionSpan span = sorted.get(i);
+      conventions[i] = span.convention();
+      starts[i] = span.start().toEpochDay();
+      ends[i] = span.end().toEpochDay();
+    }
+    computeMaxEnd(0, size);
+  }
+
+  public static ConventionIndex create(List<ConventionSpan> spans) {
+    return new ConventionIndex(spans);
+  }
+
+  private long computeMaxEnd(int low, int high) {
+    if (low >= high) {
+      return Long.MIN_VALUE;
+    }
+    int mid = (low + high) >>> 1;
+    long max = Math.max(ends[mid], Math.max(computeMaxEnd(low, mid), computeMaxEnd(mid + 1, high)));
+    maxEnds[mid] = max;
+    return max;
+  }
+
+  /**
+   * Returns the conventions with at least one day between from and to, inclusive, ordered by their first day.
+   * A null end date searches without an upper bound, and at most limit conventions are returned.
+   */
+  public List<Convention> getOverlapping(LocalDate from, LocalDate to, int limit) {
+    List<Convention> result = new ArrayList<>();
+    if (limit <= 0) {
+      return result;
+    }
+    long fromDay = from.toEpochDay();
+    long toDay = to == null ? Long.MAX_VALUE : to.toEpochDay();
+    collect(0, conventions.length, fromDay, toDay, limit, result);
+    return result;
+  }
+
+  private void collect(int low, int high, long from, long to, int limit, List<Convention> result) {
+    if (low >= high || result.size() >= limit) {
+      return;
+    }
+    int mid = (low + high) >>> 1;
+    if (maxEnds[mid] < from) {
+      return;
+    }
+    collect(low, mid, from, to, limit, result);
+    // Everything to the right starts after this convention.
+    if (starts[mid] > to || result.size() >= limit) {
+      return;
+    }
+    if (ends[mid] >= from) {
+      result.add(conventions[mid]);
+    }
+    collect(mid + 1, high, from, to, limit, result);
+  }
+
+  public int size() {
+    return conventions.length;
+  }
+}
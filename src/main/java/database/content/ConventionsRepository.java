@@ -1,77 +1,140 @@
 package database.content;
 
 import app.data.Convention;
+import database.changes.ChangeLogRepository;
+import database.changes.EntityType;
+import database.version.DataTable;
+import database.version.DataVersion;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
-import java.sql.Timestamp;
 import java.time.LocalDate;
+import java.time.Duration;
 import java.time.ZoneId;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
 
 import org.apache.logging.log4j.Logger;
 import utils.LogUtils;
+import utils.cache.ExpiringCache;
 
 public class ConventionsRepository {
   Logger logger;
 
+  private static final String INDEX_KEY = "conventions";
+
+  // Conventions change only when data is imported, so the index is rebuilt after an import or when it expires.
+  private static final ExpiringCache<String, ConventionIndex> conventionIndex =
+      new ExpiringCache<>("conventionIndex", 1, Duration.ofMinutes(10));
+
   public ConventionsRepository() {
-    logger = LogUtils.getLogger();
+    logger = LogUtils.getLogger(ConventionsRepository.class);
+  }
+
+  /**
+   * Returns the conventions with at least one day between from and to, inclusive, in chronological order.
+   * A null end date returns every convention from the start date. Only the days from the start date on are included,
+   * so a convention that is already underway lists its remaining days.
+   */
+  public LinkedHashMap<Integer, Convention> getConventions(
+      LocalDate from,
+      LocalDate to,
+      int limit,
+      Connection conn
+  ) throws Exception {
+    ConventionIndex index = conventionIndex.getOrLoad(INDEX_KEY, key -> loadConventionIndex(conn));
+
+    LinkedHashMap<Integer, Convention> conventions = new LinkedHashMap<>();
+    for (Convention convention : index.getOverlapping(from, to, limit)) {
+      conventions.put(convention.getId(), getRemainingDays(convention, from));
+    }
+    return conventions;
+  }
+
+  // Conventions in the index are shared, so a copy is returned when days have to be removed.
+  private static Convention getRemainingDays(Convention convention, LocalDate from) {
+    String firstDay = from.toString();
+    String[] days = convention.getDays();
+    int first = 0;
+    while (first < days.length && days[first].compareTo(firstDay) < 0) {
+      first++;
+    }
+    if (first == 0) {
+      return convention;
+    }
+    Convention remaining = new Convention();
+    remaining.setId(convention.getId());
+    remaining.setUrl(convention.getUrl());
+    remaining.setName(convention.getName());
+    remaining.setDays(Arrays.copyOfRange(days, first, days.length));
+    return remaining;
+  }
+
+  public LinkedHashMap<Integer, Convention> getConventions(LocalDate searchStartDate, Connection conn) throws Exception{
+    return getConventions(searchStartDate, null, Integer.MAX_VALUE, conn);
   }
 
-  public HashMap<Integer, Convention> getConventions(LocalDate searchStartDate,Connection conn) throws Exception{
-    String query = "SELECT * from events\n" +
+  private ConventionIndex loadConventionIndex(Connection conn) throws Exception {
+    String query = "SELECT events.id, events.url, events.name, event_time.start_time from events\n" +
         "JOIN event_time on event_time.event_id = events.id\n" +
         "WHERE is_convention is TRUE\n" +
-        "AND start_time >= ?";
+        "ORDER BY events.id, event_time.start_time";
 
     PreparedStatement select = conn.prepareStatement(query);
-    select.setTimestamp(1, Timestamp.valueOf(searchStartDate.atStartOfDay()));
     ResultSet rs = select.executeQuery();
 
-    HashMap<Integer, Convention> conventions = new HashMap<Integer, Convention>();
-
-    HashMap<Integer, Integer> conventionDays = new HashMap<Integer, Integer>();
+    List<ConventionIndex.ConventionSpan> spans = new ArrayList<>();
+    Convention convention = null;
+    List<String> days = new ArrayList<>();
+    LocalDate start = null;
+    LocalDate end = null;
     while(rs.next()){
+      int conventionId = rs.getInt("id");
+      LocalDate date = rs.getTimestamp("start_time")
+          .toInstant()
+          .atZone(ZoneId.systemDefault())
+          .toLocalDate();
 
-      int conventionId = rs.getInt("event_id");
-      if(!conventions.containsKey(conventionId)){
-        Convention convention = new Convention();
+      if (convention == null || convention.getId() != conventionId) {
+        if (convention != null) {
+          convention.setDays(days.toArray(new String[0]));
+          spans.add(new ConventionIndex.ConventionSpan(convention, start, end));
+        }
+        convention = new Convention();
         convention.setId(conventionId);
         convention.setUrl(rs.getString("url"));
         convention.setName(rs.getString("name"));
-
-        String date = rs.getTimestamp("start_time")
-            .toInstant()
-            .atZone(ZoneId.systemDefault())
-            .toLocalDate()
-            .toString();
-        convention.setDays(new String[]{date});
-        conventionDays.put(
-            conventionId,
-            1
-        );
-        conventions.put(conventionId, convention);
-      }
-      else {
-        conventionDays.put(conventionId, conventionDays.get(conventionId) + 1);
+        days = new ArrayList<>();
+        start = date;
       }
+      days.add(date.toString());
+      end = date;
+    }
+    if (convention != null) {
+      convention.setDays(days.toArray(new String[0]));
+      spans.add(new ConventionIndex.ConventionSpan(convention, start, end));
     }
 
-    logger.info("Found conventions");
+    logger.info("Loaded {} conventions into the convention index", spans.size());
+    return ConventionIndex.create(spans);
+  }
 
-    for(Integer conventionId: conventionDays.keySet()){
-      int days = conventionDays.get(conventionId);
-      if(days > 1){
-        conventions.get(conventionId).addDays(days - 1);
-      }
-    }
-    return conventions;
+  public static void invalidateConventionIndex() {
+    conventionIndex.clear();
+  }
+
+  public static ExpiringCache<String, ConventionIndex> getCache() {
+    return conventionIndex;
   }
+
   public void insertConventions(Convention[] conventions, Connection conn)
     throws Exception {
+    invalidateConventionIndex();
     EventRepository eventRepository = new EventRepository();
     EventTimeRepository eventTimeRepository = new EventTimeRepository();
+    ChangeLogRepository changeLogRepository = new ChangeLogRepository();
     for (Convention convention : conventions) {
       logger.debug(convention.getName());
 
@@ -80,6 +143,7 @@ public class ConventionsRepository {
         convention.getUrl(),
         conn
       );
+      boolean changed = eventId == -1;
       if (eventId == -1) {
         String query =
           "INSERT INTO events (url, name, is_convention) VALUES(?, ?, true) returning id";
@@ -103,8 +167,12 @@ public class ConventionsRepository {
           Integer.parseInt(data[0]),
           Integer.parseInt(data[1])
         );
-        eventTimeRepository.setEventDate(convention.getId(), localDate, conn);
+        changed |= eventTimeRepository.setEventDate(convention.getId(), localDate, conn);
+      }
+      if (changed) {
+        changeLogRepository.recordUpsert(EntityType.CONVENTION, convention.getId(), conn);
       }
     }
+    DataVersion.changed(conn, DataTable.CONVENTIONS, DataTable.EVENTS);
   }
 }
@@ -2,9 +2,14 @@ package database.content;
 
 import app.data.Event;
 import app.groups.data.Group;
+import database.changes.ChangeLogRepository;
+import database.changes.EntityType;
+import database.version.DataTable;
+import database.version.DataVersion;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.time.LocalDate;
 
 import service.data.SearchParameterValidator;
 
@@ -14,11 +19,13 @@ public class EventRepository {
     GroupsRepository groupsRepository = new GroupsRepository();
     LocationsRepository locationsRepository = new LocationsRepository();
     EventTimeRepository eventTimeRepository = new EventTimeRepository();
+    ChangeLogRepository changeLogRepository = new ChangeLogRepository();
 
     for (Group group : groups) {
       int groupId = groupsRepository.getGroupId(group, conn);
       for (Event event : group.events) {
         int eventId = getEvent(event.getName(), group.url, conn);
+        boolean changed = eventId == -1;
         if (eventId == -1) {
           if (!SearchParameterValidator.isValidAddress(event.getLocation())) {
             String query =
@@ -50,11 +57,19 @@ public class EventRepository {
             eventId = rs.getInt(1);
           }
         }
-        updateEventGroupMap(groupId, eventId, conn);
+        changed |= updateEventGroupMap(groupId, eventId, conn);
         event.setId(eventId);
-        eventTimeRepository.setEventDay(event, conn);
+        if (event.getDate() != null) {
+          changed |= eventTimeRepository.setEventDate(eventId, LocalDate.parse(event.getDate()), conn);
+        } else {
+          changed |= eventTimeRepository.setEventDay(event, conn);
+        }
+        if (changed) {
+          changeLogRepository.recordUpsert(EntityType.EVENT, eventId, conn);
+        }
       }
     }
+    DataVersion.changed(conn, DataTable.EVENTS);
   }
 
   public int getEvent(String eventTitle, String url, Connection conn)
@@ -70,7 +85,8 @@ public class EventRepository {
     return -1;
   }
 
-  private void updateEventGroupMap(
+  // Returns true if the event was not already mapped to the group.
+  private boolean updateEventGroupMap(
     int groupId,
     int locationId,
     Connection conn
@@ -85,7 +101,7 @@ public class EventRepository {
     select.setInt(2, locationId);
     ResultSet rs = select.executeQuery();
     if (rs.next()) {
-      return;
+      return false;
     }
     String query =
       "INSERT INTO event_group_map(group_id, event_id) values(?,?)";
@@ -93,6 +109,8 @@ public class EventRepository {
     insert.setInt(1, groupId);
     insert.setInt(2, locationId);
     insert.executeUpdate();
+    DataVersion.changed(conn, DataTable.EVENTS);
+    return true;
   }
 
   public Event getEvents() {
@@ -1,30 +1,46 @@
 package database.content;
 
 import app.data.Event;
+import database.version.DataTable;
+import database.version.DataVersion;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.Timestamp;
+import java.sql.Types;
 import java.time.LocalDate;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.postgresql.util.PSQLException;
+import service.recurrence.RecurrenceRule;
 
 public class EventTimeRepository {
   private static final Logger logger = LogManager.getLogger(
     EventTimeRepository.class
   );
 
-  public void setEventDay(Event event, Connection conn) throws Exception {
+  /**
+   * @return Returns true if the day was not already set.
+   * @throws IllegalArgumentException If the week of the month could not be read back as a monthly recurrence.
+   */
+  public boolean setEventDay(Event event, Connection conn) throws Exception {
+    Integer weekOfMonth = event.getWeekOfMonth();
+    if (weekOfMonth != null && !RecurrenceRule.isValidWeekOfMonth(weekOfMonth)) {
+      throw new IllegalArgumentException("Invalid week of month for event " + event.getName() + ":" + weekOfMonth);
+    }
     if (!hasEventDay(event, conn)) {
       String day = event.getDay();
       String query =
-        "INSERT into event_time (day_of_week, event_id) VALUES(cast(? AS dayofweek), ?)";
+        "INSERT into event_time (day_of_week, event_id, week_of_month) VALUES(cast(? AS dayofweek), ?, ?)";
       PreparedStatement insert = conn.prepareStatement(query);
       insert.setString(1, day);
       insert.setInt(2, event.getId());
+      insert.setObject(3, event.getWeekOfMonth(), Types.INTEGER);
       insert.executeUpdate();
+      DataVersion.changed(conn, DataTable.EVENTS);
+      return true;
     }
+    return false;
   }
 
   public boolean hasEventDay(Event event, Connection conn) throws Exception {
@@ -44,7 +60,10 @@ public class EventTimeRepository {
     }
   }
 
-  public void setEventDate(int eventId, LocalDate date, Connection conn)
+  /**
+   * @return Returns true if the date was not already set.
+   */
+  public boolean setEventDate(int eventId, LocalDate date, Connection conn)
     throws Exception {
     if (!hasEventDate(eventId, date, conn)) {
       String day = date.getDayOfWeek().toString();
@@ -55,7 +74,10 @@ public class EventTimeRepository {
       insert.setInt(2, eventId);
       insert.setTimestamp(3, Timestamp.valueOf(date.atStartOfDay()));
       insert.executeUpdate();
+      DataVersion.changed(conn, DataTable.EVENTS);
+      return true;
     }
+    return false;
   }
 
   public boolean hasEventDate(int eventId, LocalDate date, Connection conn)
@@ -1,6 +1,10 @@
 package database.content;
 
 import app.data.GameRestaurant;
+import database.changes.ChangeLogRepository;
+import database.changes.EntityType;
+import database.version.DataTable;
+import database.version.DataVersion;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
@@ -14,7 +18,7 @@ public class GameRestaurantRepository {
   Logger logger;
 
   public GameRestaurantRepository() {
-    logger = LogUtils.getLogger();
+    logger = LogUtils.getLogger(GameRestaurantRepository.class);
   }
 
   public HashMap<Integer, GameRestaurant> getGameRestauarants(Connection conn) throws Exception{
@@ -48,6 +52,7 @@ public class GameRestaurantRepository {
   )
     throws Exception {
     LocationsRepository locationRepository = new LocationsRepository();
+    ChangeLogRepository changeLogRepository = new ChangeLogRepository();
 
     for (GameRestaurant gameRestaurant : gameRestaurants) {
       int location_id = locationRepository.insertLocation(
@@ -58,15 +63,18 @@ public class GameRestaurantRepository {
       if (!hasGameRestaurant(gameRestaurant, location_id, conn)) {
         logger.debug(gameRestaurant.getName());
         String query =
-          "INSERT INTO game_restaurants (url, name, location_id) VALUES(?, ?, ?)";
+          "INSERT INTO game_restaurants (url, name, location_id) VALUES(?, ?, ?) returning id";
         PreparedStatement insert = conn.prepareStatement(query);
         insert.clearBatch();
         insert.setString(1, gameRestaurant.getUrl());
         insert.setString(2, gameRestaurant.getName());
         insert.setInt(3, location_id);
-        insert.executeUpdate();
+        ResultSet rs = insert.executeQuery();
+        rs.next();
+        changeLogRepository.recordUpsert(EntityType.GAME_RESTAURANT, rs.getInt(1), conn);
       }
     }
+    DataVersion.changed(conn, DataTable.GAME_RESTAURANTS);
   }
 
   public boolean hasGameRestaurant(
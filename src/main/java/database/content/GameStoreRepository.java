@@ -1,6 +1,10 @@
 package database.content;
 
 import app.data.GameStore;
+import database.changes.ChangeLogRepository;
+import database.changes.EntityType;
+import database.version.DataTable;
+import database.version.DataVersion;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
@@ -13,7 +17,7 @@ public class GameStoreRepository {
   Logger logger;
 
   public GameStoreRepository() {
-    logger = LogUtils.getLogger();
+    logger = LogUtils.getLogger(GameStoreRepository.class);
   }
 
   public HashMap<Integer, GameStore> getGameStores(Connection conn) throws Exception{
@@ -45,6 +49,7 @@ public class GameStoreRepository {
   public void insertGameStores(GameStore[] gameStores, Connection conn)
     throws Exception {
     LocationsRepository locationRepository = new LocationsRepository();
+    ChangeLogRepository changeLogRepository = new ChangeLogRepository();
 
     for (GameStore gameStore : gameStores) {
       if (!gameStoreExists(gameStore, conn)) {
@@ -52,17 +57,20 @@ public class GameStoreRepository {
           gameStore.getLocation(),
           conn
         );
-        logger.debug("Inserting game store:" + gameStore.getName());
+        logger.debug("Inserting game store:{}", gameStore.getName());
         String query =
-          "INSERT INTO game_stores (url, name, location_id) VALUES(?, ?, ?)";
+          "INSERT INTO game_stores (url, name, location_id) VALUES(?, ?, ?) returning id";
         PreparedStatement insert = conn.prepareStatement(query);
         insert.clearBatch();
         insert.setString(1, gameStore.getUrl());
         insert.setString(2, gameStore.getName());
         insert.setInt(3, location_id);
-        insert.executeUpdate();
+        ResultSet rs = insert.executeQuery();
+        rs.next();
+        changeLogRepository.recordUpsert(EntityType.GAME_STORE, rs.getInt(1), conn);
       }
     }
+    DataVersion.changed(conn, DataTable.GAME_STORES);
   }
 
   public boolean gameStoreExists(GameStore gameStore, Connection conn)
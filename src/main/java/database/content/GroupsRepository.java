@@ -2,21 +2,30 @@ package database.content;
 
 import app.groups.data.Group;
 import app.data.auth.User;
+import app.result.error.GroupNotFoundError;
+import database.changes.ChangeLogRepository;
+import database.changes.EntityType;
+import database.permissions.GroupRoleCache;
+import database.version.DataTable;
+import database.version.DataVersion;
 import org.apache.logging.log4j.Logger;
 import utils.LogUtils;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
 public class GroupsRepository {
 
-  private static Logger logger = LogUtils.getLogger();
+  private static Logger logger = LogUtils.getLogger(GroupsRepository.class);
   public void insertGroups(Group[] groups, Connection conn) throws Exception {
     LocationsRepository locationsRepository = new LocationsRepository();
+    ChangeLogRepository changeLogRepository = new ChangeLogRepository();
     Set<String> urlsInDb = getGroupsInDatabase(groups, conn);
     for (Group group : groups) {
       if (!urlsInDb.contains(group.url)) {
@@ -48,12 +57,14 @@ public class GroupsRepository {
             groupLocationInsert.setInt(2, groupId);
             groupLocationInsert.executeUpdate();
           }
+          changeLogRepository.recordUpsert(EntityType.GROUP, groupId, conn);
         } else {
           logger.error("Error inserting groups");
           throw new Exception();
         }
       }
     }
+    DataVersion.changed(conn, DataTable.GROUPS);
   }
 
   // This is a workaround for an issue related to using prepared statements with duplicates.
@@ -116,12 +127,16 @@ public class GroupsRepository {
       groupPermissionInsert.setInt(2, groupId);
 
       groupPermissionInsert.executeUpdate();
+      GroupRoleCache.invalidateUser(conn, groupAdmin.getId());
+      new ChangeLogRepository().recordUpsert(EntityType.GROUP, groupId, conn);
+      DataVersion.changed(conn, DataTable.GROUPS);
+      DataVersion.changed(conn, DataTable.GROUP_ADMINS, List.of(groupAdmin.getId()));
       groupToInsert.setId(groupId);
 
-      logger.info("Created group with name:"+groupToInsert.getName());
+      logger.info("Created group with name:{}", groupToInsert.getName());
       return groupToInsert;
     } catch(Exception e) {
-      logger.error("Failed to set user:"+groupAdmin.getEmail() + "with id:" + groupAdmin.getId() + " as group admin");
+      logger.error("Failed to set user:{} with id:{} as group admin", groupAdmin.getEmail(), groupAdmin.getId());
       throw e;
     }
   }
@@ -166,7 +181,11 @@ public class GroupsRepository {
       update.setString(3, groupToUpdate.getSummary());
       update.setInt(4, groupToUpdate.getId());
 
-      update.executeUpdate();
+      if(update.executeUpdate() == 0){
+        throw new GroupNotFoundError("Group "+groupToUpdate.getId() + " not found");
+      }
+      new ChangeLogRepository().recordUpsert(EntityType.GROUP, groupToUpdate.getId(), conn);
+      DataVersion.changed(conn, DataTable.GROUPS);
 
     } catch (Exception e){
       logger.error("Failed to update group");
@@ -177,6 +196,27 @@ public class GroupsRepository {
 
   public void deleteGroup(int groupId, Connection conn) throws Exception{
     try {
+      // Events that only belong to this group are removed from listings with it, so subscribers are told they are gone.
+      String eventsQuery = """
+             SELECT event_id FROM event_group_map mapping
+             WHERE group_id = ?
+               AND NOT EXISTS (
+                 SELECT 1 FROM event_group_map other
+                 WHERE other.event_id = mapping.event_id AND other.group_id <> mapping.group_id
+               )
+          """;
+      PreparedStatement selectEvents = conn.prepareStatement(eventsQuery);
+      selectEvents.setInt(1, groupId);
+      List<Integer> eventIds = new ArrayList<>();
+      ResultSet eventRs = selectEvents.executeQuery();
+      while (eventRs.next()) {
+        eventIds.add(eventRs.getInt(1));
+      }
+
+      PreparedStatement deleteEventMappings = conn.prepareStatement("DELETE FROM event_group_map WHERE group_id = ?");
+      deleteEventMappings.setInt(1, groupId);
+      deleteEventMappings.executeUpdate();
+
       String deleteQuery =    """
              DELETE FROM groups
              WHERE id = ?
@@ -184,7 +224,17 @@ public class GroupsRepository {
 
       PreparedStatement delete = conn.prepareStatement(deleteQuery);
       delete.setInt(1, groupId);
-      delete.executeUpdate();
+      int deleted = delete.executeUpdate();
+      GroupRoleCache.invalidateGroup(conn, groupId);
+      if(deleted == 0){
+        throw new GroupNotFoundError("Group "+groupId + " not found");
+      }
+      ChangeLogRepository changeLogRepository = new ChangeLogRepository();
+      changeLogRepository.recordDelete(EntityType.GROUP, groupId, conn);
+      for (int eventId : eventIds) {
+        changeLogRepository.recordDelete(EntityType.EVENT, eventId, conn);
+      }
+      DataVersion.changed(conn, DataTable.GROUPS, DataTable.EVENTS, DataTable.GROUP_ADMINS);
 
     } catch (Exception e){
       logger.error("Failed to update group");
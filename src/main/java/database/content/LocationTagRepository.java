@@ -1,6 +1,10 @@
 package database.content;
 
 import app.data.LocationTag;
+import database.changes.ChangeLogRepository;
+import database.changes.EntityType;
+import database.version.DataTable;
+import database.version.DataVersion;
 import org.apache.logging.log4j.Logger;
 import utils.LogUtils;
 
@@ -13,7 +17,7 @@ public class LocationTagRepository {
   Logger logger;
 
   public LocationTagRepository(){
-    logger = LogUtils.getLogger();
+    logger = LogUtils.getLogger(LocationTagRepository.class);
   }
 
 
@@ -56,6 +60,8 @@ public class LocationTagRepository {
     mappingInsert.setInt(1, locationTagId);
     mappingInsert.setInt(2, locationId);
     mappingInsert.execute();
+    new ChangeLogRepository().recordUpsert(EntityType.LOCATION_TAG, locationTagId, conn);
+    DataVersion.changed(conn, DataTable.LOCATION_TAGS);
   }
 
   public Integer getLocationTagId(String locationTag, Connection conn) throws Exception{
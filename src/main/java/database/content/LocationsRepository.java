@@ -6,6 +6,8 @@ import java.sql.ResultSet;
 import java.util.ArrayList;
 
 import database.search.SameLocationData;
+import database.version.DataTable;
+import database.version.DataVersion;
 import org.apache.logging.log4j.Logger;
 import service.data.SearchParameterException;
 import service.data.SearchParameterValidator;
@@ -16,7 +18,7 @@ public class LocationsRepository {
   Logger logger;
 
   public LocationsRepository(){
-    logger = LogUtils.getLogger();
+    logger = LogUtils.getLogger(LocationsRepository.class);
   }
 
   /*
@@ -40,6 +42,7 @@ public class LocationsRepository {
     insert.setString(1, city);
     ResultSet insertRs = insert.executeQuery();
     if (insertRs.next()) {
+      DataVersion.changed(conn, DataTable.LOCATIONS);
       return insertRs.getInt(1);
     }
     logger.error("Insert did not succeed");
@@ -48,7 +51,7 @@ public class LocationsRepository {
 
   public int insertLocation(String address, Connection conn) throws Exception {
     if (!SearchParameterValidator.isValidAddress(address)) {
-      logger.error("Invalid address:" + address);
+      logger.error("Invalid address:{}", address);
       throw new SearchParameterException("Invalid address");
     }
 
@@ -71,8 +74,8 @@ public class LocationsRepository {
       insert.setString(4, zipCode);
       ResultSet rs = insert.executeQuery();
       if (rs.next()) {
+        DataVersion.changed(conn, DataTable.LOCATIONS);
         return rs.getInt(1);
-
       }
       logger.error("Insert did not succeed");
       throw new Exception();
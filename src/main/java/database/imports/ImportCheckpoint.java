@@ -0,0 +1,15 @@
+package database.imports;
+
+/**
+ * Progress of a chunked bulk import. The offset is the number of items of the stage that have been committed.
+ */
+public record ImportCheckpoint(String payloadHash, ImportStage stage, int offset) {
+
+  public static ImportCheckpoint start(String payloadHash){
+    return new ImportCheckpoint(payloadHash, ImportStage.GROUPS, 0);
+  }
+
+  public boolean isComplete(){
+    return stage == ImportStage.COMPLETE;
+  }
+}
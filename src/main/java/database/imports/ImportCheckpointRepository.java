@@ -0,0 +1,57 @@
+package database.imports;
+
+import org.apache.logging.log4j.Logger;
+import utils.LogUtils;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.Optional;
+
+public class ImportCheckpointRepository {
+
+  Logger logger;
+
+  public ImportCheckpointRepository(){
+    logger = LogUtils.getLogger(ImportCheckpointRepository.class);
+  }
+
+  public Optional<ImportCheckpoint> getCheckpoint(String payloadHash, Connection conn) throws Exception {
+    String query = """
+            SELECT entity_type, entity_offset
+            FROM import_checkpoint
+            WHERE payload_hash = ?
+        """;
+
+    PreparedStatement select = conn.prepareStatement(query);
+    select.setString(1, payloadHash);
+
+    ResultSet rs = select.executeQuery();
+    if(!rs.next()){
+      return Optional.empty();
+    }
+    ImportStage stage = ImportStage.valueOf(rs.getString("entity_type"));
+    return Optional.of(new ImportCheckpoint(payloadHash, stage, rs.getInt("entity_offset")));
+  }
+
+  /*
+    The checkpoint should be saved on the same connection and in the same transaction as the chunk it describes, so
+    that a failure can never leave a checkpoint that is ahead of the committed data.
+   */
+  public void saveCheckpoint(ImportCheckpoint checkpoint, Connection conn) throws Exception {
+    String query = """
+            INSERT INTO import_checkpoint (payload_hash, entity_type, entity_offset)
+            VALUES(?, ?, ?)
+            ON CONFLICT (payload_hash) DO UPDATE
+              SET entity_type = excluded.entity_type,
+              entity_offset = excluded.entity_offset,
+              updated_at = now()
+        """;
+
+    PreparedStatement upsert = conn.prepareStatement(query);
+    upsert.setString(1, checkpoint.payloadHash());
+    upsert.setString(2, checkpoint.stage().name());
+    upsert.setInt(3, checkpoint.offset());
+    upsert.executeUpdate();
+  }
+}
@@ -0,0 +1,15 @@
+package database.imports;
+
+/*
+  Stages of a bulk import, in the order they are applied. Events are imported after groups, conventions, stores and
+  restaurants because they are mapped to groups that must already exist.
+ */
+public enum ImportStage {
+  GROUPS,
+  CONVENTIONS,
+  GAME_STORES,
+  GAME_RESTAURANTS,
+  EVENTS,
+  LOCATION_TAGS,
+  COMPLETE
+}
@@ -0,0 +1,266 @@
+package database.jdbc;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import utils.jfr.StatementEvent;
+
+/*
+  Wraps connections so that every statement they create records its executions in SqlStatistics, without changing
+  the repositories. Connections, statements and result sets are replaced with proxies that time each execute call and
+  count the rows and bytes read from its results, and otherwise call the driver's objects directly. Bind parameters of
+  prepared statements are kept until the statement is executed, in case it is slow and is passed to the SlowQueryLog.
+
+  The proxies compare by identity, since connections are used as keys to hold changes until they are committed.
+ */
+public class InstrumentedJdbc {
+
+  private static final String BATCH_STATEMENT = "(batch)";
+
+  // Getters of a result set that return its state rather than values of the current row.
+  private static final Set<String> RESULT_SET_STATE_GETTERS = Set.of(
+      "getMetaData", "getStatement", "getRow", "getType", "getConcurrency", "getHoldability", "getFetchSize",
+      "getFetchDirection", "getWarnings", "getCursorName"
+  );
+
+  public static Connection wrap(Connection connection) {
+    return (Connection) Proxy.newProxyInstance(
+        InstrumentedJdbc.class.getClassLoader(),
+        new Class<?>[]{Connection.class},
+        new ConnectionHandler(connection)
+    );
+  }
+
+  private static Object call(Object target, Method method, Object[] args) throws Throwable {
+    try {
+      return method.invoke(target, args);
+    } catch (InvocationTargetException e) {
+      throw e.getCause();
+    }
+  }
+
+  // Handles the methods of Object, and returns null for every other method.
+  private static Object callObjectMethod(Object proxy, Object target, Method method, Object[] args) {
+    return switch (method.getName()) {
+      case "equals" -> method.getParameterCount() == 1 ? proxy == args[0] : null;
+      case "hashCode" -> method.getParameterCount() == 0 ? System.identityHashCode(proxy) : null;
+      case "toString" -> method.getParameterCount() == 0 ? "Instrumented " + target : null;
+      default -> null;
+    };
+  }
+
+  private static class ConnectionHandler implements InvocationHandler {
+    private final Connection connection;
+
+    ConnectionHandler(Connection connection) {
+      this.connection = connection;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      Object objectResult = callObjectMethod(proxy, connection, method, args);
+      if (objectResult != null) {
+        return objectResult;
+      }
+      Object result = call(connection, method, args);
+      return switch (method.getName()) {
+        case "prepareStatement" -> wrapStatement((Statement) result, PreparedStatement.class, (Connection) proxy, (String) args[0]);
+        case "prepareCall" -> wrapStatement((Statement) result, CallableStatement.class, (Connection) proxy, (String) args[0]);
+        case "createStatement" -> wrapStatement((Statement) result, Statement.class, (Connection) proxy, null);
+        default -> result;
+      };
+    }
+  }
+
+  private static Statement wrapStatement(Statement statement, Class<?> type, Connection connection, String sql) {
+    return (Statement) Proxy.newProxyInstance(
+        InstrumentedJdbc.class.getClassLoader(),
+        new Class<?>[]{type},
+        new StatementHandler(statement, connection, sql)
+    );
+  }
+
+  private static class StatementHandler implements InvocationHandler {
+    private final Statement statement;
+    private final Connection connection;
+    // Null for plain statements, which are given their SQL when they are executed.
+    private final String preparedSql;
+    private final String normalizedSql;
+    private Map<Integer, Object> parameters;
+    private StatementStats lastStats;
+
+    StatementHandler(Statement statement, Connection connection, String preparedSql) {
+      this.statement = statement;
+      this.connection = connection;
+      this.preparedSql = preparedSql;
+      this.normalizedSql = preparedSql == null ? null : SqlNormalizer.normalize(preparedSql);
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      Object objectResult = callObjectMethod(proxy, statement, method, args);
+      if (objectResult != null) {
+        return objectResult;
+      }
+      String name = method.getName();
+      if (name.startsWith("execute")) {
+        return execute((Statement) proxy, method, args);
+      }
+      if (preparedSql != null) {
+        setParameter(name, args);
+      }
+      Object result = call(statement, method, args);
+      return switch (name) {
+        case "getResultSet", "getGeneratedKeys" -> wrapResultSet((ResultSet) result, (Statement) proxy, lastStats);
+        case "getConnection" -> connection;
+        default -> result;
+      };
+    }
+
+    // Parameters are set with an index and a value, or an index and a type for setNull.
+    private void setParameter(String name, Object[] args) {
+      if (name.equals("clearParameters")) {
+        parameters = null;
+        return;
+      }
+      if (!name.startsWith("set") || args == null || args.length < 2 || !(args[0] instanceof Integer index)) {
+        return;
+      }
+      if (parameters == null) {
+        parameters = new TreeMap<>();
+      }
+      parameters.put(index, name.equals("setNull") ? null : args[1]);
+    }
+
+    private Object execute(Statement proxy, Method method, Object[] args) throws Throwable {
+      String sql = preparedSql;
+      String normalized = normalizedSql;
+      if (sql == null) {
+        sql = args != null && args.length > 0 && args[0] instanceof String text ? text : null;
+        normalized = sql == null ? BATCH_STATEMENT : SqlNormalizer.normalize(sql);
+      }
+      StatementStats stats = SqlStatistics.get(normalized);
+      lastStats = stats;
+      SqlStatistics.countForRequest(stats);
+
+      StatementEvent event = new StatementEvent();
+      event.begin();
+      long start = System.nanoTime();
+      boolean success = false;
+      try {
+        Object result = call(statement, method, args);
+        success = true;
+        if (result instanceof ResultSet resultSet) {
+          return wrapResultSet(resultSet, proxy, stats);
+        }
+        return result;
+      } finally {
+        long nanos = System.nanoTime() - start;
+        event.commit(normalized, success);
+        stats.recordExecution(nanos, success);
+        if (SlowQueryLog.isSlow(nanos)) {
+          boolean batch = method.getName().equals("executeBatch");
+          SlowQueryLog.record(
+              normalized,
+              batch ? null : sql,
+              parameters == null || batch ? null : new TreeMap<>(parameters),
+              nanos
+          );
+        }
+      }
+    }
+  }
+
+  private static ResultSet wrapResultSet(ResultSet resultSet, Statement statement, StatementStats stats) {
+    if (resultSet == null || stats == null) {
+      return resultSet;
+    }
+    return (ResultSet) Proxy.newProxyInstance(
+        InstrumentedJdbc.class.getClassLoader(),
+        new Class<?>[]{ResultSet.class},
+        new ResultSetHandler(resultSet, statement, stats)
+    );
+  }
+
+  /*
+    Counts rows and bytes locally and adds them to the statement's statistics when the results are exhausted or
+    closed, so reading a value does not touch shared counters.
+   */
+  private static class ResultSetHandler implements InvocationHandler {
+    private final ResultSet resultSet;
+    private final Statement statement;
+    private final StatementStats stats;
+    private long rows;
+    private long bytes;
+
+    ResultSetHandler(ResultSet resultSet, Statement statement, StatementStats stats) {
+      this.resultSet = resultSet;
+      this.statement = statement;
+      this.stats = stats;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      Object objectResult = callObjectMethod(proxy, resultSet, method, args);
+      if (objectResult != null) {
+        return objectResult;
+      }
+      String name = method.getName();
+      if (name.equals("getStatement")) {
+        return statement;
+      }
+      if (name.equals("close")) {
+        flush();
+        return call(resultSet, method, args);
+      }
+
+      Object result = call(resultSet, method, args);
+      if (name.equals("next")) {
+        if ((Boolean) result) {
+          rows++;
+        } else {
+          flush();
+        }
+      } else if (name.startsWith("get") && !RESULT_SET_STATE_GETTERS.contains(name)) {
+        bytes += estimateSize(result);
+      }
+      return result;
+    }
+
+    private void flush() {
+      if (rows > 0 || bytes > 0) {
+        stats.recordRead(rows, bytes);
+        rows = 0;
+        bytes = 0;
+      }
+    }
+  }
+
+  static long estimateSize(Object value) {
+    if (value == null) {
+      return 0;
+    }
+    if (value instanceof String text) {
+      return text.length();
+    }
+    if (value instanceof byte[] data) {
+      return data.length;
+    }
+    if (value instanceof Boolean) {
+      return 1;
+    }
+    if (value instanceof Integer || value instanceof Float) {
+      return 4;
+    }
+    return 8;
+  }
+}
@@ -0,0 +1,56 @@
+package database.jdbc;
+
+import java.util.List;
+
+/**
+ * A statement that took longer than the slow query threshold. Bind parameters are kept as descriptions of their types
+ * and lengths, never their values. The plan is added later, if the query was sampled to be explained.
+ */
+public class SlowQuery {
+
+  private final String sql;
+  private final List<String> parameters;
+  private final double durationMillis;
+  private final long executedAt;
+  private final String route;
+  private volatile String plan;
+
+  public SlowQuery(String sql, List<String> parameters, double durationMillis, long executedAt, String route) {
+    this.sql = sql;
+    this.parameters = parameters;
+    this.durationMillis = durationMillis;
+    this.executedAt = executedAt;
+    this.route = route;
+  }
+
+  public String getSql() {
+    return sql;
+  }
+
+  public List<String> getParameters() {
+    return parameters;
+  }
+
+  public double getDurationMillis() {
+    return durationMillis;
+  }
+
+  public long getExecutedAt() {
+    return executedAt;
+  }
+
+  /**
+   * @return Returns the route of the request that ran the query, or null if it was not run for a request.
+   */
+  public String getRoute() {
+    return route;
+  }
+
+  public String getPlan() {
+    return plan;
+  }
+
+  void setPlan(String plan) {
+    this.plan = plan;
+  }
+}
@@ -0,0 +1,247 @@
+package database.jdbc;
+
+import database.utils.ConnectionProvider;
+import org.apache.logging.log4j.Logger;
+import utils.LogUtils;
+import utils.Params;
+import utils.metrics.RequestTrace;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.regex.Pattern;
+
+/*
+  Statements that take longer than SLOW_QUERY_MS are logged with their normalized SQL and a description of their bind
+  parameters, and the most recent ones are kept for the admin endpoint.
+
+  A sample of slow SELECT statements is run again with EXPLAIN (ANALYZE, BUFFERS) on a separate connection, on a
+  single background thread, so the request that ran the query does not wait for it. The plan is run in a transaction
+  that is rolled back, with a statement timeout, and each statement is explained at most once per interval. The latest
+  plan of each statement is kept, and a change in the shape of the plan is logged, so a query that starts using a
+  different plan can be found without attaching a profiler.
+ */
+public class SlowQueryLog {
+
+  static final int EXPLAIN_QUEUE_SIZE = 16;
+  static final long EXPLAIN_INTERVAL_MILLIS = 5 * 60 * 1000;
+  static final String EXPLAIN_TIMEOUT = "10s";
+  static final int MAX_PLANS = 200;
+
+  private static final Logger logger = LogUtils.getLogger(SlowQueryLog.class);
+
+  // Lines of a plan that only contain measurements, which differ between runs of the same plan.
+  private static final Pattern MEASUREMENT_LINE = Pattern.compile(
+      "^\\s*(Buffers|Planning|Execution|Heap Blocks|Worker|Sort Method|Memory Usage|Rows Removed|I/O Timings|Batches)"
+          + "[^\\n]*$",
+      Pattern.MULTILINE
+  );
+  private static final Pattern MEASUREMENT = Pattern.compile("\\((cost|actual)[^)]*\\)|\\d+");
+
+  /**
+   * The latest plan of a statement, and the number of times its shape changed since it was first explained.
+   */
+  public record StatementPlan(String sql, String plan, long explainedAt, int changes) {}
+
+  private static final long thresholdNanos = Params.getSlowQueryMillis() * 1_000_000L;
+  private static final double explainSampleRate = Params.getExplainSamplePercent() / 100.0;
+
+  private static final AtomicReferenceArray<SlowQuery> queries = new AtomicReferenceArray<>(Params.getSlowQueryCapacity());
+  private static final AtomicLong next = new AtomicLong();
+  private static final Map<String, StatementPlan> plans = new ConcurrentHashMap<>();
+  private static final Map<String, Long> lastExplained = new ConcurrentHashMap<>();
+
+  // Queries are not explained when the queue is full.
+  private static final ThreadPoolExecutor explainer = new ThreadPoolExecutor(
+      1,
+      1,
+      0,
+      TimeUnit.MILLISECONDS,
+      new ArrayBlockingQueue<>(EXPLAIN_QUEUE_SIZE),
+      runnable -> {
+        Thread thread = new Thread(runnable, "slow-query-explain");
+        thread.setDaemon(true);
+        return thread;
+      },
+      new ThreadPoolExecutor.DiscardPolicy()
+  );
+
+  public static boolean isSlow(long nanos) {
+    return nanos >= thresholdNanos;
+  }
+
+  /**
+   * Logs and keeps a slow statement, and schedules it to be explained if it is sampled.
+   *
+   * @param normalizedSql The statement with its literals replaced, which is the only form that is logged.
+   * @param sql The statement as it was run, used to explain it.
+   * @param parameters Bind parameters by index, used to explain the statement and described in the log.
+   */
+  static void record(String normalizedSql, String sql, Map<Integer, Object> parameters, long nanos) {
+    RequestTrace trace = RequestTrace.current();
+    SlowQuery query = new SlowQuery(
+        normalizedSql,
+        describeParameters(parameters),
+        nanos / 1_000_000.0,
+        System.currentTimeMillis(),
+        trace == null ? null : trace.getRoute()
+    );
+    String duration = String.format(Locale.ROOT, "%.1f", query.getDurationMillis());
+    if (query.getRoute() == null) {
+      logger.warn("Slow query {}ms: {} parameters: {}", duration, normalizedSql, query.getParameters());
+    } else {
+      logger.warn(
+          "Slow query {}ms in {} {}: {} parameters: {}",
+          duration, trace.getMethod(), query.getRoute(), normalizedSql, query.getParameters()
+      );
+    }
+    if (queries.length() > 0) {
+      queries.set((int) (next.getAndIncrement() % queries.length()), query);
+    }
+
+    if (shouldExplain(normalizedSql, sql)) {
+      explainer.execute(() -> explain(query, sql, parameters));
+    }
+  }
+
+  private static boolean shouldExplain(String normalizedSql, String sql) {
+    if (sql == null || explainSampleRate <= 0 || !isReadOnlySelect(normalizedSql)) {
+      return false;
+    }
+    if (explainSampleRate < 1 && ThreadLocalRandom.current().nextDouble() >= explainSampleRate) {
+      return false;
+    }
+    long now = System.currentTimeMillis();
+    Long last = lastExplained.get(normalizedSql);
+    if (last != null && now - last < EXPLAIN_INTERVAL_MILLIS) {
+      return false;
+    }
+    if (!plans.containsKey(normalizedSql) && plans.size() >= MAX_PLANS) {
+      return false;
+    }
+    lastExplained.put(normalizedSql, now);
+    return true;
+  }
+
+  // EXPLAIN ANALYZE runs the statement, so only statements that do not write are explained.
+  static boolean isReadOnlySelect(String normalizedSql) {
+    String lower = normalizedSql.toLowerCase(Locale.ROOT);
+    return lower.startsWith("select ") && !lower.contains(" for update") && !lower.contains(" for share");
+  }
+
+  static List<String> describeParameters(Map<Integer, Object> parameters) {
+    List<String> descriptions = new ArrayList<>();
+    if (parameters == null) {
+      return descriptions;
+    }
+    parameters.forEach((index, value) -> descriptions.add("$" + index + "=" + describe(value)));
+    return descriptions;
+  }
+
+  private static String describe(Object value) {
+    if (value == null) {
+      return "null";
+    }
+    if (value instanceof String text) {
+      return "string(" + text.length() + ")";
+    }
+    if (value instanceof byte[] data) {
+      return "bytes(" + data.length + ")";
+    }
+    return value.getClass().getSimpleName().toLowerCase(Locale.ROOT);
+  }
+
+  private static void explain(SlowQuery query, String sql, Map<Integer, Object> parameters) {
+    try (Connection conn = new ConnectionProvider().getUninstrumentedConnection()) {
+      conn.setAutoCommit(false);
+      try {
+        try (Statement timeout = conn.createStatement()) {
+          timeout.execute("SET LOCAL statement_timeout = '" + EXPLAIN_TIMEOUT + "'");
+        }
+        PreparedStatement statement = conn.prepareStatement("EXPLAIN (ANALYZE, BUFFERS) " + sql);
+        if (parameters != null) {
+          for (Map.Entry<Integer, Object> parameter : parameters.entrySet()) {
+            statement.setObject(parameter.getKey(), parameter.getValue());
+          }
+        }
+        StringBuilder plan = new StringBuilder();
+        ResultSet rs = statement.executeQuery();
+        while (rs.next()) {
+          plan.append(rs.getString(1)).append('\n');
+        }
+        query.setPlan(plan.toString());
+        savePlan(query.getSql(), plan.toString());
+      } finally {
+        conn.rollback();
+      }
+    } catch (Exception e) {
+      logger.warn("Failed to explain slow query: {}", e.getMessage());
+    }
+  }
+
+  static void savePlan(String normalizedSql, String plan) {
+    plans.compute(normalizedSql, (sql, previous) -> {
+      int changes = 0;
+      if (previous != null) {
+        changes = previous.changes();
+        if (!getShape(previous.plan()).equals(getShape(plan))) {
+          changes++;
+          logger.warn("Plan changed for {}\nPrevious plan:\n{}New plan:\n{}", sql, previous.plan(), plan);
+        }
+      }
+      return new StatementPlan(sql, plan, System.currentTimeMillis(), changes);
+    });
+  }
+
+  /**
+   * @return Returns the plan without costs, row counts, timings and buffer usage.
+   */
+  static String getShape(String plan) {
+    String shape = MEASUREMENT_LINE.matcher(plan).replaceAll("");
+    return MEASUREMENT.matcher(shape).replaceAll("").replaceAll("\\s+", " ").trim();
+  }
+
+  /**
+   * @return Returns up to limit slow queries, newest first.
+   */
+  public static List<SlowQuery> getQueries(int limit) {
+    long end = next.get();
+    long start = Math.max(0, end - Math.min(limit, queries.length()));
+    List<SlowQuery> result = new ArrayList<>();
+    for (long i = end - 1; i >= start; i--) {
+      SlowQuery query = queries.get((int) (i % queries.length()));
+      if (query != null) {
+        result.add(query);
+      }
+    }
+    return result;
+  }
+
+  public static Map<String, StatementPlan> getPlans() {
+    return plans;
+  }
+
+  public static long getSlowQueryCount() {
+    return next.get();
+  }
+
+  public static long getThresholdMillis() {
+    return thresholdNanos / 1_000_000;
+  }
+
+  public static double getExplainSampleRate() {
+    return explainSampleRate;
+  }
+}
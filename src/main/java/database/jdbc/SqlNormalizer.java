@@ -0,0 +1,49 @@
+package database.jdbc;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/*
+  Reduces SQL to the shape of the statement, so executions that only differ in their values are counted together.
+  Literals are replaced with placeholders, lists of placeholders such as the ids in an IN clause are collapsed to a
+  single placeholder, and whitespace is collapsed.
+ */
+public class SqlNormalizer {
+
+  // Statements are built from a small number of templates, so results are cached until the cache reaches this size.
+  static final int MAX_CACHED = 2000;
+  static final int MAX_LENGTH = 2000;
+
+  private static final Pattern COMMENT = Pattern.compile("--[^\\n]*|/\\*.*?\\*/", Pattern.DOTALL);
+  private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+  private static final Pattern NUMBER_LITERAL = Pattern.compile("(?<![\\w$])-?\\d+(?:\\.\\d+)?(?![\\w$])");
+  private static final Pattern PLACEHOLDER_LIST = Pattern.compile("\\?(?:\\s*,\\s*\\?)+");
+  private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+  private static final Map<String, String> cache = new ConcurrentHashMap<>();
+
+  public static String normalize(String sql) {
+    String normalized = cache.get(sql);
+    if (normalized != null) {
+      return normalized;
+    }
+    normalized = normalizeUncached(sql);
+    if (cache.size() < MAX_CACHED) {
+      cache.put(sql, normalized);
+    }
+    return normalized;
+  }
+
+  static String normalizeUncached(String sql) {
+    String normalized = COMMENT.matcher(sql).replaceAll(" ");
+    normalized = STRING_LITERAL.matcher(normalized).replaceAll("?");
+    normalized = NUMBER_LITERAL.matcher(normalized).replaceAll("?");
+    normalized = PLACEHOLDER_LIST.matcher(normalized).replaceAll("?");
+    normalized = WHITESPACE.matcher(normalized).replaceAll(" ").trim();
+    if (normalized.length() > MAX_LENGTH) {
+      normalized = normalized.substring(0, MAX_LENGTH);
+    }
+    return normalized;
+  }
+}
@@ -0,0 +1,68 @@
+package database.jdbc;
+
+import org.apache.logging.log4j.Logger;
+import utils.LogUtils;
+import utils.Params;
+import utils.metrics.RequestTrace;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+  Statistics of every statement run through connections from the ConnectionProvider, by normalized SQL. A statement
+  that is run more than REPEATED_STATEMENT_THRESHOLD times while handling a single request is usually a query per row
+  of an earlier result, and is logged and counted for that request once.
+ */
+public class SqlStatistics {
+
+  // Statements that are built with values in their text could otherwise add a new entry for every execution.
+  static final int MAX_STATEMENTS = 1000;
+  static final String OTHER_STATEMENTS = "(other)";
+
+  private static final Logger logger = LogUtils.getLogger(SqlStatistics.class);
+
+  private static final Map<String, StatementStats> statements = new ConcurrentHashMap<>();
+  private static final int repeatedThreshold = Params.getRepeatedStatementThreshold();
+
+  public static StatementStats get(String sql) {
+    StatementStats stats = statements.get(sql);
+    if (stats != null) {
+      return stats;
+    }
+    if (statements.size() >= MAX_STATEMENTS) {
+      sql = OTHER_STATEMENTS;
+    }
+    return statements.computeIfAbsent(sql, StatementStats::new);
+  }
+
+  /**
+   * Counts an execution of the statement for the request being handled, and flags the request the first time the
+   * statement is run more than the threshold.
+   */
+  static void countForRequest(StatementStats stats) {
+    RequestTrace trace = RequestTrace.current();
+    if (trace == null) {
+      return;
+    }
+    if (trace.countStatement(stats.getSql()) == repeatedThreshold + 1) {
+      stats.recordRepeatedRequest();
+      logger.warn(
+          "Statement run more than {} times in {} {}: {}",
+          repeatedThreshold, trace.getMethod(), trace.getRoute(), stats.getSql()
+      );
+    }
+  }
+
+  public static Collection<StatementStats> getStatements() {
+    return statements.values();
+  }
+
+  public static int getRepeatedThreshold() {
+    return repeatedThreshold;
+  }
+
+  public static void clear() {
+    statements.clear();
+  }
+}
@@ -0,0 +1,70 @@
+package database.jdbc;
+
+import utils.metrics.LatencyHistogram;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Executions of one normalized statement. Rows and bytes are counted as the results are read, and bytes are estimated
+ * from the values returned to the caller.
+ */
+public class StatementStats {
+
+  private final String sql;
+  private final LatencyHistogram latency = new LatencyHistogram();
+  private final LongAdder errors = new LongAdder();
+  private final LongAdder rows = new LongAdder();
+  private final LongAdder bytes = new LongAdder();
+  private final LongAdder repeatedRequests = new LongAdder();
+
+  public StatementStats(String sql) {
+    this.sql = sql;
+  }
+
+  public void recordExecution(long nanos, boolean success) {
+    latency.record(nanos);
+    if (!success) {
+      errors.increment();
+    }
+  }
+
+  public void recordRead(long rowCount, long byteCount) {
+    rows.add(rowCount);
+    bytes.add(byteCount);
+  }
+
+  public void recordRepeatedRequest() {
+    repeatedRequests.increment();
+  }
+
+  public String getSql() {
+    return sql;
+  }
+
+  public long getCalls() {
+    return latency.getCount();
+  }
+
+  public long getErrors() {
+    return errors.sum();
+  }
+
+  public long getRows() {
+    return rows.sum();
+  }
+
+  public long getBytes() {
+    return bytes.sum();
+  }
+
+  /**
+   * @return Returns the number of requests that ran the statement more times than the repeated statement threshold.
+   */
+  public long getRepeatedRequests() {
+    return repeatedRequests.sum();
+  }
+
+  public LatencyHistogram getLatency() {
+    return latency;
+  }
+}
@@ -0,0 +1,102 @@
+package database.permissions;
+
+import app.data.auth.GroupAdminType;
+import utils.cache.ExpiringCache;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+  Index of the groups that each user has a role in (user id -> group id -> admin level). Entries are removed when
+  group admin data is written, and expire after a few minutes in case the data is changed outside of this API.
+
+  A write made in a transaction removes the entries again after the commit or rollback. Otherwise a request that read
+  the roles before the commit would cache the old roles until they expire, and a request on the same connection could
+  cache roles that are rolled back.
+ */
+public class GroupRoleCache {
+
+  private static final int MAX_USERS = 10000;
+  private static final Duration TTL = Duration.ofMinutes(5);
+
+  private static final ExpiringCache<Integer, Map<Integer, GroupAdminType>> roles =
+      new ExpiringCache<>("groupRoles", MAX_USERS, TTL);
+
+  private record PendingInvalidations(Set<Integer> users, Set<Integer> groups) {}
+
+  private static final Map<Connection, PendingInvalidations> pendingCommits =
+      Collections.synchronizedMap(new WeakHashMap<>());
+
+  public static Map<Integer, GroupAdminType> getRoles(
+      int userId,
+      ExpiringCache.Loader<Integer, Map<Integer, GroupAdminType>> loader) throws Exception {
+    return roles.getOrLoad(userId, loader);
+  }
+
+  public static void invalidateUser(int userId) {
+    roles.invalidate(userId);
+  }
+
+  public static void invalidateGroup(int groupId) {
+    roles.invalidateIf((userId, groupRoles) -> groupRoles.containsKey(groupId));
+  }
+
+  /**
+   * Removes the roles of the user after a write made on the connection.
+   */
+  public static void invalidateUser(Connection conn, int userId) throws SQLException {
+    invalidateUser(userId);
+    if (!conn.getAutoCommit()) {
+      getPending(conn).users().add(userId);
+    }
+  }
+
+  /**
+   * Removes the roles of every user with a role in the group after a write made on the connection.
+   */
+  public static void invalidateGroup(Connection conn, int groupId) throws SQLException {
+    invalidateGroup(groupId);
+    if (!conn.getAutoCommit()) {
+      getPending(conn).groups().add(groupId);
+    }
+  }
+
+  private static PendingInvalidations getPending(Connection conn) {
+    return pendingCommits.computeIfAbsent(
+        conn,
+        key -> new PendingInvalidations(ConcurrentHashMap.newKeySet(), ConcurrentHashMap.newKeySet())
+    );
+  }
+
+  /**
+   * Should be called after the connection is committed.
+   */
+  public static void committed(Connection conn) {
+    PendingInvalidations pending = pendingCommits.remove(conn);
+    if (pending != null) {
+      pending.users().forEach(GroupRoleCache::invalidateUser);
+      pending.groups().forEach(GroupRoleCache::invalidateGroup);
+    }
+  }
+
+  /**
+   * Should be called after the connection is rolled back.
+   */
+  public static void rolledBack(Connection conn) {
+    committed(conn);
+  }
+
+  public static void clear() {
+    roles.clear();
+  }
+
+  public static ExpiringCache<Integer, Map<Integer, GroupAdminType>> getCache() {
+    return roles;
+  }
+}
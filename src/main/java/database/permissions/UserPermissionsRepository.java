@@ -3,18 +3,24 @@ package database.permissions;
 import app.data.auth.GroupAdminType;
 import app.data.auth.User;
 import app.result.error.GroupNotFoundError;
+import database.version.DataTable;
+import database.version.DataVersion;
 import org.apache.logging.log4j.Logger;
 import utils.LogUtils;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 public class UserPermissionsRepository
 {
   Logger logger;
   public UserPermissionsRepository(){
-    logger = LogUtils.getLogger();
+    logger = LogUtils.getLogger(UserPermissionsRepository.class);
   }
 
   public void setGroupAdmin(User userToUpdate, int groupId, Connection conn) throws Exception{
@@ -31,6 +37,9 @@ public class UserPermissionsRepository
     insert.setString(3, GroupAdminType.GROUP_ADMIN.toString());
 
     insert.executeUpdate();
+    GroupRoleCache.invalidateGroup(conn, groupId);
+    GroupRoleCache.invalidateUser(conn, userToUpdate.getId());
+    DataVersion.changed(conn, DataTable.GROUP_ADMINS);
   }
 
   public void addGroupModerator(User currentUser, int groupId, Connection conn) throws Exception{
@@ -46,76 +55,98 @@ public class UserPermissionsRepository
     insert.setString(3, GroupAdminType.GROUP_MODERATOR.toString());
 
     insert.executeUpdate();
+    GroupRoleCache.invalidateUser(conn, currentUser.getId());
+    DataVersion.changed(conn, DataTable.GROUP_ADMINS, List.of(currentUser.getId()));
   }
 
   public boolean canUpdateGroupAdmin(User user, int groupId, Connection conn) throws Exception {
-    String query =  """
-                      SELECT (group_admin_level)
-                      FROM group_admin_data 
-                      WHERE user_id = ?
-                      AND group_id = ?
-                      AND group_admin_level = cast(? as group_admin_level)
-                    """;
-
-    PreparedStatement select = conn.prepareStatement(query);
-    select.setInt(1, user.getId());
-    select.setInt(2, groupId);
-    select.setString(3, GroupAdminType.GROUP_ADMIN.toString());
+    return getGroupRoles(user, conn).get(groupId) == GroupAdminType.GROUP_ADMIN;
+  }
 
-    ResultSet rs = select.executeQuery();
-    return rs.next();
+  /*
+    Returns the admin level of the user for each group that the user has a role in. Roles are cached per user, so
+    permission checks only query the database when the cache entry for the user is missing or has expired.
+   */
+  private Map<Integer, GroupAdminType> getGroupRoles(User user, Connection conn) throws Exception {
+    if(user.isReadOnlyUser()){
+      return Map.of();
+    }
+    return GroupRoleCache.getRoles(user.getId(), userId -> loadGroupRoles(userId, conn));
   }
 
-  private ResultSet getGroupEditorRoles(int groupId, Connection conn) throws Exception {
+  private Map<Integer, GroupAdminType> loadGroupRoles(int userId, Connection conn) throws Exception {
     String query =  """
-                      SELECT * from groups
-                      FULL JOIN group_admin_data on group_admin_data.group_id = groups.id
-                      WHERE groups.id = ?
+                      SELECT group_id, group_admin_level
+                      FROM group_admin_data
+                      WHERE user_id = ?
                     """;
 
     PreparedStatement select = conn.prepareStatement(query);
-    select.setInt(1, groupId);
+    select.setInt(1, userId);
 
     ResultSet rs = select.executeQuery();
-    if(!rs.next()){
-      var message = "Group "+groupId + " not found";
-      logger.error(message);
-      throw new GroupNotFoundError(message);
+    HashMap<Integer, GroupAdminType> groupRoles = new HashMap<>();
+    while(rs.next()){
+      String groupAdminLevel = rs.getString("group_admin_level");
+      if(groupAdminLevel != null){
+        groupRoles.put(rs.getInt("group_id"), GroupAdminType.fromDatabaseString(groupAdminLevel));
+      }
     }
-    return rs;
+    return groupRoles;
   }
 
-  public boolean hasGroupEditorRole(User user, int groupId, Connection conn) throws Exception {
+  /*
+    Retrieves the admin level of the user for each of the groups. Groups where the user does not have a role are not
+    included in the result.
+   */
+  public HashMap<Integer, GroupAdminType> getGroupAdminLevels(User user, Collection<Integer> groupIds, Connection conn)
+      throws Exception {
+    HashMap<Integer, GroupAdminType> adminLevels = new HashMap<>();
+    if(groupIds.isEmpty()){
+      return adminLevels;
+    }
 
-    ResultSet rs = getGroupEditorRoles(groupId, conn);
-    while(true){
-      int user_id = rs.getInt("user_id");
-      String groupAdminLevel = rs.getString("group_admin_level");
-      if(user_id == user.getId()) {
-        if(groupAdminLevel.equals(GroupAdminType.GROUP_ADMIN.toString()) ||
-            groupAdminLevel.equals(GroupAdminType.GROUP_MODERATOR.toString())){
-          return true;
-        }
-      }
-      if(!rs.next()){
-        return false;
+    Map<Integer, GroupAdminType> groupRoles = getGroupRoles(user, conn);
+    for(Integer groupId: groupIds){
+      GroupAdminType adminLevel = groupRoles.get(groupId);
+      if(adminLevel != null){
+        adminLevels.put(groupId, adminLevel);
       }
     }
+    return adminLevels;
+  }
+
+  /**
+   * @throws GroupNotFoundError If the user has no role in the group and the group does not exist.
+   */
+  public boolean hasGroupEditorRole(User user, int groupId, Connection conn) throws Exception {
+    if (getGroupRoles(user, conn).containsKey(groupId)) {
+      return true;
+    }
+    checkGroupExists(groupId, conn);
+    return false;
   }
 
+  /**
+   * @throws GroupNotFoundError If the user is not an admin of the group and the group does not exist.
+   */
   public boolean isGroupAdmin(User user, int groupId, Connection conn) throws Exception {
-    ResultSet rs = getGroupEditorRoles(groupId, conn);
-    while (true) {
-      int user_id = rs.getInt("user_id");
-      String groupAdminLevel = rs.getString("group_admin_level");
-      if (user_id == user.getId()) {
-        if (groupAdminLevel.equals(GroupAdminType.GROUP_ADMIN.toString())) {
-          return true;
-        }
-      }
-      if (!rs.next()) {
-        return false;
-      }
+    if (getGroupRoles(user, conn).get(groupId) == GroupAdminType.GROUP_ADMIN) {
+      return true;
+    }
+    checkGroupExists(groupId, conn);
+    return false;
+  }
+
+  // The cached roles only cover groups the user has a role in, so other groups are looked up.
+  private void checkGroupExists(int groupId, Connection conn) throws Exception {
+    PreparedStatement select = conn.prepareStatement("SELECT 1 FROM groups WHERE id = ?");
+    select.setInt(1, groupId);
+    ResultSet rs = select.executeQuery();
+    if (!rs.next()) {
+      var message = "Group " + groupId + " not found";
+      logger.error(message);
+      throw new GroupNotFoundError(message);
     }
   }
 }
@@ -17,6 +17,7 @@ public class GroupSearchParams {
   public static final String CITY = "city";
   public static final String AREA = "area";
   public static final String NAME = "name";
+  public static final String ID = "id";
 
   //Query parameters for filtering results by a specific field value
   private final LinkedHashMap<String, String> params;
@@ -24,6 +25,7 @@ public class GroupSearchParams {
 
   private String locationGroupFilter = "";
 
+  private static final String DISTINCT_EVENTS = " DISTINCT ON (events.id, groups.id, groups.name) ";
   private static final String SORT_ORDER = " ORDER BY groups.name, groups.id, events.id ASC ";
   private Logger logger;
 
@@ -36,7 +38,7 @@ public class GroupSearchParams {
 
   public GroupSearchParams(LinkedHashMap<String, String> params) throws SearchParameterException {
 
-    this.logger = LogUtils.getLogger();
+    this.logger = LogUtils.getLogger(GroupSearchParams.class);
     this.params = new LinkedHashMap<String, String>();
     params.keySet().forEach(param->{
       if(param == DAY_OF_WEEK){
@@ -55,13 +57,24 @@ public class GroupSearchParams {
       } if (param == NAME){
         this.params.put(param, params.get(param).replace("_", " "));
       }else {
-        logger.warn("Invalid parameter " + param + " submitted. It will not be used in the search query");
+        logger.warn("Invalid parameter {} submitted. It will not be used in the search query", param);
       }
     });
   }
 
   public PreparedStatement generateSearchQuery(Connection connection) throws Exception {
-    String query = getQueryForAllResults();
+    return generateQuery(getQueryForAllResults(DISTINCT_EVENTS), connection);
+  }
+
+  /*
+    Generates the search query without limiting each event to one row, so an event that takes place on several days
+    is returned once for each of its days.
+   */
+  public PreparedStatement generateEventTimeQuery(Connection connection) throws Exception {
+    return generateQuery(getQueryForAllResults(""), connection);
+  }
+
+  private PreparedStatement generateQuery(String query, Connection connection) throws Exception {
 
     ArrayList<String> whereClauses = new ArrayList<>();
 
@@ -87,10 +100,10 @@ public class GroupSearchParams {
     }
   }
 
-  private static String getQueryForAllResults() {
+  private static String getQueryForAllResults(String distinct) {
       String query = """
            SELECT
-                   DISTINCT ON (events.id, groups.id, groups.name)
+        """ + distinct + """
                     events.id as eventId,
                     groups.id as groupId,
                     groups.name,
@@ -99,6 +112,8 @@ public class GroupSearchParams {
                     events.name as eventName,
                     events.description,
                     event_time.day_of_week,
+                    event_time.week_of_month,
+                    event_time.start_time,
                     locations.state,
                     locations.street_address,
                     locations.zip_code,
@@ -0,0 +1,83 @@
+package database.search;
+
+import database.changes.EntityType;
+import service.events.ListingScope;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+
+public class ListingScopeRepository {
+
+  /*
+    Returns the cities, areas and days a group or event is listed under. Events are listed under the cities of their
+    groups as well as their own location. Other entity types are not filtered, so they have no scope.
+   */
+  public Optional<ListingScope> getScope(EntityType type, int id, Connection conn) throws Exception {
+    int groupId;
+    int eventId;
+    switch (type) {
+      case GROUP -> {
+        groupId = id;
+        eventId = -1;
+      }
+      case EVENT -> {
+        groupId = -1;
+        eventId = id;
+      }
+      default -> {
+        return Optional.empty();
+      }
+    }
+
+    String query = """
+            WITH scope_groups AS (
+              SELECT ? AS group_id
+              UNION
+              SELECT group_id FROM event_group_map WHERE event_id = ?
+            ),
+            scope_locations AS (
+              SELECT location_id FROM location_group_map WHERE group_id IN (SELECT group_id FROM scope_groups)
+              UNION
+              SELECT location_id FROM events WHERE id = ? AND location_id IS NOT NULL
+            )
+            SELECT 'city' AS kind, city AS value FROM locations
+              WHERE id IN (SELECT location_id FROM scope_locations)
+            UNION
+            SELECT 'area', location_tag.name FROM location_tag_mapping
+              JOIN location_tag ON location_tag.id = location_tag_mapping.location_tag_id
+              WHERE location_tag_mapping.location_id IN (SELECT location_id FROM scope_locations)
+            UNION
+            SELECT 'day', cast(day_of_week AS varchar) FROM event_time
+              WHERE event_id = ? OR event_id IN (SELECT event_id FROM event_group_map WHERE group_id = ?)
+        """;
+    PreparedStatement select = conn.prepareStatement(query);
+    select.setInt(1, groupId);
+    select.setInt(2, eventId);
+    select.setInt(3, eventId);
+    select.setInt(4, eventId);
+    select.setInt(5, groupId);
+
+    Set<String> cities = new HashSet<>();
+    Set<String> areas = new HashSet<>();
+    Set<String> days = new HashSet<>();
+    ResultSet rs = select.executeQuery();
+    while (rs.next()) {
+      String value = rs.getString("value");
+      if (value == null) {
+        continue;
+      }
+      value = value.toLowerCase(Locale.ROOT);
+      switch (rs.getString("kind")) {
+        case "city" -> cities.add(value);
+        case "area" -> areas.add(value);
+        default -> days.add(value);
+      }
+    }
+    return Optional.of(new ListingScope(cities, areas, days));
+  }
+}
@@ -1,11 +1,15 @@
 package database.search;
 
+import app.data.Event;
 import app.result.GroupSearchResult;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.ZoneId;
 import java.util.HashSet;
 import java.util.Set;
+import utils.metrics.RequestTrace;
 
 public class SearchRepository {
 
@@ -15,8 +19,38 @@ public class SearchRepository {
   )
     throws Exception {
     PreparedStatement statement = searchParams.generateSearchQuery(conn);
-    ResultSet rs = statement.executeQuery();
+    ResultSet rs;
+    try (RequestTrace.Span span = RequestTrace.span(RequestTrace.DB_QUERY, "search.groups")) {
+      rs = statement.executeQuery();
+    }
+    return readGroups(searchParams, rs, null, conn);
+  }
+
+  /*
+    Retrieves the groups that match the search parameters like getGroups, but with an event for every day the event
+    takes place on instead of only one of them.
+   */
+  public GroupSearchResult getGroupsWithEventTimes(
+    GroupSearchParams searchParams,
+    Connection conn
+  )
+    throws Exception {
+    PreparedStatement statement = searchParams.generateEventTimeQuery(conn);
+    ResultSet rs;
+    try (RequestTrace.Span span = RequestTrace.span(RequestTrace.DB_QUERY, "search.eventTimes")) {
+      rs = statement.executeQuery();
+    }
+    // Each event time is returned once for every city of the group, so event times are only added once.
+    return readGroups(searchParams, rs, new HashSet<String>(), conn);
+  }
 
+  private GroupSearchResult readGroups(
+    GroupSearchParams searchParams,
+    ResultSet rs,
+    Set<String> addedEventTimes,
+    Connection conn
+  )
+    throws Exception {
     Set<String> locationsWithTag = getLocationsWithTag(searchParams, conn);
 
     GroupSearchResult searchResult = new GroupSearchResult();
@@ -32,42 +66,160 @@ public class SearchRepository {
         searchResult.addGroup(groupId, groupName, url, groupSummary, groupCity);
 
         Integer eventId = rs.getInt("eventId");
-        String eventName = rs.getString("eventname");
-        String description = rs.getString("description");
-        String dayOfWeek = rs.getString("day_of_week");
-
-        String streetAddress = rs.getString("street_address");
-        String city = rs.getString("city");
-        String state = rs.getString("state");
-        String zipCode = rs.getString("zip_code");
-
-        if (eventId != 0) {
-          String address =
-              streetAddress + ", " + city + ", " + state + " " + zipCode;
-
-          if (
-              streetAddress == null ||
-                  city == null ||
-                  state == null ||
-                  zipCode == null
-          ) {
-            address = "";
-          }
-          searchResult.addEvent(
-              groupId,
-              eventId,
-              eventName,
-              description,
-              dayOfWeek,
-              address,
-              city
-          );
+        if (eventId != 0 && (addedEventTimes == null || addedEventTimes.add(getEventTimeKey(groupId, eventId, rs)))) {
+          addEvent(searchResult, groupId, eventId, rs);
         }
       }
     }
     return searchResult;
   }
 
+  /*
+    Retrieves a single group with its events, event days and cities. The group is selected by id, or by name when no id
+    is given, in which case every group with the same name in a different case is also returned. When an area is given,
+    the group is only returned if one of its cities is part of the area. The day and city filter the events and cities
+    like they do in getGroups.
+   */
+  public GroupSearchResult getSingleGroup(
+      Integer groupId,
+      String groupName,
+      String area,
+      String day,
+      String city,
+      Connection conn
+  )
+      throws Exception {
+
+    String groupFilter = groupId != null ? "groups.id = ?" : "lower(groups.name) = lower(?)";
+    String dayFilter = day == null ? "" : " AND event_time.day_of_week = cast(? AS dayofweek)";
+    String cityFilter = city == null ? "" : " AND COALESCE(locations.city,locs.city) = ?";
+    String areaFilter = area == null ? "" : """
+          AND EXISTS (
+            SELECT 1 FROM location_group_map AS area_map
+            JOIN locations AS area_locs on area_map.location_id = area_locs.id
+            JOIN locations AS tagged on tagged.city = area_locs.city
+            JOIN location_tag_mapping on location_tag_mapping.location_id = tagged.id
+            JOIN location_tag on location_tag.id = location_tag_mapping.location_tag_id
+            WHERE area_map.group_id = groups.id
+            AND location_tag.name = ?
+          )
+        """;
+
+    String query = """
+           SELECT
+                    events.id as eventId,
+                    groups.id as groupId,
+                    groups.name,
+                    groups.url,
+                    groups.summary,
+                    events.name as eventName,
+                    events.description,
+                    event_time.day_of_week,
+                    event_time.week_of_month,
+                    event_time.start_time,
+                    locations.state,
+                    locations.street_address,
+                    locations.zip_code,
+                    locations.city as city,
+                    locs.city as groupCity
+                  FROM groups
+                  LEFT JOIN event_group_map on groups.id = event_group_map.group_id
+                  LEFT JOIN  events on event_group_map.event_id = events.id
+                  LEFT JOIN  event_time on event_time.event_id = events.id
+                  LEFT JOIN  locations on events.location_id = locations.id
+                  LEFT JOIN location_group_map on groups.id = location_group_map.group_id
+                  LEFT JOIN locations as locs on location_group_map.location_id = locs.id
+                  WHERE
+        """ + groupFilter + areaFilter + dayFilter + cityFilter + " ORDER BY groups.id, events.id";
+
+    PreparedStatement statement = conn.prepareStatement(query);
+    int i = 1;
+    if (groupId != null) {
+      statement.setInt(i++, groupId);
+    } else {
+      statement.setString(i++, groupName);
+    }
+    if (area != null) {
+      statement.setString(i++, area.toLowerCase());
+    }
+    if (day != null) {
+      statement.setString(i++, day.toLowerCase());
+    }
+    if (city != null) {
+      statement.setString(i++, city);
+    }
+    ResultSet rs;
+    try (RequestTrace.Span span = RequestTrace.span(RequestTrace.DB_QUERY, "search.group")) {
+      rs = statement.executeQuery();
+    }
+
+    // Each event is returned once for every city of the group, so events are only added once per day.
+    Set<String> addedEvents = new HashSet<String>();
+    GroupSearchResult searchResult = new GroupSearchResult();
+    while (rs.next()) {
+      Integer id = rs.getInt("groupId");
+      String groupCity = rs.getString("groupCity");
+      searchResult.addGroup(id, rs.getString("name"), rs.getString("url"), rs.getString("summary"), groupCity);
+      searchResult.getGroup(id).addCity(groupCity);
+
+      Integer eventId = rs.getInt("eventId");
+      if (eventId != 0 && addedEvents.add(eventId + ":" + rs.getString("day_of_week"))) {
+        addEvent(searchResult, id, eventId, rs);
+      }
+    }
+    return searchResult;
+  }
+
+  private static String getEventTimeKey(Integer groupId, Integer eventId, ResultSet rs) throws Exception {
+    return groupId + ":" + eventId + ":" + rs.getString("day_of_week") + ":" + rs.getString("week_of_month") + ":" +
+        rs.getString("start_time");
+  }
+
+  private void addEvent(GroupSearchResult searchResult, Integer groupId, Integer eventId, ResultSet rs)
+      throws Exception {
+    String eventName = rs.getString("eventname");
+    String description = rs.getString("description");
+    String dayOfWeek = rs.getString("day_of_week");
+
+    String streetAddress = rs.getString("street_address");
+    String city = rs.getString("city");
+    String state = rs.getString("state");
+    String zipCode = rs.getString("zip_code");
+
+    String address =
+        streetAddress + ", " + city + ", " + state + " " + zipCode;
+
+    if (
+        streetAddress == null ||
+            city == null ||
+            state == null ||
+            zipCode == null
+    ) {
+      address = "";
+    }
+    Event event = searchResult.addEvent(
+        groupId,
+        eventId,
+        eventName,
+        description,
+        dayOfWeek,
+        address,
+        city
+    );
+    if (event == null) {
+      return;
+    }
+
+    int weekOfMonth = rs.getInt("week_of_month");
+    if (!rs.wasNull()) {
+      event.setWeekOfMonth(weekOfMonth);
+    }
+    Timestamp startTime = rs.getTimestamp("start_time");
+    if (startTime != null) {
+      event.setDate(startTime.toInstant().atZone(ZoneId.systemDefault()).toLocalDate().toString());
+    }
+  }
+
   private Set<String> getLocationsWithTag(
       GroupSearchParams searchParams,
       Connection conn) throws Exception
@@ -77,7 +229,10 @@ public class SearchRepository {
       return new HashSet<String>();
     }
     PreparedStatement statement = searchParams.getQueryForLocationGroups(conn);
-    ResultSet rs = statement.executeQuery();
+    ResultSet rs;
+    try (RequestTrace.Span span = RequestTrace.span(RequestTrace.DB_QUERY, "search.locationTags")) {
+      rs = statement.executeQuery();
+    }
 
     Set<String> locationsWithTag = new HashSet<String>();
     while(rs.next()){
@@ -3,19 +3,31 @@ package database.user;
 import app.data.auth.User;
 import app.data.auth.UserType;
 import database.BaseRepository;
+import database.permissions.GroupRoleCache;
+import database.version.DataTable;
+import database.version.DataVersion;
 import org.apache.logging.log4j.Logger;
 import utils.LogUtils;
+import utils.cache.ExpiringCache;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.time.Duration;
 
 public class UserRepository extends BaseRepository {
 
+  /*
+    Active users are looked up on every authenticated request, so they are cached by email. The TTL is kept short
+    because users can be changed outside of this API.
+   */
+  private static final ExpiringCache<String, User> activeUsers =
+      new ExpiringCache<>("activeUsers", 10000, Duration.ofSeconds(60));
+
   Logger logger;
   public UserRepository(Connection connection){
     super(connection);
-    logger = LogUtils.getLogger();
+    logger = LogUtils.getLogger(UserRepository.class);
   }
 
   public User createAdmin(String email) throws Exception{
@@ -27,13 +39,15 @@ public class UserRepository extends BaseRepository {
     insert.setString(2, UserType.SITE_ADMIN.toString());
 
     ResultSet rs = insert.executeQuery();
+    activeUsers.invalidate(email);
+    DataVersion.changed(connection, DataTable.USERS);
     if(!rs.next()) {
       var message = "Failed to create admin user";
       logger.error(message);
       throw new Exception(message);
     }
 
-    logger.info("Created admin with email:"+email);
+    logger.info("Created admin with email:{}", email);
     return new User(email, UserType.SITE_ADMIN, rs.getInt(1));
   }
 
@@ -46,6 +60,8 @@ public class UserRepository extends BaseRepository {
     insert.setString(2, "user");
 
     ResultSet rs = insert.executeQuery();
+    activeUsers.invalidate(email);
+    DataVersion.changed(connection, DataTable.USERS);
     if(!rs.next()) {
       var message = "Failed to create admin user";
       logger.error(message);
@@ -53,7 +69,7 @@ public class UserRepository extends BaseRepository {
     }
 
     int userId = rs.getInt(1);
-    logger.info("Created user with id:"+userId);
+    logger.info("Created user with id:{}", userId);
     return new User(email, UserType.USER, userId);
   }
 
@@ -66,6 +82,8 @@ public class UserRepository extends BaseRepository {
     insert.setString(2, "tester");
 
     ResultSet rs = insert.executeQuery();
+    activeUsers.invalidate(email);
+    DataVersion.changed(connection, DataTable.USERS);
     if(!rs.next()) {
       var message = "Failed to create admin user";
       logger.error(message);
@@ -73,7 +91,7 @@ public class UserRepository extends BaseRepository {
     }
 
     int userId = rs.getInt(1);
-    logger.info("Created user with id:"+userId);
+    logger.info("Created user with id:{}", userId);
     return new User(email, UserType.TESTER, userId);
   }
 
@@ -87,11 +105,10 @@ public class UserRepository extends BaseRepository {
     ResultSet rs = select.executeQuery();
 
     if(!rs.next()){
-      logger.info("Did not find user with email:"+email);
+      logger.debug("Did not find user with email:{}", email);
       return null;
     }
 
-    logger.info(rs.getString("email"));
     User user = new User(
         email,
         UserType.fromDatabaseString(rs.getString("user_role_level")),
@@ -101,6 +118,10 @@ public class UserRepository extends BaseRepository {
   }
 
   public User getActiveUserFromEmail(String email) throws Exception {
+    return activeUsers.getOrLoad(email, this::loadActiveUserFromEmail);
+  }
+
+  private User loadActiveUserFromEmail(String email) throws Exception {
 
     String query = "SELECT * from users where email = ? and is_active = TRUE";
     PreparedStatement select = connection.prepareStatement(query);
@@ -109,11 +130,10 @@ public class UserRepository extends BaseRepository {
     ResultSet rs = select.executeQuery();
 
     if(!rs.next()){
-      logger.info("Did not find user with email:"+email);
+      logger.debug("Did not find user with email:{}", email);
       return null;
     }
 
-    logger.info(rs.getString("email"));
     User user = new User(
         email,
         UserType.fromDatabaseString(rs.getString("user_role_level")),
@@ -129,6 +149,11 @@ public class UserRepository extends BaseRepository {
     String query = "TRUNCATE table users CASCADE";
     PreparedStatement statement = connection.prepareStatement(query);
     statement.executeUpdate();
+
+    // Group admin data is removed by the cascade.
+    GroupRoleCache.clear();
+    activeUsers.clear();
+    DataVersion.changed(connection, DataTable.USERS, DataTable.GROUP_ADMINS);
   }
 
   public void activateUser(String email) throws Exception {
@@ -141,6 +166,8 @@ public class UserRepository extends BaseRepository {
     PreparedStatement statement = connection.prepareStatement(query);
     statement.setString(1, email);
     statement.executeUpdate();
+    activeUsers.invalidate(email);
+    DataVersion.changed(connection, DataTable.USERS);
   }
 
   public int countUsers() throws Exception{
@@ -155,4 +182,8 @@ public class UserRepository extends BaseRepository {
 
     return rs.getInt(1);
   }
+
+  public static ExpiringCache<String, User> getActiveUserCache() {
+    return activeUsers;
+  }
 }
@@ -1,15 +1,38 @@
 package database.utils;
 
+import database.jdbc.InstrumentedJdbc;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import org.apache.logging.log4j.Logger;
 import utils.LogUtils;
 import utils.Params;
+import utils.metrics.Metrics;
+import utils.metrics.RequestTrace;
 
 public class ConnectionProvider {
-  private static Logger logger = LogUtils.getLogger();
+  private static Logger logger = LogUtils.getLogger(ConnectionProvider.class);
 
   public Connection getDatabaseConnection() throws Exception {
+    long start = System.nanoTime();
+    boolean connected = false;
+    try (RequestTrace.Span span = RequestTrace.span(RequestTrace.DB_ACQUIRE)) {
+      Connection connection = openConnection();
+      connected = true;
+      return InstrumentedJdbc.wrap(connection);
+    } finally {
+      Metrics.recordDbConnect(System.nanoTime() - start, connected);
+    }
+  }
+
+  /**
+   * Returns a connection whose statements are not recorded in the SQL statistics, for diagnostic queries that should
+   * not be counted with the queries they are diagnosing.
+   */
+  public Connection getUninstrumentedConnection() throws Exception {
+    return openConnection();
+  }
+
+  private Connection openConnection() throws Exception {
     try {
       Class.forName("org.postgresql.Driver");
     } catch (ClassNotFoundException e) {
@@ -18,12 +41,12 @@ public class ConnectionProvider {
     var dbPassword = Params.getDatabasePassword();
 
     if(!dbPassword.isPresent()){
-      logger.info("Using local database connection provider");
+      logger.debug("Using local database connection provider");
       var connectionProvider = new LocalDevConnectionProvider();
       return connectionProvider.getDatabaseConnection();
     }
     else {
-      logger.info("Loaded database Driver");
+      logger.debug("Loaded database Driver");
       String url =
           "jdbc:postgresql://aws-0-us-east-1.pooler.supabase.com:6543/postgres?" +
               "user=postgres.karqyskuudnvfxohwkok&" +
@@ -34,6 +57,28 @@ public class ConnectionProvider {
     }
   }
 
+  /*
+    Returns a connection that keeps the same server session until it is closed, which LISTEN requires. Connections from
+    getDatabaseConnection go through the transaction pooler, which can move each transaction to a different session.
+    The session pooler listens on port 5432 of the same host.
+   */
+  public Connection getSessionConnection() throws Exception {
+    var listenUrl = Params.getListenDatabaseUrl();
+    if(listenUrl.isPresent()){
+      return DriverManager.getConnection(listenUrl.get());
+    }
+    var dbPassword = Params.getDatabasePassword();
+    if(!dbPassword.isPresent()){
+      return new LocalDevConnectionProvider().getDatabaseConnection();
+    }
+    String url =
+        "jdbc:postgresql://aws-0-us-east-1.pooler.supabase.com:5432/postgres?" +
+            "user=postgres.karqyskuudnvfxohwkok&" +
+            "password=" +
+            dbPassword.get();
+    return DriverManager.getConnection(url);
+  }
+
   public Connection getConnectionWithManualCommit() throws Exception {
     Connection connection = getDatabaseConnection();
     connection.setAutoCommit(false);
@@ -5,4 +5,10 @@ import java.sql.Connection;
 public abstract class LocalConnectionProvider extends ConnectionProvider {
   abstract public Connection getDatabaseConnection() throws Exception;
 
+  // Local databases are not behind a pooler.
+  @Override
+  public Connection getSessionConnection() throws Exception {
+    return getDatabaseConnection();
+  }
+
 }
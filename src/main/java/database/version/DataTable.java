@@ -0,0 +1,16 @@
+package database.version;
+
+/**
+ * Groups of tables that are versioned together. Read endpoints depend on one or more of these.
+ */
+public enum DataTable {
+  GROUPS,
+  EVENTS,
+  LOCATIONS,
+  LOCATION_TAGS,
+  CONVENTIONS,
+  GAME_STORES,
+  GAME_RESTAURANTS,
+  USERS,
+  GROUP_ADMINS
+}
@@ -0,0 +1,210 @@
+package database.version;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+
+/*
+  Change counters for each table. Repositories mark tables as changed after every write, and read endpoints use the
+  counters to tell whether a response they sent earlier is still valid without querying the database. Changes are also
+  broadcast to other instances through the InvalidationChannel, once they are committed.
+
+  Counters start at the current time so that versions from before a restart are never reused. Writes made in a
+  transaction change the version immediately and again after the commit, so a response built from data read between
+  the write and the commit is not treated as current.
+
+  The counters differ between instances, so the validators sent to clients use the shared versions instead. Those are
+  stored in the data_versions table, incremented by the InvalidationChannel when it broadcasts a commit, and received
+  by the other instances with the message. Until they are loaded, or after a change could not be recorded, validators
+  fall back to the counters of this instance.
+ */
+public class DataVersion {
+
+  private static final int TABLE_COUNT = DataTable.values().length;
+  private static final AtomicLongArray versions = new AtomicLongArray(TABLE_COUNT);
+  private static final AtomicLongArray lastModified = new AtomicLongArray(TABLE_COUNT);
+
+  private static final AtomicLongArray sharedVersions = new AtomicLongArray(TABLE_COUNT);
+  private static final AtomicLongArray sharedLastModified = new AtomicLongArray(TABLE_COUNT);
+  private static volatile boolean sharedLoaded = false;
+
+  private static final Map<Connection, EnumSet<DataTable>> pendingCommits =
+      Collections.synchronizedMap(new WeakHashMap<>());
+
+  private static final List<Consumer<DataTable>> listeners = new CopyOnWriteArrayList<>();
+
+  static {
+    long now = System.currentTimeMillis();
+    for (int i = 0; i < TABLE_COUNT; i++) {
+      versions.set(i, now);
+      lastModified.set(i, now);
+    }
+  }
+
+  /**
+   * Marks the tables as changed by a write made on the connection.
+   */
+  public static void changed(Connection conn, DataTable... tables) throws SQLException {
+    changed(tables);
+    if (conn.getAutoCommit()) {
+      InvalidationChannel.broadcast(List.of(tables), List.of());
+    } else {
+      addPending(conn, tables);
+    }
+  }
+
+  /**
+   * Marks rows of the table as changed by a write made on the connection. Other instances only invalidate cached data
+   * for those rows, unless the write is part of a transaction.
+   */
+  public static void changed(Connection conn, DataTable table, Collection<Integer> ids) throws SQLException {
+    changed(table);
+    if (conn.getAutoCommit()) {
+      InvalidationChannel.broadcast(List.of(table), List.copyOf(ids));
+    } else {
+      addPending(conn, table);
+    }
+  }
+
+  private static void addPending(Connection conn, DataTable... tables) {
+    pendingCommits.compute(conn, (key, pending) -> {
+      EnumSet<DataTable> updated = pending == null ? EnumSet.noneOf(DataTable.class) : pending;
+      Collections.addAll(updated, tables);
+      return updated;
+    });
+  }
+
+  public static void changed(DataTable... tables) {
+    long now = System.currentTimeMillis();
+    for (DataTable table : tables) {
+      versions.incrementAndGet(table.ordinal());
+      lastModified.accumulateAndGet(table.ordinal(), now, Math::max);
+      for (Consumer<DataTable> listener : listeners) {
+        listener.accept(table);
+      }
+    }
+  }
+
+  /**
+   * Adds a listener that is called with each table after its version changes.
+   */
+  public static void addListener(Consumer<DataTable> listener) {
+    listeners.add(listener);
+  }
+
+  /**
+   * Should be called after the connection is committed.
+   */
+  public static void committed(Connection conn) {
+    EnumSet<DataTable> pending = pendingCommits.remove(conn);
+    if (pending != null) {
+      changed(pending.toArray(new DataTable[0]));
+      InvalidationChannel.broadcast(List.copyOf(pending), List.of());
+    }
+  }
+
+  /**
+   * Should be called after the connection is rolled back.
+   */
+  public static void rolledBack(Connection conn) {
+    pendingCommits.remove(conn);
+  }
+
+  public static long getVersion(DataTable table) {
+    return versions.get(table.ordinal());
+  }
+
+  /**
+   * @return Returns true if the shared versions are loaded and up to date with the changes made by this instance.
+   */
+  public static boolean hasSharedVersions() {
+    return sharedLoaded;
+  }
+
+  /**
+   * @return Returns the version of the table that is the same on every instance, or the version of this instance if
+   *         the shared versions are not available.
+   */
+  public static long getSharedVersion(DataTable table) {
+    return sharedLoaded ? sharedVersions.get(table.ordinal()) : getVersion(table);
+  }
+
+  /**
+   * @return Returns the time in milliseconds of the latest change to any of the tables, as recorded in the shared
+   *         versions if they are available.
+   */
+  public static long getSharedLastModified(DataTable... tables) {
+    if (!sharedLoaded) {
+      return getLastModified(tables);
+    }
+    long latest = 0;
+    for (DataTable table : tables) {
+      latest = Math.max(latest, sharedLastModified.get(table.ordinal()));
+    }
+    return latest;
+  }
+
+  /**
+   * Records a shared version read from the database or received from another instance. Versions only increase, so
+   * messages that arrive out of order are ignored.
+   */
+  public static void updateShared(DataTable table, long version, long lastModifiedMillis) {
+    sharedVersions.accumulateAndGet(table.ordinal(), version, Math::max);
+    sharedLastModified.accumulateAndGet(table.ordinal(), lastModifiedMillis, Math::max);
+  }
+
+  /**
+   * Updates the shared versions from the ones stored in the database, and uses them from then on.
+   */
+  public static void loadShared(Connection conn) throws SQLException {
+    PreparedStatement select = conn.prepareStatement("SELECT data_table, version, modified_at FROM data_versions");
+    ResultSet rs = select.executeQuery();
+    long[] loadedVersions = new long[TABLE_COUNT];
+    long[] loadedModified = new long[TABLE_COUNT];
+    while (rs.next()) {
+      DataTable table;
+      try {
+        table = DataTable.valueOf(rs.getString("data_table"));
+      } catch (IllegalArgumentException e) {
+        // Written by a newer version of the server.
+        continue;
+      }
+      loadedVersions[table.ordinal()] = rs.getLong("version");
+      loadedModified[table.ordinal()] = rs.getTimestamp("modified_at").getTime();
+    }
+    for (int i = 0; i < TABLE_COUNT; i++) {
+      sharedVersions.accumulateAndGet(i, loadedVersions[i], Math::max);
+      sharedLastModified.accumulateAndGet(i, loadedModified[i], Math::max);
+    }
+    sharedLoaded = true;
+  }
+
+  /**
+   * Stops using the shared versions until they are loaded again, because a change made by this instance could not be
+   * recorded in them.
+   */
+  public static void disableShared() {
+    sharedLoaded = false;
+  }
+
+  /**
+   * @return Returns the time in milliseconds of the latest change to any of the tables.
+   */
+  public static long getLastModified(DataTable... tables) {
+    long latest = 0;
+    for (DataTable table : tables) {
+      latest = Math.max(latest, lastModified.get(table.ordinal()));
+    }
+    return latest;
+  }
+}
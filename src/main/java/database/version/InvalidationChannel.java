@@ -0,0 +1,271 @@
+package database.version;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import database.content.ConventionsRepository;
+import database.permissions.GroupRoleCache;
+import database.user.UserRepository;
+import database.utils.ConnectionProvider;
+import org.apache.logging.log4j.Logger;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import utils.LogUtils;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/*
+  Keeps the caches of several instances of the server consistent. After a commit, the changed tables are sent to every
+  instance with pg_notify, and each instance applies the messages sent by the others to its own data versions and
+  caches, as if it had made the change itself.
+
+  Messages are received on a dedicated session connection, because LISTEN does not work through the transaction pooler.
+  Messages are lost while that connection is down, and when an instance fails to send one, so every cache is flushed
+  after the listener reconnects and when the sequence numbers of another instance have a gap.
+ */
+public class InvalidationChannel {
+
+  public static final String CHANNEL = "cache_invalidation";
+
+  // Notification payloads are limited to 8000 bytes, so long id lists are replaced by a full invalidation of the table.
+  static final int MAX_IDS = 200;
+  static final int POLL_MILLIS = 30000;
+  static final long MAX_RETRY_MILLIS = 60000;
+
+  private static final Logger logger = LogUtils.getLogger(InvalidationChannel.class);
+  private static final ObjectMapper mapper = new ObjectMapper();
+
+  private static final String INSTANCE_ID = UUID.randomUUID().toString();
+  private static final Map<String, Long> lastSequences = new ConcurrentHashMap<>();
+
+  private static final ExecutorService sender = Executors.newSingleThreadExecutor(runnable -> {
+    Thread thread = new Thread(runnable, "invalidation-send");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  private static volatile ConnectionProvider connectionProvider;
+
+  // Only used on the sender thread, so sequence numbers are given out in the order the messages are sent.
+  private static Connection sendConnection;
+  private static long sequence;
+  // Tables whose shared version could not be incremented, which are incremented with the next message.
+  private static final EnumSet<DataTable> unrecordedTables = EnumSet.noneOf(DataTable.class);
+
+  // Set when every cache is flushed, so the listener loads the shared versions again.
+  private static volatile boolean reloadVersions = false;
+
+  /**
+   * Starts sending and receiving messages. Until this is called, changes are not broadcast.
+   */
+  public static synchronized void start(ConnectionProvider provider) {
+    if (connectionProvider != null) {
+      return;
+    }
+    connectionProvider = provider;
+    Thread listener = new Thread(InvalidationChannel::listen, "invalidation-listen");
+    listener.setDaemon(true);
+    listener.start();
+    logger.info("Started cache invalidation channel for instance {}", INSTANCE_ID);
+  }
+
+  public static String getInstanceId() {
+    return INSTANCE_ID;
+  }
+
+  /**
+   * Sends the changed tables to the other instances. Messages are sent in order on a background thread, so writes do
+   * not wait for them.
+   */
+  public static void broadcast(Collection<DataTable> tables, List<Integer> ids) {
+    if (connectionProvider == null || tables.isEmpty()) {
+      return;
+    }
+    List<DataTable> changedTables = List.copyOf(tables);
+    List<Integer> changedIds = ids.size() > MAX_IDS ? List.of() : List.copyOf(ids);
+    sender.execute(() -> send(++sequence, changedTables, changedIds));
+  }
+
+  private static void send(long messageSequence, List<DataTable> tables, List<Integer> ids) {
+    try {
+      if (sendConnection == null || sendConnection.isClosed()) {
+        sendConnection = connectionProvider.getDatabaseConnection();
+      }
+      boolean retried = !unrecordedTables.isEmpty();
+      EnumSet<DataTable> recordedTables = EnumSet.copyOf(tables);
+      recordedTables.addAll(unrecordedTables);
+      unrecordedTables.addAll(tables);
+
+      Map<DataTable, Long> versions = new EnumMap<>(DataTable.class);
+      long modifiedAt = recordVersions(recordedTables, versions);
+      unrecordedTables.clear();
+      if (retried) {
+        DataVersion.loadShared(sendConnection);
+      }
+
+      PreparedStatement notify = sendConnection.prepareStatement("SELECT pg_notify(?, ?)");
+      notify.setString(1, CHANNEL);
+      notify.setString(2, mapper.writeValueAsString(
+          new InvalidationMessage(INSTANCE_ID, messageSequence, tables, ids, versions, modifiedAt)
+      ));
+      notify.execute();
+    } catch (Exception e) {
+      // The other instances see a gap in the sequence numbers when the next message arrives.
+      logger.error("Failed to send cache invalidation {}: {}", messageSequence, e.getMessage());
+      closeSendConnection();
+      if (!unrecordedTables.isEmpty()) {
+        // The shared versions no longer match the data until the tables are recorded with the next message.
+        DataVersion.disableShared();
+      }
+    }
+  }
+
+  /*
+    Increments the shared versions of the tables and adds them to the versions map.
+    @return Returns the time of the change in milliseconds.
+   */
+  private static long recordVersions(Collection<DataTable> tables, Map<DataTable, Long> versions) throws Exception {
+    PreparedStatement update = sendConnection.prepareStatement("""
+        INSERT INTO data_versions (data_table, version, modified_at)
+        SELECT data_table, 1, now() FROM unnest(?::varchar[]) AS data_table
+        ON CONFLICT (data_table) DO UPDATE SET version = data_versions.version + 1, modified_at = now()
+        RETURNING data_table, version, modified_at
+        """);
+    update.setArray(1, sendConnection.createArrayOf("varchar", tables.stream().map(DataTable::name).toArray()));
+    ResultSet rs = update.executeQuery();
+    long modifiedAt = 0;
+    while (rs.next()) {
+      DataTable table = DataTable.valueOf(rs.getString("data_table"));
+      long version = rs.getLong("version");
+      modifiedAt = rs.getTimestamp("modified_at").getTime();
+      versions.put(table, version);
+      DataVersion.updateShared(table, version, modifiedAt);
+    }
+    return modifiedAt;
+  }
+
+  private static void closeSendConnection() {
+    try {
+      if (sendConnection != null) {
+        sendConnection.close();
+      }
+    } catch (Exception e) {
+      logger.warn("Failed to close cache invalidation connection: {}", e.getMessage());
+    }
+    sendConnection = null;
+  }
+
+  private static void listen() {
+    long retryMillis = 1000;
+    while (true) {
+      try (Connection conn = connectionProvider.getSessionConnection()) {
+        PGConnection pgConnection = conn.unwrap(PGConnection.class);
+        Statement statement = conn.createStatement();
+        statement.execute("LISTEN " + CHANNEL);
+
+        // Messages sent before the connection was opened were missed.
+        flushAll("listener connected");
+        retryMillis = 1000;
+
+        while (true) {
+          if (reloadVersions) {
+            reloadVersions = false;
+            DataVersion.loadShared(conn);
+          }
+          PGNotification[] notifications = pgConnection.getNotifications(POLL_MILLIS);
+          if (notifications == null || notifications.length == 0) {
+            // A connection that was dropped without being closed only fails when it is used.
+            statement.execute("SELECT 1");
+            continue;
+          }
+          for (PGNotification notification : notifications) {
+            receive(notification.getParameter());
+          }
+        }
+      } catch (Exception e) {
+        logger.error("Cache invalidation listener disconnected: {}", e.getMessage());
+      }
+
+      try {
+        Thread.sleep(retryMillis);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+      retryMillis = Math.min(retryMillis * 2, MAX_RETRY_MILLIS);
+    }
+  }
+
+  /**
+   * Applies a message received from the channel, unless it was sent by this instance.
+   */
+  public static void receive(String payload) {
+    InvalidationMessage message;
+    try {
+      message = mapper.readValue(payload, InvalidationMessage.class);
+    } catch (Exception e) {
+      logger.error("Invalid cache invalidation message: {}", payload);
+      flushAll("invalid message");
+      return;
+    }
+    if (INSTANCE_ID.equals(message.origin())) {
+      return;
+    }
+
+    Long last = lastSequences.put(message.origin(), message.sequence());
+    if (last != null && message.sequence() != last + 1) {
+      flushAll("expected message " + (last + 1) + " from " + message.origin() + " but got " + message.sequence());
+      return;
+    }
+    apply(message);
+  }
+
+  /**
+   * Applies a change made by another instance to the local data versions and caches.
+   */
+  public static void apply(InvalidationMessage message) {
+    if (message.versions() != null) {
+      message.versions().forEach((table, version) -> DataVersion.updateShared(table, version, message.modifiedAt()));
+    }
+    DataVersion.changed(message.tables().toArray(new DataTable[0]));
+    for (DataTable table : message.tables()) {
+      switch (table) {
+        case GROUP_ADMINS -> {
+          if (message.ids().isEmpty()) {
+            GroupRoleCache.clear();
+          } else {
+            message.ids().forEach(GroupRoleCache::invalidateUser);
+          }
+        }
+        case USERS -> UserRepository.getActiveUserCache().clear();
+        case CONVENTIONS -> ConventionsRepository.invalidateConventionIndex();
+        default -> {
+          // Other caches are checked against the data versions.
+        }
+      }
+    }
+  }
+
+  /**
+   * Treats every table as changed.
+   */
+  public static void flushAll(String reason) {
+    logger.info("Flushing all caches: {}", reason);
+    // Changes in missed messages are only in the shared versions stored in the database.
+    reloadVersions = true;
+    DataVersion.changed(DataTable.values());
+    GroupRoleCache.clear();
+    UserRepository.getActiveUserCache().clear();
+    ConventionsRepository.invalidateConventionIndex();
+  }
+}
@@ -0,0 +1,29 @@
+package database.version;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sent to other instances after a commit that changed the tables.
+ *
+ * @param origin     Id of the instance that made the change.
+ * @param sequence   Number of the message among those sent by the origin. Numbers are consecutive, so a missing number
+ *                   means a message was lost.
+ * @param ids        Ids of the changed rows, or an empty list if every row should be treated as changed. For
+ *                   {@link DataTable#GROUP_ADMINS} these are the ids of the users whose roles changed.
+ * @param versions   Shared versions of the tables after the change, or null if they could not be recorded.
+ * @param modifiedAt Time in milliseconds that the shared versions were recorded.
+ */
+public record InvalidationMessage(
+    String origin,
+    long sequence,
+    List<DataTable> tables,
+    List<Integer> ids,
+    Map<DataTable, Long> versions,
+    long modifiedAt
+) {
+
+  public InvalidationMessage(String origin, long sequence, List<DataTable> tables, List<Integer> ids) {
+    this(origin, sequence, tables, ids, null, 0);
+  }
+}
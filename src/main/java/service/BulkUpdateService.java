@@ -1,18 +1,38 @@
 package service;
 
+import app.data.ContentItem;
 import app.request.BulkUpdateRequest;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import database.content.*;
+import database.imports.ImportCheckpoint;
+import database.imports.ImportCheckpointRepository;
+import database.imports.ImportStage;
+import database.permissions.GroupRoleCache;
 import database.user.UserRepository;
 import database.utils.ConnectionProvider;
+import database.version.DataVersion;
+import java.security.MessageDigest;
 import java.sql.Connection;
+import java.util.Arrays;
+import java.util.HexFormat;
 import org.apache.logging.log4j.Logger;
+import service.events.ListingEventBus;
 import utils.LogUtils;
+import utils.jfr.ImportStageEvent;
 
 public class BulkUpdateService {
   Logger logger;
 
+  // Content items are assigned a random UUID when they are deserialized, so it is excluded from the payload hash.
+  @JsonIgnoreProperties({ "uuid" })
+  private abstract static class PayloadHashMixin {}
+
+  private static final ObjectMapper payloadHashMapper =
+    new ObjectMapper().addMixIn(ContentItem.class, PayloadHashMixin.class);
+
   public BulkUpdateService() {
-    logger = LogUtils.getLogger();
+    logger = LogUtils.getLogger(BulkUpdateService.class);
   }
 
   public void deleteUsers(ConnectionProvider connectionProvider) throws Exception{
@@ -20,15 +40,21 @@ public class BulkUpdateService {
     userRepository.deleteAllUsers();
   }
 
+  /*
+    Imports all of the data in one transaction. The change log lock is held until the commit, so every other write
+    waits for the whole import. Use bulkUpdateInChunks for data that is imported while the server is in use.
+   */
   public void bulkUpdate(BulkUpdateRequest data, ConnectionProvider connectionProvider)
     throws Exception {
     Connection conn = connectionProvider.getDatabaseConnection();
     conn.setAutoCommit(false);
 
     try {
+      ImportStageEvent event = ImportStageEvent.begin(ImportStage.GROUPS.name(), 0, data.getGroups().length);
       GroupsRepository groupsRepository = new GroupsRepository();
       groupsRepository.insertGroups(data.getGroups(), conn);
-      logger.info("Number of groups to insert:" + data.getGroups().length);
+      event.commit();
+      logger.info("Number of groups to insert:{}", data.getGroups().length);
 
     } catch (Exception e) {
       logger.error("Error inserting groups");
@@ -36,51 +62,187 @@ public class BulkUpdateService {
     }
 
     try {
+      ImportStageEvent event = ImportStageEvent.begin(ImportStage.CONVENTIONS.name(), 0, data.getConventions().length);
       ConventionsRepository conventionsRepository = new ConventionsRepository();
       conventionsRepository.insertConventions(data.getConventions(), conn);
+      event.commit();
     } catch (Exception e) {
       logger.error("Error inserting conventions");
       throw e;
     }
 
     try {
+      ImportStageEvent event = ImportStageEvent.begin(ImportStage.GAME_STORES.name(), 0, data.getGameStores().length);
       GameStoreRepository gameStoreRepository = new GameStoreRepository();
       gameStoreRepository.insertGameStores(data.getGameStores(), conn);
+      event.commit();
     } catch (Exception e) {
       logger.error("Error inserting game stores");
       throw e;
     }
 
     try {
+      ImportStageEvent event = ImportStageEvent.begin(
+        ImportStage.GAME_RESTAURANTS.name(),
+        0,
+        data.getGameRestaurants().length
+      );
       GameRestaurantRepository gameRestaurantRepository = new GameRestaurantRepository();
       gameRestaurantRepository.insertGameRestaurants(
         data.getGameRestaurants(),
         conn
       );
+      event.commit();
     } catch (Exception e) {
       logger.error("Error inserting game restaurants");
       throw e;
     }
 
     try {
+      ImportStageEvent event = ImportStageEvent.begin(ImportStage.EVENTS.name(), 0, data.getGroups().length);
       EventRepository eventRepository = new EventRepository();
       eventRepository.addEvents(data.getGroups(), conn);
+      event.commit();
     } catch (Exception e) {
       logger.error("Error inserting events");
       throw e;
     }
 
     try {
+      ImportStageEvent event = ImportStageEvent.begin(ImportStage.LOCATION_TAGS.name(), 0, data.getLocationTags().length);
       LocationTagRepository locationTagRepository = new LocationTagRepository();
       locationTagRepository.insertLocationTags(data.getLocationTags(), conn);
+      event.commit();
     } catch (Exception e) {
       logger.error("Error inserting locationTags");
       throw e;
     }
 
-    conn.commit();
+    commit(conn);
     conn.close();
+    ConventionsRepository.invalidateConventionIndex();
 
     logger.info("Done with bulk update");
   }
+
+  /*
+    Imports the data in chunks of at most chunkSize items. Each chunk is committed together with a checkpoint keyed by
+    a hash of the payload, so an import that fails part way through can be resumed by submitting the same payload
+    again. Chunks that were already committed are skipped.
+   */
+  public void bulkUpdateInChunks(BulkUpdateRequest data, int chunkSize, ConnectionProvider connectionProvider)
+    throws Exception {
+    if (chunkSize <= 0) {
+      throw new IllegalArgumentException("Invalid chunk size: " + chunkSize);
+    }
+
+    String payloadHash = getPayloadHash(data);
+    Connection conn = connectionProvider.getDatabaseConnection();
+    conn.setAutoCommit(false);
+
+    ImportCheckpointRepository checkpointRepository = new ImportCheckpointRepository();
+    ImportCheckpoint checkpoint = checkpointRepository
+      .getCheckpoint(payloadHash, conn)
+      .orElse(ImportCheckpoint.start(payloadHash));
+
+    if (checkpoint.isComplete()) {
+      logger.info("Bulk update with hash {} was already imported", payloadHash);
+      conn.close();
+      return;
+    }
+    logger.info("Starting chunked bulk update at {} offset {}", checkpoint.stage(), checkpoint.offset());
+
+    try {
+      for (ImportStage stage : ImportStage.values()) {
+        if (stage == ImportStage.COMPLETE || stage.ordinal() < checkpoint.stage().ordinal()) {
+          continue;
+        }
+
+        int offset = stage == checkpoint.stage() ? checkpoint.offset() : 0;
+        int total = countItems(stage, data);
+        while (offset < total) {
+          int end = Math.min(offset + chunkSize, total);
+          try {
+            importChunk(stage, data, offset, end, conn);
+            checkpointRepository.saveCheckpoint(new ImportCheckpoint(payloadHash, stage, end), conn);
+            commit(conn);
+            if (stage == ImportStage.CONVENTIONS) {
+              ConventionsRepository.invalidateConventionIndex();
+            }
+          } catch (Exception e) {
+            rollback(conn);
+            logger.error("Error importing {} items {} to {}", stage, offset, end);
+            throw e;
+          }
+          offset = end;
+        }
+      }
+
+      checkpointRepository.saveCheckpoint(new ImportCheckpoint(payloadHash, ImportStage.COMPLETE, 0), conn);
+      commit(conn);
+    } finally {
+      conn.close();
+    }
+
+    logger.info("Done with chunked bulk update");
+  }
+
+  // Commits the transaction and publishes the changes that were held back until the commit.
+  private static void commit(Connection conn) throws Exception {
+    conn.commit();
+    DataVersion.committed(conn);
+    ListingEventBus.committed(conn);
+    GroupRoleCache.committed(conn);
+  }
+
+  private static void rollback(Connection conn) throws Exception {
+    conn.rollback();
+    DataVersion.rolledBack(conn);
+    ListingEventBus.rolledBack(conn);
+    GroupRoleCache.rolledBack(conn);
+  }
+
+  private void importChunk(ImportStage stage, BulkUpdateRequest data, int from, int to, Connection conn)
+    throws Exception {
+    ImportStageEvent event = ImportStageEvent.begin(stage.name(), from, to);
+    switch (stage) {
+      case GROUPS -> new GroupsRepository().insertGroups(Arrays.copyOfRange(data.getGroups(), from, to), conn);
+      case CONVENTIONS -> new ConventionsRepository().insertConventions(
+        Arrays.copyOfRange(data.getConventions(), from, to),
+        conn
+      );
+      case GAME_STORES -> new GameStoreRepository().insertGameStores(
+        Arrays.copyOfRange(data.getGameStores(), from, to),
+        conn
+      );
+      case GAME_RESTAURANTS -> new GameRestaurantRepository().insertGameRestaurants(
+        Arrays.copyOfRange(data.getGameRestaurants(), from, to),
+        conn
+      );
+      case EVENTS -> new EventRepository().addEvents(Arrays.copyOfRange(data.getGroups(), from, to), conn);
+      case LOCATION_TAGS -> new LocationTagRepository().insertLocationTags(
+        Arrays.copyOfRange(data.getLocationTags(), from, to),
+        conn
+      );
+      default -> throw new IllegalArgumentException("Nothing to import for stage " + stage);
+    }
+    event.commit();
+  }
+
+  private int countItems(ImportStage stage, BulkUpdateRequest data) {
+    return switch (stage) {
+      case GROUPS, EVENTS -> data.getGroups().length;
+      case CONVENTIONS -> data.getConventions().length;
+      case GAME_STORES -> data.getGameStores().length;
+      case GAME_RESTAURANTS -> data.getGameRestaurants().length;
+      case LOCATION_TAGS -> data.getLocationTags().length;
+      case COMPLETE -> 0;
+    };
+  }
+
+  public static String getPayloadHash(BulkUpdateRequest data) throws Exception {
+    byte[] payload = payloadHashMapper.writeValueAsBytes(data);
+    byte[] hash = MessageDigest.getInstance("SHA-256").digest(payload);
+    return HexFormat.of().formatHex(hash);
+  }
 }
@@ -23,6 +23,7 @@ import service.data.AuthRequest;
 import service.user.UserService;
 import utils.LogUtils;
 import utils.Params;
+import utils.metrics.RequestTrace;
 
 import java.sql.Connection;
 import java.util.Optional;
@@ -31,7 +32,7 @@ public class AuthService {
 
   private AuthProvider authProvider;
   private UserService userService;
-  private static final Logger logger = LogUtils.getLogger();
+  private static final Logger logger = LogUtils.getLogger(AuthService.class);
 
   public AuthService(AuthProvider authProvider, UserService userService){
     this.authProvider = authProvider;
@@ -70,11 +71,11 @@ public class AuthService {
     try {
       var registerUserResponse = authProvider.registerUser(request);
       userService.commitChanges();
-      logger.info("Created user with username:"+request.getEmail());
+      logger.info("Created user with username:{}", request.getEmail());
       return registerUserResponse;
     } catch (Exception e) {
       userService.rollbackChanges();
-      e.printStackTrace();
+      logger.error("Failed to register user {}", request.getEmail(), e);
       throw new RegisterUserException("Failed to create user due to error:"+e.getMessage());
     }
   }
@@ -92,19 +93,26 @@ public class AuthService {
    * @return Returns currently logged in user, or read only user if the user is not logged in.
    */
   public User getUser(Context ctx) throws Exception{
-    logger.info("Retrieving current user");
+    logger.debug("Retrieving current user");
 
-    Optional<String> username =  authProvider.getUsernameFromToken(ctx.header("authToken"));
-
-    if(!username.isPresent()){
+    String token = ctx.header("authToken");
+    if(token == null || token.isBlank()){
       return getReadOnlyUser();
     }
 
-    User user = userService.getActiveUser(username.get());
-    if(user == null){
-      return AuthService.getReadOnlyUser();
+    try (RequestTrace.Span span = RequestTrace.span(RequestTrace.AUTH)) {
+      Optional<String> username =  authProvider.getUsernameFromToken(token);
+
+      if(!username.isPresent()){
+        return getReadOnlyUser();
+      }
+
+      User user = userService.getActiveUser(username.get());
+      if(user == null){
+        return AuthService.getReadOnlyUser();
+      }
+      return user;
     }
-    return user;
   }
 
 
@@ -150,7 +158,7 @@ public class AuthService {
       final int statusCode = rawResponse.getCode();
 
       if (statusCode != 200) {
-        logger.debug(rawResponse);
+        logger.debug("Authorization response: {}", rawResponse);
 
         throw new Exception(
           "Authorization failed with status code:" + statusCode
@@ -160,7 +168,7 @@ public class AuthService {
       logger.error("Authorization failed with error", e);
       throw (e);
     }
-    logger.info("Authorized");
+    logger.debug("Authorized");
     return true;
   }
 
@@ -18,13 +18,17 @@ import org.apache.logging.log4j.Logger;
 import service.auth.AuthProvider;
 import utils.LogUtils;
 import utils.Params;
+import utils.jfr.AuthProviderEvent;
+import utils.metrics.Metrics;
 
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 public class SupabaseAuthProvider implements AuthProvider {
 
-  private static final Logger logger = LogUtils.getLogger();
+  private static final Logger logger = LogUtils.getLogger(SupabaseAuthProvider.class);
 
   @Override
   public RegisterUserResponse registerUser(RegisterUserRequest request) throws Exception{
@@ -36,7 +40,7 @@ public class SupabaseAuthProvider implements AuthProvider {
     ObjectWriter ow = new ObjectMapper().writer().withDefaultPrettyPrinter();
     String json = ow.writeValueAsString(request);
 
-    logger.info("Register request JSON:"+json);
+    logger.debug("Sending register request for {}", request.getEmail());
 
     HttpEntity stringEntity = new StringEntity(
         json,
@@ -44,6 +48,10 @@ public class SupabaseAuthProvider implements AuthProvider {
     );
     httpPost.setEntity(stringEntity);
 
+    long start = System.nanoTime();
+    AuthProviderEvent event = new AuthProviderEvent();
+    event.begin();
+    boolean succeeded = false;
     try {
       CloseableHttpClient httpClient = HttpClients.createDefault();
 
@@ -68,9 +76,15 @@ public class SupabaseAuthProvider implements AuthProvider {
         return result;
 
       });
-
-      logger.info("Printing response fields from register user request");
-      httpResponse.fieldNames().forEachRemaining(item->logger.info(item));
+      succeeded = true;
+      Metrics.recordSupabaseCall("signup", System.nanoTime() - start, true);
+      event.commit("signup", true);
+
+      if (logger.isDebugEnabled()) {
+        List<String> fields = new ArrayList<>();
+        httpResponse.fieldNames().forEachRemaining(fields::add);
+        logger.debug("Register user response fields: {}", fields);
+      }
 
       String email;
       String createdAt;
@@ -89,8 +103,11 @@ public class SupabaseAuthProvider implements AuthProvider {
       return new RegisterUserResponse(email, createdAt);
 
     } catch (Exception e){
-      logger.error("Failed to register user with url:{}", url);
-      logger.error(e.getMessage());
+      if (!succeeded) {
+        Metrics.recordSupabaseCall("signup", System.nanoTime() - start, false);
+        event.commit("signup", false);
+      }
+      logger.error("Failed to register user with url:{}: {}", url, e.getMessage());
       throw e;
     }
   }
@@ -101,6 +118,10 @@ public class SupabaseAuthProvider implements AuthProvider {
     httpGet.setHeader("apikey", Params.getSupabaseApiKey());
     httpGet.setHeader("Authorization", "Bearer "+token);
 
+    long start = System.nanoTime();
+    AuthProviderEvent event = new AuthProviderEvent();
+    event.begin();
+    boolean succeeded = false;
     try {
       CloseableHttpClient httpClient = HttpClients.createDefault();
       ObjectMapper objectMapper = new ObjectMapper();
@@ -118,7 +139,7 @@ public class SupabaseAuthProvider implements AuthProvider {
         }
 
         if (response.getCode() >= 300) {
-          logger.error(responseData.toPrettyString());
+          logger.error("Supabase user request failed: {}", responseData);
           throw new ClientProtocolException(new StatusLine(response).toString());
         }
 
@@ -126,13 +147,20 @@ public class SupabaseAuthProvider implements AuthProvider {
       });
 
       httpClient.close();
+      succeeded = true;
+      Metrics.recordSupabaseCall("user", System.nanoTime() - start, true);
+      event.commit("user", true);
 
-      logger.info("Authorized");
+      logger.debug("Authorized");
       String email = httpResponse.get("email").textValue();
 
       return Optional.of(email);
     } catch (Exception e) {
-      logger.error("[AuthService.java] Authorization failed with error", e.getMessage());
+      if (!succeeded) {
+        Metrics.recordSupabaseCall("user", System.nanoTime() - start, false);
+        event.commit("user", false);
+      }
+      logger.error("Authorization failed with error: {}", e.getMessage());
       return Optional.empty();
     }
   }
@@ -0,0 +1,107 @@
+package service.calendar;
+
+import app.data.Event;
+import app.groups.data.Group;
+import service.recurrence.RecurrenceRule;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Events for a calendar feed. Groups and events are sorted by id so that the same data always produces the same
+ * calendar, which allows the hash of the calendar to be used as a strong ETag.
+ */
+public class CalendarFeed {
+
+  public static final LocalDate SERIES_START = LocalDate.of(2025, 1, 1);
+  private static final String UID_DOMAIN = "dmvboardgames.com";
+
+  private final String name;
+  private final List<Group> groups;
+  private String eTag;
+
+  public CalendarFeed(String name, List<Group> groups) {
+    this.name = name;
+    this.groups = new ArrayList<>(groups);
+    this.groups.sort(Comparator.comparing(Group::getId));
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public int countEvents() {
+    int count = 0;
+    for (Group group : groups) {
+      count += group.getEvents().length;
+    }
+    return count;
+  }
+
+  public void write(OutputStream stream) throws IOException {
+    BufferedOutputStream out = new BufferedOutputStream(stream);
+    ICalendarWriter writer = new ICalendarWriter(out);
+    writer.beginCalendar(name);
+    for (Group group : groups) {
+      // Events without a day or date have no occurrences to write.
+      Event[] events = Arrays.stream(group.getEvents())
+          .filter(event -> RecurrenceRule.fromEvent(event) != null)
+          .sorted(Comparator.comparing(Event::getId).thenComparing(CalendarFeed::getOccurrenceKey))
+          .toArray(Event[]::new);
+      for (Event event : events) {
+        RecurrenceRule rule = RecurrenceRule.fromEvent(event);
+        writer.writeEvent(
+            "event-" + event.getId() + "-" + getOccurrenceKey(event) + "-group-" + group.getId() + "@" + UID_DOMAIN,
+            rule,
+            SERIES_START,
+            event.getName() == null || event.getName().isEmpty() ? group.getName() : event.getName(),
+            event.getSummary(),
+            event.getLocation(),
+            group.getUrl()
+        );
+      }
+    }
+    writer.endCalendar();
+  }
+
+  /*
+    An event that happens on several days of the week is returned once for each day, so the day is part of the UID.
+    Otherwise calendar clients would merge the days into one event.
+   */
+  static String getOccurrenceKey(Event event) {
+    RecurrenceRule rule = RecurrenceRule.fromEvent(event);
+    String day = rule.day().name().toLowerCase(Locale.ROOT);
+    return switch (rule.type()) {
+      case WEEKLY -> day;
+      case MONTHLY -> day + rule.weekOfMonth();
+      case ONCE -> rule.date().toString();
+    };
+  }
+
+  /**
+   * @return Returns a strong ETag calculated from the bytes of the calendar.
+   */
+  public synchronized String getETag() throws IOException {
+    if (eTag == null) {
+      try {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        write(new DigestOutputStream(OutputStream.nullOutputStream(), digest));
+        byte[] hash = Arrays.copyOf(digest.digest(), 16);
+        eTag = "\"" + HexFormat.of().formatHex(hash) + "\"";
+      } catch (java.security.NoSuchAlgorithmException e) {
+        throw new IllegalStateException(e);
+      }
+    }
+    return eTag;
+  }
+}
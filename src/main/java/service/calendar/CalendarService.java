@@ -0,0 +1,41 @@
+package service.calendar;
+
+import app.groups.data.Group;
+import app.result.GroupSearchResult;
+import app.result.error.GroupNotFoundError;
+import database.search.GroupSearchParams;
+import database.utils.ConnectionProvider;
+import service.read.SearchService;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+
+public class CalendarService {
+
+  public CalendarService() {
+  }
+
+  public CalendarFeed getGroupCalendar(int groupId, ConnectionProvider connectionProvider) throws Exception {
+    LinkedHashMap<String, String> params = new LinkedHashMap<>();
+    params.put(GroupSearchParams.ID, Integer.toString(groupId));
+
+    SearchService searchService = new SearchService();
+    Group group = searchService.getSingleGroup(params, connectionProvider);
+    if (group == null) {
+      throw new GroupNotFoundError("No group found with id:" + groupId);
+    }
+
+    ArrayList<Group> groups = new ArrayList<>();
+    groups.add(group);
+    return new CalendarFeed(group.getName(), groups);
+  }
+
+  public CalendarFeed getAreaCalendar(String area, ConnectionProvider connectionProvider) throws Exception {
+    LinkedHashMap<String, String> params = new LinkedHashMap<>();
+    params.put(GroupSearchParams.AREA, area);
+
+    SearchService searchService = new SearchService();
+    GroupSearchResult result = searchService.getGroupsWithEventTimes(params, connectionProvider);
+    return new CalendarFeed(area + " board game events", new ArrayList<>(result.getGroupData().values()));
+  }
+}
@@ -0,0 +1,134 @@
+package service.calendar;
+
+import service.recurrence.RecurrenceRule;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Writes an RFC 5545 calendar to a stream. Lines end with CRLF and are folded so that no line is longer than 75
+ * octets. Nothing is buffered beyond the current line, so large calendars are sent as they are written.
+ */
+public class ICalendarWriter {
+
+  private static final int MAX_LINE_OCTETS = 75;
+  private static final byte[] CRLF = {'\r', '\n'};
+  private static final byte[] FOLD = {'\r', '\n', ' '};
+  private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.BASIC_ISO_DATE;
+
+  // Calendars must be identical when the data has not changed, so the timestamp of every event is fixed.
+  private static final String DTSTAMP = "20250101T000000Z";
+
+  private final OutputStream out;
+
+  public ICalendarWriter(OutputStream out) {
+    this.out = out;
+  }
+
+  public void beginCalendar(String name) throws IOException {
+    writeLine("BEGIN:VCALENDAR");
+    writeLine("VERSION:2.0");
+    writeLine("PRODID:-//DMV Board Games//Events//EN");
+    writeLine("CALSCALE:GREGORIAN");
+    writeLine("METHOD:PUBLISH");
+    writeProperty("X-WR-CALNAME", name);
+  }
+
+  public void endCalendar() throws IOException {
+    writeLine("END:VCALENDAR");
+    out.flush();
+  }
+
+  /**
+   * Writes an all day event. Recurring events start on their first occurrence on or after the series start date.
+   */
+  public void writeEvent(
+      String uid,
+      RecurrenceRule rule,
+      LocalDate seriesStart,
+      String summary,
+      String description,
+      String location,
+      String url
+  ) throws IOException {
+    LocalDate start = rule.nextOnOrAfter(seriesStart);
+    if (start == null) {
+      start = rule.date();
+    }
+
+    writeLine("BEGIN:VEVENT");
+    writeLine("UID:" + uid);
+    writeLine("DTSTAMP:" + DTSTAMP);
+    writeLine("DTSTART;VALUE=DATE:" + start.format(DATE_FORMAT));
+    writeLine("DTEND;VALUE=DATE:" + start.plusDays(1).format(DATE_FORMAT));
+    String recurrence = formatRecurrence(rule);
+    if (recurrence != null) {
+      writeLine("RRULE:" + recurrence);
+    }
+    writeProperty("SUMMARY", summary);
+    writeProperty("DESCRIPTION", description);
+    writeProperty("LOCATION", location);
+    if (url != null && !url.isEmpty()) {
+      writeLine("URL:" + url);
+    }
+    writeLine("END:VEVENT");
+  }
+
+  /**
+   * @return Returns the RRULE value for the rule, or null if the event only happens once.
+   */
+  public static String formatRecurrence(RecurrenceRule rule) {
+    String day = rule.day().name().substring(0, 2);
+    return switch (rule.type()) {
+      case WEEKLY -> "FREQ=WEEKLY;BYDAY=" + day;
+      case MONTHLY -> "FREQ=MONTHLY;BYDAY=" + rule.weekOfMonth() + day;
+      case ONCE -> null;
+    };
+  }
+
+  private void writeProperty(String name, String value) throws IOException {
+    if (value == null || value.isEmpty()) {
+      return;
+    }
+    writeLine(name + ":" + escape(value));
+  }
+
+  static String escape(String text) {
+    StringBuilder escaped = new StringBuilder(text.length());
+    for (int i = 0; i < text.length(); i++) {
+      char c = text.charAt(i);
+      switch (c) {
+        case '\\' -> escaped.append("\\\\");
+        case ';' -> escaped.append("\\;");
+        case ',' -> escaped.append("\\,");
+        case '\n' -> escaped.append("\\n");
+        case '\r' -> { }
+        default -> escaped.append(c);
+      }
+    }
+    return escaped.toString();
+  }
+
+  private void writeLine(String line) throws IOException {
+    byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+    int start = 0;
+    // Continuation lines start with a space, which counts towards the limit.
+    int limit = MAX_LINE_OCTETS;
+    while (bytes.length - start > limit) {
+      int end = start + limit;
+      // Do not split a multi byte character across lines.
+      while ((bytes[end] & 0xC0) == 0x80) {
+        end--;
+      }
+      out.write(bytes, start, end - start);
+      out.write(FOLD);
+      start = end;
+      limit = MAX_LINE_OCTETS - 1;
+    }
+    out.write(bytes, start, bytes.length - start);
+    out.write(CRLF);
+  }
+}
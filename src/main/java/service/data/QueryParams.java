@@ -0,0 +1,33 @@
+package service.data;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+/*
+  Parses optional query parameters. Invalid values throw a SearchParameterException, which the endpoints return as a
+  400 response.
+ */
+public class QueryParams {
+
+  public static LocalDate parseDate(String date, LocalDate defaultDate) throws SearchParameterException {
+    if (date == null || date.isEmpty()) {
+      return defaultDate;
+    }
+    try {
+      return LocalDate.parse(date);
+    } catch (DateTimeParseException e) {
+      throw new SearchParameterException("Invalid date:" + date);
+    }
+  }
+
+  public static int parseInt(String value, int defaultValue) throws SearchParameterException {
+    if (value == null || value.isEmpty()) {
+      return defaultValue;
+    }
+    try {
+      return Integer.parseInt(value);
+    } catch (NumberFormatException e) {
+      throw new SearchParameterException("Invalid number:" + value);
+    }
+  }
+}
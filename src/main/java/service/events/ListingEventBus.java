@@ -0,0 +1,226 @@
+package service.events;
+
+import database.changes.Change;
+import database.changes.ChangeOperation;
+import database.search.ListingScopeRepository;
+import database.utils.ConnectionProvider;
+import org.apache.logging.log4j.Logger;
+import utils.LogUtils;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+  Sends changes recorded in the change log to subscribed clients. Changes made in a transaction are held until the
+  transaction is committed, like the data versions. A commit with many changes, such as an import, is sent as a single
+  refresh message instead of one message per entity.
+
+  Changes are matched against each subscriber's filter on a single dispatcher thread, which looks up the cities, areas
+  and days of changed groups and events only when a subscriber has a filter. Messages are then added to each
+  subscriber's bounded queue and written by a small pool of sender threads. Subscribers whose queue is full are
+  disconnected, and can reconnect and catch up from the change feed.
+ */
+public class ListingEventBus {
+
+  public static final String CHANGE_EVENT = "change";
+  public static final String REFRESH_EVENT = "refresh";
+
+  // Large enough for a burst of single changes, which are sent as separate messages.
+  static final int QUEUE_CAPACITY = 256;
+  static final int MAX_CHANGES_PER_MESSAGE = 100;
+  static final long HEARTBEAT_SECONDS = 15;
+  static final int SENDER_THREADS = 4;
+
+  private static final Logger logger = LogUtils.getLogger(ListingEventBus.class);
+
+  private static final List<ListingSubscriber> subscribers = new CopyOnWriteArrayList<>();
+  private static final Map<Connection, List<Change>> pendingCommits =
+      Collections.synchronizedMap(new WeakHashMap<>());
+
+  private static final ExecutorService dispatcher = Executors.newSingleThreadExecutor(daemonThreads("listing-dispatch"));
+  private static final ExecutorService senders = Executors.newFixedThreadPool(SENDER_THREADS, daemonThreads("listing-send"));
+  private static final ScheduledExecutorService heartbeat =
+      Executors.newSingleThreadScheduledExecutor(daemonThreads("listing-heartbeat"));
+
+  private static final AtomicInteger dropped = new AtomicInteger();
+  // Streams that were accepted, counted before their subscriber is added so the limit cannot be exceeded.
+  private static final AtomicInteger reserved = new AtomicInteger();
+
+  static {
+    heartbeat.scheduleAtFixedRate(
+        ListingEventBus::sendHeartbeat,
+        HEARTBEAT_SECONDS,
+        HEARTBEAT_SECONDS,
+        TimeUnit.SECONDS
+    );
+  }
+
+  private static ThreadFactory daemonThreads(String name) {
+    AtomicInteger count = new AtomicInteger();
+    return runnable -> {
+      Thread thread = new Thread(runnable, name + "-" + count.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    };
+  }
+
+  public static ListingSubscriber subscribe(ListingFilter filter, ListingSubscriber.Sink sink) {
+    ListingSubscriber subscriber = new ListingSubscriber(filter, sink, QUEUE_CAPACITY);
+    subscribers.add(subscriber);
+    return subscriber;
+  }
+
+  public static void unsubscribe(ListingSubscriber subscriber) {
+    subscribers.remove(subscriber);
+  }
+
+  /**
+   * Reserves a place for a new subscriber before its stream is opened. Every successful reservation must be released
+   * when the stream is closed.
+   * @return Returns false if maxSubscribers streams are already open.
+   */
+  public static boolean reserve(int maxSubscribers) {
+    while (true) {
+      int current = reserved.get();
+      if (current >= maxSubscribers) {
+        return false;
+      }
+      if (reserved.compareAndSet(current, current + 1)) {
+        return true;
+      }
+    }
+  }
+
+  public static void release() {
+    reserved.decrementAndGet();
+  }
+
+  public static int getSubscriberCount() {
+    return subscribers.size();
+  }
+
+  /**
+   * @return Returns the number of subscribers disconnected because they could not keep up.
+   */
+  public static int getDroppedCount() {
+    return dropped.get();
+  }
+
+  /**
+   * Publishes a change made on the connection. Changes made in a transaction are sent after the commit.
+   */
+  public static void publish(Connection conn, Change change) throws SQLException {
+    if (conn.getAutoCommit()) {
+      dispatch(List.of(change));
+      return;
+    }
+    pendingCommits.compute(conn, (key, pending) -> {
+      List<Change> updated = pending == null ? new ArrayList<>() : pending;
+      updated.add(change);
+      return updated;
+    });
+  }
+
+  /**
+   * Should be called after the connection is committed.
+   */
+  public static void committed(Connection conn) {
+    List<Change> pending = pendingCommits.remove(conn);
+    if (pending != null) {
+      dispatch(pending);
+    }
+  }
+
+  /**
+   * Should be called after the connection is rolled back.
+   */
+  public static void rolledBack(Connection conn) {
+    pendingCommits.remove(conn);
+  }
+
+  private static void dispatch(List<Change> changes) {
+    if (subscribers.isEmpty()) {
+      return;
+    }
+    dispatcher.execute(() -> {
+      try {
+        deliver(changes);
+      } catch (Exception e) {
+        logger.error("Failed to deliver listing changes: {}", e.getMessage());
+      }
+    });
+  }
+
+  private static void deliver(List<Change> changes) throws Exception {
+    if (changes.size() > MAX_CHANGES_PER_MESSAGE) {
+      long version = changes.get(changes.size() - 1).version();
+      fanOut(REFRESH_EVENT, Map.of("version", version), null);
+      return;
+    }
+
+    Map<Change, ListingScope> scopes = new HashMap<>();
+    if (subscribers.stream().anyMatch(subscriber -> !subscriber.getFilter().isEmpty())) {
+      scopes = getScopes(changes);
+    }
+    for (Change change : changes) {
+      fanOut(CHANGE_EVENT, change, scopes.get(change));
+    }
+  }
+
+  // Deleted entities no longer have a scope, so deletes are sent to every subscriber.
+  private static Map<Change, ListingScope> getScopes(List<Change> changes) throws Exception {
+    Map<Change, ListingScope> scopes = new HashMap<>();
+    ListingScopeRepository scopeRepository = new ListingScopeRepository();
+    try (Connection conn = new ConnectionProvider().getDatabaseConnection()) {
+      for (Change change : changes) {
+        if (change.operation() == ChangeOperation.DELETE) {
+          continue;
+        }
+        scopeRepository.getScope(change.type(), change.id(), conn)
+            .ifPresent(scope -> scopes.put(change, scope));
+      }
+    }
+    return scopes;
+  }
+
+  private static void fanOut(String event, Object data, ListingScope scope) {
+    for (ListingSubscriber subscriber : subscribers) {
+      if (subscriber.getFilter().matches(scope)) {
+        enqueue(subscriber, subscriber.offer(event, data));
+      }
+    }
+  }
+
+  private static void sendHeartbeat() {
+    for (ListingSubscriber subscriber : subscribers) {
+      enqueue(subscriber, subscriber.offerComment("heartbeat"));
+    }
+  }
+
+  private static void enqueue(ListingSubscriber subscriber, boolean queued) {
+    if (!queued) {
+      if (subscribers.remove(subscriber)) {
+        dropped.incrementAndGet();
+        logger.warn("Disconnecting listing subscriber with {} queued messages", subscriber.getQueuedMessages());
+      }
+      subscriber.close();
+      return;
+    }
+    if (subscriber.claimSend()) {
+      senders.execute(subscriber::send);
+    }
+  }
+}
@@ -0,0 +1,40 @@
+package service.events;
+
+import java.util.Locale;
+
+/**
+ * Filter sent by a subscriber, using the same area, day and city parameters as the group search. Fields that are null
+ * match every listing.
+ */
+public record ListingFilter(String area, String day, String city) {
+
+  public static final ListingFilter ALL = new ListingFilter(null, null, null);
+
+  public static ListingFilter create(String area, String day, String city) {
+    return new ListingFilter(normalize(area), normalize(day), normalize(city));
+  }
+
+  private static String normalize(String value) {
+    if (value == null || value.isBlank()) {
+      return null;
+    }
+    return value.trim().toLowerCase(Locale.ROOT);
+  }
+
+  public boolean isEmpty() {
+    return area == null && day == null && city == null;
+  }
+
+  /**
+   * @param scope Scope of the change, or null if the scope is unknown. Changes with an unknown scope match every
+   *              filter, so subscribers are never missing a change that may affect them.
+   */
+  public boolean matches(ListingScope scope) {
+    if (scope == null) {
+      return true;
+    }
+    return (area == null || scope.areas().contains(area))
+        && (day == null || scope.days().contains(day))
+        && (city == null || scope.cities().contains(city));
+  }
+}
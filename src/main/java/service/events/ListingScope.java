@@ -0,0 +1,9 @@
+package service.events;
+
+import java.util.Set;
+
+/**
+ * Cities, areas and days of the listings affected by a change. Values are lower case.
+ */
+public record ListingScope(Set<String> cities, Set<String> areas, Set<String> days) {
+}
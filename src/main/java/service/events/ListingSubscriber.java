@@ -0,0 +1,100 @@
+package service.events;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A client listening for listing changes. Messages are queued by the {@link ListingEventBus} and written to the sink
+ * by a sender thread, so a client that reads slowly only delays its own messages. When the queue is full the client
+ * is too far behind and is disconnected.
+ */
+public class ListingSubscriber {
+
+  /**
+   * Connection to the client.
+   */
+  public interface Sink {
+    void send(String event, Object data) throws Exception;
+
+    void sendComment(String comment) throws Exception;
+
+    void close();
+  }
+
+  // Messages without an event name are sent as comments, which keep the connection open without waking the client.
+  private record Message(String event, Object data) {}
+
+  private final ListingFilter filter;
+  private final Sink sink;
+  private final ArrayBlockingQueue<Message> queue;
+  private final AtomicBoolean sending = new AtomicBoolean();
+  private final AtomicBoolean closed = new AtomicBoolean();
+
+  public ListingSubscriber(ListingFilter filter, Sink sink, int capacity) {
+    this.filter = filter;
+    this.sink = sink;
+    this.queue = new ArrayBlockingQueue<>(capacity);
+  }
+
+  public ListingFilter getFilter() {
+    return filter;
+  }
+
+  /**
+   * @return Returns false if the queue is full or the subscriber is closed.
+   */
+  public boolean offer(String event, Object data) {
+    return !closed.get() && queue.offer(new Message(event, data));
+  }
+
+  public boolean offerComment(String comment) {
+    return offer(null, comment);
+  }
+
+  /**
+   * @return Returns true if the caller should schedule {@link #send()}. Only one send runs at a time.
+   */
+  boolean claimSend() {
+    return !queue.isEmpty() && sending.compareAndSet(false, true);
+  }
+
+  /**
+   * Writes queued messages until the queue is empty. Closes the subscriber if a write fails.
+   */
+  void send() {
+    while (true) {
+      Message message;
+      while (!closed.get() && (message = queue.poll()) != null) {
+        try {
+          if (message.event() == null) {
+            sink.sendComment((String) message.data());
+          } else {
+            sink.send(message.event(), message.data());
+          }
+        } catch (Exception e) {
+          close();
+        }
+      }
+      sending.set(false);
+      // A message offered after the queue was emptied but before the flag was cleared would not be sent otherwise.
+      if (closed.get() || !claimSend()) {
+        return;
+      }
+    }
+  }
+
+  public int getQueuedMessages() {
+    return queue.size();
+  }
+
+  public boolean isClosed() {
+    return closed.get();
+  }
+
+  public void close() {
+    if (closed.compareAndSet(false, true)) {
+      queue.clear();
+      sink.close();
+    }
+  }
+}
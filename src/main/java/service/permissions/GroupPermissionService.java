@@ -1,8 +1,13 @@
 package service.permissions;
 
+import app.data.auth.GroupAdminType;
 import app.data.auth.User;
 import database.permissions.UserPermissionsRepository;
 import database.utils.ConnectionProvider;
+import utils.metrics.RequestTrace;
+
+import java.util.Collection;
+import java.util.HashMap;
 
 
 /*
@@ -35,6 +40,32 @@ public class GroupPermissionService {
     if(user.isSiteAdmin()){
       return true;
     }
-    return userPermissionsRepository.hasGroupEditorRole(user, groupId, connectionProvider.getDatabaseConnection());
+    try (RequestTrace.Span span = RequestTrace.span(RequestTrace.PERMISSION)) {
+      return userPermissionsRepository.hasGroupEditorRole(user, groupId, connectionProvider.getDatabaseConnection());
+    }
+  }
+
+  /*
+    Returns the admin level of the user for each group that the user can edit. Site admins are treated as group admins
+    of every group, and read only users cannot edit any group.
+   */
+  public HashMap<Integer, GroupAdminType> getEditableGroups(
+      User user,
+      Collection<Integer> groupIds,
+      ConnectionProvider connectionProvider) throws Exception {
+
+    HashMap<Integer, GroupAdminType> editableGroups = new HashMap<>();
+    if(user.isSiteAdmin()){
+      for(Integer groupId: groupIds){
+        editableGroups.put(groupId, GroupAdminType.GROUP_ADMIN);
+      }
+      return editableGroups;
+    }
+    if(user.isReadOnlyUser() || groupIds.isEmpty()){
+      return editableGroups;
+    }
+    try (RequestTrace.Span span = RequestTrace.span(RequestTrace.PERMISSION)) {
+      return userPermissionsRepository.getGroupAdminLevels(user, groupIds, connectionProvider.getDatabaseConnection());
+    }
   }
 }
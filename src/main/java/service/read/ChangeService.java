@@ -0,0 +1,79 @@
+package service.read;
+
+import app.result.changes.ChangeFeed;
+import database.changes.Change;
+import database.changes.ChangeLogRepository;
+import database.utils.ConnectionProvider;
+import org.apache.logging.log4j.Logger;
+import service.data.SearchParameterException;
+import utils.LogUtils;
+
+import java.sql.Connection;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+public class ChangeService {
+
+  public static final int MAX_LIMIT = 5000;
+
+  Logger logger;
+  ChangeLogRepository changeLogRepository;
+
+  public ChangeService(){
+    logger = LogUtils.getLogger(ChangeService.class);
+    changeLogRepository = new ChangeLogRepository();
+  }
+
+  /*
+    Returns the changes made after the version. A full resync is requested when the version is older than the
+    compaction horizon, or newer than any recorded version, which happens when the database was restored.
+   */
+  public ChangeFeed getChanges(long since, int limit, ConnectionProvider connectionProvider) throws Exception {
+    if (since < 0) {
+      throw new SearchParameterException("Invalid since parameter: " + since);
+    }
+    if (limit <= 0 || limit > MAX_LIMIT) {
+      throw new SearchParameterException("Limit must be between 1 and " + MAX_LIMIT);
+    }
+
+    try (Connection conn = connectionProvider.getDatabaseConnection()) {
+      long latest = changeLogRepository.getLatestVersion(conn);
+      long horizon = changeLogRepository.getHorizon(conn);
+      if ((since > 0 && since < horizon) || since > latest) {
+        return new ChangeFeed(List.of(), latest, false, true);
+      }
+
+      // One extra entry is read to tell whether there is another page.
+      List<Change> changes = changeLogRepository.getChangesSince(since, limit + 1, conn);
+      boolean hasMore = changes.size() > limit;
+      if (hasMore) {
+        changes = changes.subList(0, limit);
+      }
+      long version = changes.isEmpty() ? Math.max(since, latest) : changes.get(changes.size() - 1).version();
+      return new ChangeFeed(changes, version, hasMore, false);
+    }
+  }
+
+  /**
+   * Compacts the change log. Deletes are kept for the retention period, so clients that sync at least that often never
+   * need a full resync.
+   *
+   * @return Returns the number of entries removed.
+   */
+  public int compact(Duration retention, ConnectionProvider connectionProvider) throws Exception {
+    Connection conn = connectionProvider.getDatabaseConnection();
+    try {
+      conn.setAutoCommit(false);
+      int removed = changeLogRepository.compact(Instant.now().minus(retention), conn);
+      conn.commit();
+      return removed;
+    } catch (Exception e) {
+      conn.rollback();
+      logger.error("Failed to compact the change log");
+      throw e;
+    } finally {
+      conn.close();
+    }
+  }
+}
@@ -10,12 +10,14 @@ import database.content.GameStoreRepository;
 import database.content.LocationsRepository;
 import database.utils.ConnectionProvider;
 import org.apache.logging.log4j.Logger;
+import service.data.SearchParameterException;
 import utils.LogUtils;
 
 import java.sql.Connection;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.TreeSet;
 
 public class GameLocationsService {
@@ -23,27 +25,53 @@ public class GameLocationsService {
   Logger logger;
 
   public GameLocationsService(){
-    logger = LogUtils.getLogger();
+    logger = LogUtils.getLogger(GameLocationsService.class);
   }
 
   public GameLocationData getGameLocations(ConnectionProvider connectionProvider, LocalDate date) throws Exception{
+    return getGameLocations(connectionProvider, date, null, Integer.MAX_VALUE);
+  }
 
-    logger.info("Retrieving game locations");
+  /**
+   * @param horizonDays Only conventions with a day within this many days of the date are returned. Null returns all
+   *                    upcoming conventions.
+   * @param conventionLimit Maximum number of conventions to return.
+   */
+  public GameLocationData getGameLocations(
+      ConnectionProvider connectionProvider,
+      LocalDate date,
+      Integer horizonDays,
+      int conventionLimit
+  ) throws Exception{
+    if (horizonDays != null && horizonDays < 0) {
+      throw new SearchParameterException("Invalid horizon:" + horizonDays);
+    }
+    if (conventionLimit < 0) {
+      throw new SearchParameterException("Invalid limit:" + conventionLimit);
+    }
+
+    logger.debug("Retrieving game locations");
     Connection connection = connectionProvider.getDatabaseConnection();
     ConventionsRepository conventionsRepository = new ConventionsRepository();
-    HashMap<Integer, Convention> conventions = conventionsRepository.getConventions(date, connection);
+    LocalDate endDate = horizonDays == null ? null : date.plusDays(horizonDays);
+    LinkedHashMap<Integer, Convention> conventions = conventionsRepository.getConventions(
+        date,
+        endDate,
+        conventionLimit,
+        connection
+    );
 
-    logger.info("Retrieving game restaurants");
+    logger.debug("Retrieving game restaurants");
 
     GameRestaurantRepository restaurantRepository = new GameRestaurantRepository();
     HashMap<Integer, GameRestaurant> gameRestaurants = restaurantRepository.getGameRestauarants(connection);
 
-    logger.info("Retrieving game stores");
+    logger.debug("Retrieving game stores");
 
     GameStoreRepository gameStoreRepository = new GameStoreRepository();
     HashMap<Integer, GameStore> gameStores= gameStoreRepository.getGameStores(connection);
 
-    logger.info("Done retrieving data");
+    logger.debug("Done retrieving data");
 
     GameLocationData locationData = new GameLocationData();
     locationData.setConventions(conventions);
@@ -1,13 +1,19 @@
 package service.read;
 
+import app.data.auth.User;
 import app.groups.data.Group;
 import app.result.GroupSearchResult;
+import app.result.error.AmbiguousGroupNameError;
 import database.search.GroupSearchParams;
 import database.search.SearchRepository;
 import database.utils.ConnectionProvider;
+import service.data.SearchParameterException;
+import service.data.SearchParameterValidator;
+import service.permissions.GroupPermissionService;
 
 import java.sql.Connection;
 import java.util.LinkedHashMap;
+import java.util.List;
 
 public class SearchService {
 
@@ -29,20 +35,91 @@ public class SearchService {
     return groups;
   }
 
+  /*
+    Retrieves the groups that match the search parameters with an event for each day that an event takes place on.
+   */
+  public GroupSearchResult getGroupsWithEventTimes(
+    LinkedHashMap<String, String> searchParams,
+    ConnectionProvider connectionProvider
+  ) throws Exception
+  {
+    GroupSearchParams params = new GroupSearchParams(searchParams);
+    Connection conn = connectionProvider.getDatabaseConnection();
 
+    SearchRepository searchRepository = new SearchRepository();
+    return searchRepository.getGroupsWithEventTimes(params, conn);
+  }
+
+
+  /*
+    Adds the permissions of the current user to every group in the search result. Permissions for all groups are
+    retrieved with one query.
+   */
+  public void addPermissions(
+      User currentUser,
+      GroupSearchResult searchResult,
+      ConnectionProvider connectionProvider
+  ) throws Exception
+  {
+    GroupPermissionService groupPermissionService = new GroupPermissionService();
+    searchResult.setPermissions(
+        groupPermissionService.getEditableGroups(currentUser, searchResult.getGroupIds(), connectionProvider)
+    );
+  }
+
+  /*
+    Retrieves the group with the id or name in the search parameters, using a query that only reads rows for that
+    group. An area parameter can be used to require the group to be in a specific area, and the day and city parameters
+    filter its events and cities. Names are matched without case, but a group with exactly the same name is preferred
+    over groups whose name only differs in case.
+   */
   public Group getSingleGroup(
       LinkedHashMap<String, String> searchParams,
       ConnectionProvider connectionProvider
   ) throws Exception
   {
-    GroupSearchParams params = new GroupSearchParams(searchParams);
+    Integer groupId = null;
+    String groupName = null;
+    if(searchParams.containsKey(GroupSearchParams.ID)){
+      try {
+        groupId = Integer.parseInt(searchParams.get(GroupSearchParams.ID));
+      } catch (NumberFormatException e) {
+        throw new SearchParameterException("Invalid group id:"+searchParams.get(GroupSearchParams.ID));
+      }
+    } else if(searchParams.containsKey(GroupSearchParams.NAME)) {
+      groupName = searchParams.get(GroupSearchParams.NAME).replace("_", " ");
+    } else {
+      throw new SearchParameterException("A group id or name is required");
+    }
+    String day = searchParams.get(GroupSearchParams.DAY_OF_WEEK);
+    if(day != null){
+      SearchParameterValidator.validateDay(day);
+    }
+
     Connection conn = connectionProvider.getDatabaseConnection();
     SearchRepository searchRepository = new SearchRepository();
 
-    GroupSearchResult groups = searchRepository.getGroups(params, conn);
+    GroupSearchResult groups = searchRepository.getSingleGroup(
+        groupId,
+        groupName,
+        searchParams.get(GroupSearchParams.AREA),
+        day,
+        searchParams.get(GroupSearchParams.CITY),
+        conn
+    );
     if(groups.countGroups() > 1 ){
-      throw new Exception("Multiple groups were found");
+      return getExactNameMatch(groups, groupName);
     }
     return groups.getFirstGroup();
   }
+
+  private static Group getExactNameMatch(GroupSearchResult groups, String groupName) throws AmbiguousGroupNameError {
+    List<Group> exactMatches = groups.getGroupData().values().stream()
+        .filter(group -> group.getName().equals(groupName))
+        .toList();
+    if(exactMatches.size() != 1){
+      throw new AmbiguousGroupNameError("Multiple groups were found with name:"+groupName);
+    }
+    return exactMatches.get(0);
+  }
 }
@@ -0,0 +1,142 @@
+package service.read;
+
+import app.data.Event;
+import app.groups.data.Group;
+import app.result.GroupSearchResult;
+import app.result.timeline.TimelineEntry;
+import app.result.timeline.TimelinePage;
+import database.utils.ConnectionProvider;
+import service.data.SearchParameterException;
+import service.recurrence.RecurrenceRule;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.PriorityQueue;
+
+public class TimelineService {
+
+  public static final int MAX_PAGE_SIZE = 100;
+  public static final int MAX_RANGE_DAYS = 366;
+
+  // Upcoming occurrences of one event. Occurrences are only calculated when the previous one has been used.
+  private static class EventOccurrences {
+    final Group group;
+    final Event event;
+    final RecurrenceRule rule;
+    final LocalDate lastDate;
+    LocalDate next;
+
+    EventOccurrences(Group group, Event event, RecurrenceRule rule, LocalDate from, LocalDate lastDate) {
+      this.group = group;
+      this.event = event;
+      this.rule = rule;
+      this.lastDate = lastDate;
+      this.next = getOccurrence(from);
+    }
+
+    private LocalDate getOccurrence(LocalDate from) {
+      LocalDate occurrence = rule.nextOnOrAfter(from);
+      if (occurrence == null || occurrence.isAfter(lastDate)) {
+        return null;
+      }
+      return occurrence;
+    }
+
+    boolean hasNext() {
+      return next != null;
+    }
+
+    LocalDate advance() {
+      LocalDate current = next;
+      next = getOccurrence(current.plusDays(1));
+      return current;
+    }
+  }
+
+  private static final Comparator<EventOccurrences> OCCURRENCE_ORDER = Comparator
+      .comparing((EventOccurrences occurrences) -> occurrences.next)
+      .thenComparing(occurrences -> occurrences.group.getName())
+      .thenComparing(occurrences -> occurrences.event.getId());
+
+  public TimelineService(){
+  }
+
+  /*
+    Returns a page of event occurrences between the from and to dates, inclusive, for the groups that match the search
+    parameters. The occurrences of each event are merged in date order with a heap, so only the occurrences up to the
+    end of the requested page are calculated.
+   */
+  public TimelinePage getTimeline(
+      LinkedHashMap<String, String> searchParams,
+      LocalDate from,
+      LocalDate to,
+      int page,
+      int pageSize,
+      ConnectionProvider connectionProvider
+  ) throws Exception
+  {
+    validateRange(from, to, page, pageSize);
+
+    SearchService searchService = new SearchService();
+    GroupSearchResult groups = searchService.getGroupsWithEventTimes(searchParams, connectionProvider);
+
+    PriorityQueue<EventOccurrences> heap = new PriorityQueue<>(OCCURRENCE_ORDER);
+    for (Group group : groups.getGroupData().values()) {
+      for (Event event : group.getEvents()) {
+        RecurrenceRule rule = RecurrenceRule.fromEvent(event);
+        if (rule == null) {
+          continue;
+        }
+        EventOccurrences occurrences = new EventOccurrences(group, event, rule, from, to);
+        if (occurrences.hasNext()) {
+          heap.add(occurrences);
+        }
+      }
+    }
+
+    long skip = (long) page * pageSize;
+    List<TimelineEntry> entries = new ArrayList<>(pageSize);
+    while (!heap.isEmpty() && entries.size() < pageSize) {
+      EventOccurrences occurrences = heap.poll();
+      LocalDate date = occurrences.advance();
+      if (skip > 0) {
+        skip--;
+      } else {
+        Group group = occurrences.group;
+        Event event = occurrences.event;
+        entries.add(new TimelineEntry(
+            date,
+            group.getId(),
+            group.getName(),
+            group.getUrl(),
+            event.getId(),
+            event.getName(),
+            event.getLocation()
+        ));
+      }
+      if (occurrences.hasNext()) {
+        heap.add(occurrences);
+      }
+    }
+    return new TimelinePage(entries, page, pageSize, !heap.isEmpty());
+  }
+
+  private void validateRange(LocalDate from, LocalDate to, int page, int pageSize) throws SearchParameterException {
+    if (to.isBefore(from)) {
+      throw new SearchParameterException("The end date must not be before the start date");
+    }
+    if (ChronoUnit.DAYS.between(from, to) > MAX_RANGE_DAYS) {
+      throw new SearchParameterException("The date range cannot be longer than " + MAX_RANGE_DAYS + " days");
+    }
+    if (page < 0) {
+      throw new SearchParameterException("Invalid page:" + page);
+    }
+    if (pageSize <= 0 || pageSize > MAX_PAGE_SIZE) {
+      throw new SearchParameterException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+    }
+  }
+}
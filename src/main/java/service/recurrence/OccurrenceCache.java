@@ -0,0 +1,34 @@
+package service.recurrence;
+
+import utils.cache.ExpiringCache;
+
+import java.time.Duration;
+import java.time.LocalDate;
+
+/*
+  Precomputed occurrences for each recurrence rule. Windows start on the current day and are recreated when the date
+  changes, so each rule is expanded at most once per day. Rules are shared by many events, which keeps the cache small.
+ */
+public class OccurrenceCache {
+
+  public static final int WINDOW_DAYS = 90;
+
+  private static final ExpiringCache<RecurrenceRule, OccurrenceWindow> windows =
+      new ExpiringCache<>("occurrenceWindows", 5000, Duration.ofDays(1));
+
+  /**
+   * Returns the occurrences of the rule from the date until WINDOW_DAYS days after it.
+   */
+  public static OccurrenceWindow getWindow(RecurrenceRule rule, LocalDate today) {
+    OccurrenceWindow window = windows.get(rule);
+    if (window == null || !window.getStart().equals(today)) {
+      window = OccurrenceWindow.create(rule, today, today.plusDays(WINDOW_DAYS));
+      windows.put(rule, window);
+    }
+    return window;
+  }
+
+  public static ExpiringCache<RecurrenceRule, OccurrenceWindow> getCache() {
+    return windows;
+  }
+}
@@ -0,0 +1,67 @@
+package service.recurrence;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Occurrences of a recurrence rule within a range of days, stored as a sorted array of epoch days.
+ */
+public class OccurrenceWindow {
+
+  private final LocalDate start;
+  private final LocalDate end;
+  private final int[] epochDays;
+
+  private OccurrenceWindow(LocalDate start, LocalDate end, int[] epochDays) {
+    this.start = start;
+    this.end = end;
+    this.epochDays = epochDays;
+  }
+
+  /**
+   * Creates a window with every occurrence of the rule between the start and end dates, inclusive.
+   */
+  public static OccurrenceWindow create(RecurrenceRule rule, LocalDate start, LocalDate end) {
+    int[] occurrences = new int[8];
+    int count = 0;
+
+    LocalDate next = rule.nextOnOrAfter(start);
+    while (next != null && !next.isAfter(end)) {
+      if (count == occurrences.length) {
+        occurrences = Arrays.copyOf(occurrences, count * 2);
+      }
+      occurrences[count++] = (int) next.toEpochDay();
+      next = rule.nextOnOrAfter(next.plusDays(1));
+    }
+    return new OccurrenceWindow(start, end, Arrays.copyOf(occurrences, count));
+  }
+
+  public LocalDate getStart() {
+    return start;
+  }
+
+  public LocalDate getEnd() {
+    return end;
+  }
+
+  public int size() {
+    return epochDays.length;
+  }
+
+  /**
+   * Calls the consumer for each occurrence between the dates, inclusive, in chronological order.
+   */
+  public void forEach(LocalDate from, LocalDate to, Consumer<LocalDate> consumer) {
+    int last = (int) to.toEpochDay();
+    for (int i = indexOf(from); i < epochDays.length && epochDays[i] <= last; i++) {
+      consumer.accept(LocalDate.ofEpochDay(epochDays[i]));
+    }
+  }
+
+  // Index of the first occurrence on or after the date
+  private int indexOf(LocalDate date) {
+    int index = Arrays.binarySearch(epochDays, (int) date.toEpochDay());
+    return index >= 0 ? index : -(index + 1);
+  }
+}
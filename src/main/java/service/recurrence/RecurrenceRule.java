@@ -0,0 +1,95 @@
+package service.recurrence;
+
+import app.data.Event;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Describes when an event happens. Events either happen every week on a day, on the nth day of the week of every month,
+ * or once on a specific date.
+ */
+public record RecurrenceRule(RecurrenceType type, DayOfWeek day, int weekOfMonth, LocalDate date) {
+
+  public enum RecurrenceType {
+    WEEKLY,
+    MONTHLY,
+    ONCE
+  }
+
+  // The 5th day of the week only exists in some months, so the search for the next occurrence is bounded.
+  private static final int MAX_MONTHS_TO_SEARCH = 24;
+
+  public static RecurrenceRule weekly(DayOfWeek day) {
+    return new RecurrenceRule(RecurrenceType.WEEKLY, day, 0, null);
+  }
+
+  /**
+   * @return Returns true if the week is between 1 and 5, or between -1 and -5 to count from the end of the month.
+   */
+  public static boolean isValidWeekOfMonth(int weekOfMonth) {
+    return weekOfMonth != 0 && weekOfMonth >= -5 && weekOfMonth <= 5;
+  }
+
+  public static RecurrenceRule monthly(DayOfWeek day, int weekOfMonth) {
+    if (!isValidWeekOfMonth(weekOfMonth)) {
+      throw new IllegalArgumentException("Invalid week of month:" + weekOfMonth);
+    }
+    return new RecurrenceRule(RecurrenceType.MONTHLY, day, weekOfMonth, null);
+  }
+
+  public static RecurrenceRule once(LocalDate date) {
+    return new RecurrenceRule(RecurrenceType.ONCE, date.getDayOfWeek(), 0, date);
+  }
+
+  /**
+   * @return Returns the rule for the date or day of the event, or null if the event has neither.
+   */
+  public static RecurrenceRule fromEvent(Event event) {
+    if (event.getDate() != null) {
+      return once(LocalDate.parse(event.getDate()));
+    }
+    // Events without a row in event_time are returned by the search with no day.
+    if (event.getDay() == null || event.getDay().isBlank()) {
+      return null;
+    }
+    DayOfWeek day = DayOfWeek.valueOf(event.getDay().toUpperCase());
+    if (event.getWeekOfMonth() != null) {
+      return monthly(day, event.getWeekOfMonth());
+    }
+    return weekly(day);
+  }
+
+  /**
+   * @return Returns the first occurrence on or after the date, or null if the event does not happen again.
+   */
+  public LocalDate nextOnOrAfter(LocalDate from) {
+    return switch (type) {
+      case WEEKLY -> from.with(TemporalAdjusters.nextOrSame(day));
+      case ONCE -> from.isAfter(date) ? null : date;
+      case MONTHLY -> nextMonthlyOccurrence(from);
+    };
+  }
+
+  private LocalDate nextMonthlyOccurrence(LocalDate from) {
+    YearMonth month = YearMonth.from(from);
+    for (int i = 0; i < MAX_MONTHS_TO_SEARCH; i++) {
+      LocalDate occurrence = getOccurrenceInMonth(month.plusMonths(i));
+      if (occurrence != null && !occurrence.isBefore(from)) {
+        return occurrence;
+      }
+    }
+    return null;
+  }
+
+  private LocalDate getOccurrenceInMonth(YearMonth month) {
+    LocalDate occurrence = month.atDay(1).with(TemporalAdjusters.dayOfWeekInMonth(weekOfMonth, day));
+    if (!YearMonth.from(occurrence).equals(month)) {
+      // The month does not have a 5th (or 5th to last) day of the week.
+      return null;
+    }
+    return occurrence;
+  }
+}
@@ -1,5 +1,6 @@
 package service.update;
 
+import app.data.Event;
 import app.groups.data.Group;
 import app.data.auth.User;
 import app.result.error.InvalidGroupRequestError;
@@ -8,6 +9,7 @@ import database.content.GroupsRepository;
 import database.permissions.UserPermissionsRepository;
 import database.utils.ConnectionProvider;
 import org.apache.logging.log4j.Logger;
+import service.recurrence.RecurrenceRule;
 import utils.LogUtils;
 
 public class GroupEditService {
@@ -16,7 +18,7 @@ public class GroupEditService {
   GroupsRepository groupsRepository;
   UserPermissionsRepository userPermissionsRepository;
   public GroupEditService() {
-    logger = LogUtils.getLogger();
+    logger = LogUtils.getLogger(GroupEditService.class);
     groupsRepository = new GroupsRepository();
     userPermissionsRepository = new UserPermissionsRepository();
   }
@@ -32,7 +34,7 @@ public class GroupEditService {
     if(!userPermissionsRepository.hasGroupEditorRole(user, groupToUpdate.getId(), connectionProvider.getDatabaseConnection()) && !user.isSiteAdmin())  {
       throw new PermissionError("User does not have permissions to edit group: " + groupToUpdate.getName());
     }
-    System.out.println("User can edit group");
+    logger.debug("User {} can edit group {}", user.getId(), groupToUpdate.getId());
     groupsRepository.updateGroup(groupToUpdate, connectionProvider.getDatabaseConnection());
   }
 
@@ -65,6 +67,11 @@ public class GroupEditService {
       throw new Exception(message);
     }
 
-
+    for (Event event : group.getEvents()) {
+      Integer weekOfMonth = event.getWeekOfMonth();
+      if (weekOfMonth != null && !RecurrenceRule.isValidWeekOfMonth(weekOfMonth)) {
+        throw new InvalidGroupRequestError("Invalid week of month for event " + event.getName() + ": " + weekOfMonth);
+      }
+    }
   }
 }
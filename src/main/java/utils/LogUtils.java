@@ -1,12 +1,16 @@
 package utils;
 
-import database.content.GameStoreRepository;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 public class LogUtils {
 
-  public static Logger getLogger() {
-    return LogManager.getLogger(GameStoreRepository.class);
+  /**
+   * Key of the id of the request being handled in the thread context, which is added to every log line.
+   */
+  public static final String REQUEST_ID = "requestId";
+
+  public static Logger getLogger(Class<?> type) {
+    return LogManager.getLogger(type);
   }
 }
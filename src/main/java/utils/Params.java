@@ -33,4 +33,152 @@ public class Params {
   public static String getSupabasePasswordCheckUrl(){
     return "https://karqyskuudnvfxohwkok.supabase.co/auth/v1/token?grant_type=password";
   }
+
+  /**
+   * @return Returns the JDBC url of a direct or session mode connection, used to listen for notifications.
+   */
+  public static Optional<String> getListenDatabaseUrl(){
+    var url = System.getenv("LISTEN_DATABASE_URL");
+    if(url == null || url.isBlank()){
+      return Optional.empty();
+    }
+    return Optional.of(url);
+  }
+
+  /**
+   * @return Returns the bearer token required to read /metrics. The endpoint is disabled when no token is configured.
+   */
+  public static Optional<String> getMetricsToken(){
+    var token = System.getenv("METRICS_TOKEN");
+    if(token == null || token.isBlank()){
+      return Optional.empty();
+    }
+    return Optional.of(token);
+  }
+
+  public static long getResponseCacheBytes(){
+    return getIntOrDefault("RESPONSE_CACHE_MB", 32) * 1024L * 1024L;
+  }
+
+  public static int getResponseCacheSlabBytes(){
+    return getIntOrDefault("RESPONSE_CACHE_SLAB_KB", 1024) * 1024;
+  }
+
+  /**
+   * @return Returns a comma separated list of encodings used to compress responses, in order of preference.
+   */
+  public static String getResponseCompression(){
+    var value = System.getenv("RESPONSE_COMPRESSION");
+    if(value == null || value.isBlank()){
+      return "gzip,deflate";
+    }
+    return value;
+  }
+
+  public static int getCompressionLevel(){
+    return getIntOrDefault("COMPRESSION_LEVEL", 6);
+  }
+
+  public static int getCompressionMinBytes(){
+    return getIntOrDefault("COMPRESSION_MIN_BYTES", 1024);
+  }
+
+  /**
+   * @return Returns the number of clients that can be subscribed to /listings/events at the same time.
+   */
+  public static int getMaxListingSubscribers(){
+    return getIntOrDefault("LISTING_MAX_SUBSCRIBERS", 1000);
+  }
+
+  /**
+   * @return Returns the number of items committed together by /admin/saveData when no chunk size is given.
+   */
+  public static int getImportChunkSize(){
+    return getIntOrDefault("IMPORT_CHUNK_SIZE", 500);
+  }
+
+  /**
+   * @return Returns the number of days deletes are kept in the change log before compaction removes them.
+   */
+  public static int getChangeLogRetentionDays(){
+    return getIntOrDefault("CHANGE_LOG_RETENTION_DAYS", 30);
+  }
+
+  /**
+   * @return Returns the time in milliseconds after which a request's trace can be kept for the admin traces endpoint.
+   */
+  public static int getSlowTraceMillis(){
+    return getIntOrDefault("SLOW_TRACE_MS", 500);
+  }
+
+  /**
+   * @return Returns the percentage of slow requests whose traces are kept.
+   */
+  public static int getSlowTraceSamplePercent(){
+    return getIntOrDefault("SLOW_TRACE_SAMPLE_PERCENT", 100);
+  }
+
+  /**
+   * @return Returns the number of times a statement can run while handling one request before it is reported as a
+   *         query per row.
+   */
+  public static int getRepeatedStatementThreshold(){
+    return getIntOrDefault("REPEATED_STATEMENT_THRESHOLD", 10);
+  }
+
+  /**
+   * @return Returns the time in milliseconds after which a statement is logged as a slow query.
+   */
+  public static int getSlowQueryMillis(){
+    return getIntOrDefault("SLOW_QUERY_MS", 200);
+  }
+
+  /**
+   * @return Returns the percentage of slow SELECT statements that are run again with EXPLAIN ANALYZE.
+   */
+  public static int getExplainSamplePercent(){
+    return getIntOrDefault("EXPLAIN_SAMPLE_PERCENT", 10);
+  }
+
+  public static int getSlowQueryCapacity(){
+    return getIntOrDefault("SLOW_QUERY_CAPACITY", 100);
+  }
+
+  /**
+   * @return Returns the name of the JDK Flight Recorder template used for recordings started from the admin endpoint.
+   */
+  public static String getJfrTemplate(){
+    var value = System.getenv("JFR_TEMPLATE");
+    if(value == null || value.isBlank()){
+      return "profile";
+    }
+    return value;
+  }
+
+  /**
+   * @return Returns the number of seconds after which a recording stops if it was not stopped.
+   */
+  public static int getJfrMaxSeconds(){
+    return getIntOrDefault("JFR_MAX_SECONDS", 300);
+  }
+
+  public static long getJfrMaxBytes(){
+    return getIntOrDefault("JFR_MAX_MB", 100) * 1024L * 1024L;
+  }
+
+  public static int getSlowTraceCapacity(){
+    return getIntOrDefault("SLOW_TRACE_CAPACITY", 200);
+  }
+
+  private static int getIntOrDefault(String name, int defaultValue){
+    var value = System.getenv(name);
+    if(value == null || value.isBlank()){
+      return defaultValue;
+    }
+    try {
+      return Integer.parseInt(value.trim());
+    } catch (NumberFormatException e) {
+      return defaultValue;
+    }
+  }
 }
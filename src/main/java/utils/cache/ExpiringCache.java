@@ -0,0 +1,122 @@
+package utils.cache;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BiPredicate;
+import utils.jfr.CacheLookupEvent;
+
+/**
+ * Size bounded cache where entries expire after a fixed amount of time. The least recently used entry is removed when
+ * the cache is full.
+ */
+public class ExpiringCache<K, V> {
+
+  public interface Loader<K, V> {
+    V load(K key) throws Exception;
+  }
+
+  private record Entry<V>(V value, long expiresAt) {}
+
+  private final String name;
+  private final long ttlNanos;
+  private final LinkedHashMap<K, Entry<V>> entries;
+
+  private long hits = 0;
+  private long misses = 0;
+
+  // Incremented on every invalidation so that values loaded before an invalidation are not cached.
+  private long generation = 0;
+
+  public ExpiringCache(String name, int maxSize, Duration ttl) {
+    this.name = name;
+    this.ttlNanos = ttl.toNanos();
+    this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+        return size() > maxSize;
+      }
+    };
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * @return Returns the cached value, or null if there is no value or the value has expired.
+   */
+  public synchronized V get(K key) {
+    Entry<V> entry = entries.get(key);
+    if (entry == null) {
+      misses++;
+      return null;
+    }
+    if (entry.expiresAt() - System.nanoTime() <= 0) {
+      entries.remove(key);
+      misses++;
+      return null;
+    }
+    hits++;
+    return entry.value();
+  }
+
+  public synchronized void put(K key, V value) {
+    entries.put(key, new Entry<>(value, System.nanoTime() + ttlNanos));
+  }
+
+  /**
+   * Returns the cached value, or loads and caches it if it is not present. Null values are not cached.
+   */
+  public V getOrLoad(K key, Loader<K, V> loader) throws Exception {
+    CacheLookupEvent event = new CacheLookupEvent();
+    event.begin();
+    long loadGeneration;
+    synchronized (this) {
+      V value = get(key);
+      if (value != null) {
+        event.commit(name, true);
+        return value;
+      }
+      loadGeneration = generation;
+    }
+
+    V value = loader.load(key);
+    if (value != null) {
+      synchronized (this) {
+        if (loadGeneration == generation) {
+          put(key, value);
+        }
+      }
+    }
+    event.commit(name, false);
+    return value;
+  }
+
+  public synchronized void invalidate(K key) {
+    generation++;
+    entries.remove(key);
+  }
+
+  public synchronized void invalidateIf(BiPredicate<K, V> predicate) {
+    generation++;
+    entries.entrySet().removeIf(entry -> predicate.test(entry.getKey(), entry.getValue().value()));
+  }
+
+  public synchronized void clear() {
+    generation++;
+    entries.clear();
+  }
+
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  public synchronized long getHits() {
+    return hits;
+  }
+
+  public synchronized long getMisses() {
+    return misses;
+  }
+}
@@ -0,0 +1,317 @@
+package utils.cache;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiPredicate;
+
+/**
+ * Stores byte values outside of the Java heap, in direct buffers of a fixed size called slabs. Values are appended to
+ * the active slab. When no slab has room, the slab with the least live data is compacted by copying its live values
+ * into a spare slab, and the least recently used values are removed until compaction frees enough space. The total
+ * memory used never exceeds the budget given to the constructor.
+ *
+ * <p>Each value is made of one or more variants stored next to each other, along with metadata kept on the heap.
+ * Values are read through a {@link Handle}, which keeps the slab from being reused until it is closed, so the bytes
+ * can be written to a socket without being copied.
+ */
+public class SlabStore<K, M> {
+
+  private static final class Slab {
+    final ByteBuffer buffer;
+    int position = 0;
+    int liveBytes = 0;
+    final AtomicInteger readers = new AtomicInteger();
+
+    Slab(int size) {
+      buffer = ByteBuffer.allocateDirect(size);
+    }
+
+    void reset() {
+      position = 0;
+      liveBytes = 0;
+    }
+  }
+
+  private static final class Entry<M> {
+    Slab slab;
+    int offset;
+    final int[] lengths;
+    final int totalLength;
+    final M metadata;
+
+    Entry(M metadata, int[] lengths) {
+      this.metadata = metadata;
+      this.lengths = lengths;
+      int total = 0;
+      for (int length : lengths) {
+        total += Math.max(length, 0);
+      }
+      this.totalLength = total;
+    }
+  }
+
+  /**
+   * Read access to a stored value. Must be closed once the bytes are no longer used.
+   */
+  public static final class Handle<M> implements AutoCloseable {
+    private final Slab slab;
+    private final int offset;
+    private final int[] lengths;
+    private final M metadata;
+    private boolean closed = false;
+
+    private Handle(Slab slab, int offset, int[] lengths, M metadata) {
+      this.slab = slab;
+      this.offset = offset;
+      this.lengths = lengths;
+      this.metadata = metadata;
+    }
+
+    public M getMetadata() {
+      return metadata;
+    }
+
+    /**
+     * @return Returns a read only view of the variant, or null if the variant was not stored.
+     */
+    public ByteBuffer getVariant(int index) {
+      if (lengths[index] < 0) {
+        return null;
+      }
+      int start = offset;
+      for (int i = 0; i < index; i++) {
+        start += Math.max(lengths[i], 0);
+      }
+      ByteBuffer view = slab.buffer.asReadOnlyBuffer();
+      view.limit(start + lengths[index]).position(start);
+      return view.slice();
+    }
+
+    @Override
+    public void close() {
+      if (!closed) {
+        closed = true;
+        slab.readers.decrementAndGet();
+      }
+    }
+  }
+
+  private final String name;
+  private final int slabSize;
+  private final int maxSlabs;
+  private final List<Slab> slabs = new ArrayList<>();
+  private final LinkedHashMap<K, Entry<M>> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+  private Slab active;
+  private Slab spare;
+
+  private long hits = 0;
+  private long misses = 0;
+  private long evictions = 0;
+  private long compactions = 0;
+
+  /**
+   * @param budgetBytes Maximum number of bytes used for slabs. At least two slabs are always used, one of which is kept
+   *                    empty for compaction.
+   */
+  public SlabStore(String name, long budgetBytes, int slabSize) {
+    this.name = name;
+    this.slabSize = slabSize;
+    this.maxSlabs = (int) Math.max(2, budgetBytes / slabSize);
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * @return Returns a handle to the value, or null if the key is not stored.
+   */
+  public synchronized Handle<M> acquire(K key) {
+    Entry<M> entry = entries.get(key);
+    if (entry == null) {
+      misses++;
+      return null;
+    }
+    hits++;
+    entry.slab.readers.incrementAndGet();
+    return new Handle<>(entry.slab, entry.offset, entry.lengths, entry.metadata);
+  }
+
+  /**
+   * Stores the variants of a value. Null variants are recorded as missing. Values larger than a slab, or values that
+   * do not fit because every slab is being read, are not stored.
+   *
+   * @return Returns true if the value was stored.
+   */
+  public synchronized boolean put(K key, M metadata, byte[]... variants) {
+    int[] lengths = new int[variants.length];
+    for (int i = 0; i < variants.length; i++) {
+      lengths[i] = variants[i] == null ? -1 : variants[i].length;
+    }
+    Entry<M> entry = new Entry<>(metadata, lengths);
+    remove(key);
+    if (entry.totalLength > slabSize || !reserve(entry.totalLength)) {
+      return false;
+    }
+
+    entry.slab = active;
+    entry.offset = active.position;
+    ByteBuffer buffer = active.buffer.duplicate();
+    buffer.position(active.position);
+    for (byte[] variant : variants) {
+      if (variant != null) {
+        buffer.put(variant);
+      }
+    }
+    active.position += entry.totalLength;
+    active.liveBytes += entry.totalLength;
+    entries.put(key, entry);
+    return true;
+  }
+
+  // Makes room for the length in the active slab.
+  private boolean reserve(int length) {
+    while (true) {
+      if (active != null && slabSize - active.position >= length) {
+        return true;
+      }
+      if (slabs.size() < maxSlabs - 1) {
+        active = new Slab(slabSize);
+        slabs.add(active);
+        continue;
+      }
+      if (spare == null) {
+        spare = new Slab(slabSize);
+      }
+
+      Slab victim = null;
+      for (Slab slab : slabs) {
+        if (slab.readers.get() == 0 && (victim == null || slab.liveBytes < victim.liveBytes)) {
+          victim = slab;
+        }
+      }
+      if (victim == null || spare.readers.get() != 0) {
+        return false;
+      }
+      if (slabSize - victim.liveBytes >= length) {
+        compact(victim);
+        continue;
+      }
+      if (!evictLeastRecentlyUsed()) {
+        return false;
+      }
+    }
+  }
+
+  // Moves the live values of the slab into the spare slab, which becomes the active slab.
+  private void compact(Slab victim) {
+    Slab target = spare;
+    target.reset();
+    for (Entry<M> entry : entries.values()) {
+      if (entry.slab != victim) {
+        continue;
+      }
+      ByteBuffer source = victim.buffer.duplicate();
+      source.limit(entry.offset + entry.totalLength).position(entry.offset);
+      ByteBuffer destination = target.buffer.duplicate();
+      destination.position(target.position);
+      destination.put(source);
+
+      entry.slab = target;
+      entry.offset = target.position;
+      target.position += entry.totalLength;
+      target.liveBytes += entry.totalLength;
+    }
+
+    slabs.set(slabs.indexOf(victim), target);
+    victim.reset();
+    spare = victim;
+    active = target;
+    compactions++;
+  }
+
+  private boolean evictLeastRecentlyUsed() {
+    Iterator<Map.Entry<K, Entry<M>>> iterator = entries.entrySet().iterator();
+    if (!iterator.hasNext()) {
+      return false;
+    }
+    Entry<M> eldest = iterator.next().getValue();
+    iterator.remove();
+    eldest.slab.liveBytes -= eldest.totalLength;
+    evictions++;
+    return true;
+  }
+
+  public synchronized void remove(K key) {
+    Entry<M> entry = entries.remove(key);
+    if (entry != null) {
+      entry.slab.liveBytes -= entry.totalLength;
+    }
+  }
+
+  public synchronized void removeIf(BiPredicate<K, M> predicate) {
+    Iterator<Map.Entry<K, Entry<M>>> iterator = entries.entrySet().iterator();
+    while (iterator.hasNext()) {
+      Map.Entry<K, Entry<M>> entry = iterator.next();
+      if (predicate.test(entry.getKey(), entry.getValue().metadata)) {
+        iterator.remove();
+        entry.getValue().slab.liveBytes -= entry.getValue().totalLength;
+      }
+    }
+  }
+
+  public synchronized void clear() {
+    for (Entry<M> entry : entries.values()) {
+      entry.slab.liveBytes -= entry.totalLength;
+    }
+    entries.clear();
+  }
+
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  /**
+   * @return Returns the number of bytes used by stored values.
+   */
+  public synchronized long getLiveBytes() {
+    long live = 0;
+    for (Slab slab : slabs) {
+      live += slab.liveBytes;
+    }
+    return live;
+  }
+
+  /**
+   * @return Returns the number of bytes allocated for slabs, including the spare slab.
+   */
+  public synchronized long getAllocatedBytes() {
+    return (long) (slabs.size() + (spare == null ? 0 : 1)) * slabSize;
+  }
+
+  public long getBudgetBytes() {
+    return (long) maxSlabs * slabSize;
+  }
+
+  public synchronized long getHits() {
+    return hits;
+  }
+
+  public synchronized long getMisses() {
+    return misses;
+  }
+
+  public synchronized long getEvictions() {
+    return evictions;
+  }
+
+  public synchronized long getCompactions() {
+    return compactions;
+  }
+}
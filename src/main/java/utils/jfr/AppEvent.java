@@ -0,0 +1,20 @@
+package utils.jfr;
+
+import jdk.jfr.Event;
+
+import java.util.List;
+
+/*
+  Base of the events recorded by the server. Events are only written while a recording that enables them is running,
+  and otherwise begin and commit return without doing anything, so they can be left in frequently called code.
+ */
+public abstract class AppEvent extends Event {
+
+  static final List<Class<? extends Event>> EVENT_TYPES = List.of(
+      HttpRequestEvent.class,
+      StatementEvent.class,
+      AuthProviderEvent.class,
+      CacheLookupEvent.class,
+      ImportStageEvent.class
+  );
+}
@@ -0,0 +1,26 @@
+package utils.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("freegather.AuthProviderCall")
+@Label("Auth Provider Call")
+@Category({"Free Gather", "Auth"})
+public class AuthProviderEvent extends AppEvent {
+
+  @Label("Operation")
+  public String operation;
+
+  @Label("Succeeded")
+  public boolean succeeded;
+
+  public void commit(String operation, boolean succeeded) {
+    end();
+    if (shouldCommit()) {
+      this.operation = operation;
+      this.succeeded = succeeded;
+      commit();
+    }
+  }
+}
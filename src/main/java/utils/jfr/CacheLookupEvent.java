@@ -0,0 +1,30 @@
+package utils.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("freegather.CacheLookup")
+@Label("Cache Lookup")
+@Category({"Free Gather", "Cache"})
+@Description("Lookup of a cached value, including loading it when it was not cached.")
+@StackTrace(false)
+public class CacheLookupEvent extends AppEvent {
+
+  @Label("Cache")
+  public String cache;
+
+  @Label("Hit")
+  public boolean hit;
+
+  public void commit(String cache, boolean hit) {
+    end();
+    if (shouldCommit()) {
+      this.cache = cache;
+      this.hit = hit;
+      commit();
+    }
+  }
+}
@@ -0,0 +1,90 @@
+package utils.jfr;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Event;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/*
+  Starts and stops a single Flight Recorder recording on demand. The recording uses one of the JDK's templates, such as
+  "profile" for allocation and lock profiling, with the server's own events enabled, and stops by itself after the
+  maximum duration so one that is never stopped does not keep recording. Stopping writes it to a temporary file.
+ */
+public class FlightRecordings {
+
+  private static final String RECORDING_NAME = "free-gather";
+
+  private static Recording recording;
+
+  /**
+   * @throws IllegalStateException If a recording is already running.
+   */
+  public static synchronized void start(String template, Duration maxDuration, long maxBytes) throws Exception {
+    if (recording != null && recording.getState() == RecordingState.RUNNING) {
+      throw new IllegalStateException("A recording is already running");
+    }
+    closeRecording();
+
+    Configuration configuration = Configuration.getConfiguration(template);
+    Recording newRecording = new Recording(configuration);
+    newRecording.setName(RECORDING_NAME);
+    newRecording.setToDisk(true);
+    newRecording.setDuration(maxDuration);
+    newRecording.setMaxSize(maxBytes);
+    for (Class<? extends Event> eventType : AppEvent.EVENT_TYPES) {
+      newRecording.enable(eventType);
+    }
+    newRecording.start();
+    recording = newRecording;
+  }
+
+  /**
+   * Stops the recording if it is still running and writes it to a temporary file, which the caller should delete.
+   *
+   * @throws IllegalStateException If no recording was started.
+   */
+  public static synchronized Path stop() throws Exception {
+    if (recording == null) {
+      throw new IllegalStateException("No recording was started");
+    }
+    if (recording.getState() == RecordingState.RUNNING) {
+      recording.stop();
+    }
+    Path file = Files.createTempFile(RECORDING_NAME + "-", ".jfr");
+    try {
+      recording.dump(file);
+    } catch (Exception e) {
+      Files.deleteIfExists(file);
+      throw e;
+    } finally {
+      closeRecording();
+    }
+    return file;
+  }
+
+  public static synchronized Map<String, Object> getStatus() {
+    LinkedHashMap<String, Object> status = new LinkedHashMap<>();
+    if (recording == null) {
+      status.put("state", "NONE");
+      return status;
+    }
+    status.put("state", recording.getState().toString());
+    status.put("startTime", recording.getStartTime() == null ? null : recording.getStartTime().toString());
+    status.put("maxDurationSeconds", recording.getDuration() == null ? null : recording.getDuration().toSeconds());
+    status.put("sizeBytes", recording.getSize());
+    return status;
+  }
+
+  private static void closeRecording() {
+    if (recording != null) {
+      recording.close();
+      recording = null;
+    }
+  }
+}
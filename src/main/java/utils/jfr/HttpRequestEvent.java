@@ -0,0 +1,40 @@
+package utils.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("freegather.HttpRequest")
+@Label("HTTP Request")
+@Category({"Free Gather", "HTTP"})
+@Description("Handling of a request, from matching the endpoint until the response was sent.")
+@StackTrace(false)
+public class HttpRequestEvent extends AppEvent {
+
+  @Label("Method")
+  public String method;
+
+  @Label("Route")
+  public String route;
+
+  @Label("Status")
+  public int status;
+
+  public static HttpRequestEvent begin(String method, String route) {
+    HttpRequestEvent event = new HttpRequestEvent();
+    event.method = method;
+    event.route = route;
+    event.begin();
+    return event;
+  }
+
+  public void commit(int status) {
+    end();
+    if (shouldCommit()) {
+      this.status = status;
+      commit();
+    }
+  }
+}
@@ -0,0 +1,32 @@
+package utils.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("freegather.ImportStage")
+@Label("Import Stage")
+@Category({"Free Gather", "Import"})
+public class ImportStageEvent extends AppEvent {
+
+  @Label("Stage")
+  public String stage;
+
+  @Label("From")
+  public int from;
+
+  @Label("To")
+  public int to;
+
+  /**
+   * Starts timing the import of the items from index from to index to, exclusive, of a stage.
+   */
+  public static ImportStageEvent begin(String stage, int from, int to) {
+    ImportStageEvent event = new ImportStageEvent();
+    event.stage = stage;
+    event.from = from;
+    event.to = to;
+    event.begin();
+    return event;
+  }
+}
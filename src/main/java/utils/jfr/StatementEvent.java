@@ -0,0 +1,29 @@
+package utils.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("freegather.Statement")
+@Label("Database Statement")
+@Category({"Free Gather", "Database"})
+@Description("Execution of a SQL statement, not including reading its results.")
+public class StatementEvent extends AppEvent {
+
+  @Label("SQL")
+  @Description("The statement with its literals replaced by placeholders.")
+  public String sql;
+
+  @Label("Succeeded")
+  public boolean succeeded;
+
+  public void commit(String sql, boolean succeeded) {
+    end();
+    if (shouldCommit()) {
+      this.sql = sql;
+      this.succeeded = succeeded;
+      commit();
+    }
+  }
+}
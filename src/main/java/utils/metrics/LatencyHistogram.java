@@ -0,0 +1,107 @@
+package utils.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram of durations with log-linear buckets, in the style of HdrHistogram. Durations are recorded in microseconds,
+ * and each power of two is split into 8 buckets, so a bucket is never wider than an eighth of its lower bound. Recording
+ * only increments counters, so it can be called from many threads without locking.
+ */
+public class LatencyHistogram {
+
+  private static final int SUB_BUCKET_BITS = 3;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+  // Durations longer than 2^41 microseconds, about 25 days, are counted in the last bucket.
+  private static final int MAX_EXPONENT = 40;
+  static final int BUCKET_COUNT = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+  private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+  private final LongAdder sumNanos = new LongAdder();
+
+  public void record(long nanos) {
+    long micros = Math.max(0, nanos / 1000);
+    counts.incrementAndGet(getBucket(micros));
+    sumNanos.add(Math.max(0, nanos));
+  }
+
+  static int getBucket(long micros) {
+    if (micros < SUB_BUCKETS) {
+      return (int) micros;
+    }
+    int exponent = 63 - Long.numberOfLeadingZeros(micros);
+    if (exponent > MAX_EXPONENT) {
+      return BUCKET_COUNT - 1;
+    }
+    int subBucket = (int) (micros >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+    return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+  }
+
+  /**
+   * @return Returns the smallest duration in microseconds that is larger than every duration in the bucket.
+   */
+  static long getUpperBound(int bucket) {
+    if (bucket < SUB_BUCKETS) {
+      return bucket + 1;
+    }
+    int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+    int subBucket = bucket % SUB_BUCKETS;
+    return (long) (SUB_BUCKETS + subBucket + 1) << (exponent - SUB_BUCKET_BITS);
+  }
+
+  /**
+   * Returns the number of durations in each of the limits, which must be in increasing order. A bucket is only counted
+   * towards a limit if all of its durations are within it, so counts may be slightly low for limits that fall inside a
+   * bucket.
+   *
+   * @param limitsMicros Upper limits, inclusive, in microseconds.
+   */
+  public long[] getCumulativeCounts(long[] limitsMicros) {
+    long[] cumulative = new long[limitsMicros.length];
+    long total = 0;
+    int limit = 0;
+    for (int bucket = 0; bucket < BUCKET_COUNT && limit < limitsMicros.length; bucket++) {
+      while (limit < limitsMicros.length && getUpperBound(bucket) > limitsMicros[limit] + 1) {
+        cumulative[limit++] = total;
+      }
+      total += counts.get(bucket);
+    }
+    while (limit < limitsMicros.length) {
+      cumulative[limit++] = total;
+    }
+    return cumulative;
+  }
+
+  /**
+   * @return Returns the upper bound in microseconds of the bucket containing the percentile, or 0 if nothing was
+   *         recorded.
+   */
+  public long getPercentileMicros(double percentile) {
+    long count = getCount();
+    if (count == 0) {
+      return 0;
+    }
+    long rank = Math.max(1, (long) Math.ceil(count * percentile / 100));
+    long total = 0;
+    for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+      total += counts.get(bucket);
+      if (total >= rank) {
+        return getUpperBound(bucket);
+      }
+    }
+    return getUpperBound(BUCKET_COUNT - 1);
+  }
+
+  public long getCount() {
+    long total = 0;
+    for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+      total += counts.get(bucket);
+    }
+    return total;
+  }
+
+  public long getSumNanos() {
+    return sumNanos.sum();
+  }
+}
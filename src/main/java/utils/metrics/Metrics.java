@@ -0,0 +1,107 @@
+package utils.metrics;
+
+import utils.Params;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+  Counters and latency histograms recorded while requests are handled. Recording looks up an existing histogram or
+  counter and increments it, so it does not lock once a route has been seen. Routes are the paths endpoints were
+  registered with, not the requested paths, so the number of histograms stays small.
+ */
+public class Metrics {
+
+  public record RequestKey(String method, String route, int status) {}
+
+  private static final Map<RequestKey, LatencyHistogram> requests = new ConcurrentHashMap<>();
+  private static final Map<String, AtomicInteger> inFlight = new ConcurrentHashMap<>();
+
+  private static final LatencyHistogram dbConnect = new LatencyHistogram();
+  private static final LongAdder dbConnectErrors = new LongAdder();
+
+  private static final Map<String, LatencyHistogram> supabaseRequests = new ConcurrentHashMap<>();
+  private static final Map<String, LongAdder> supabaseErrors = new ConcurrentHashMap<>();
+
+  private static final TraceStore slowTraces = new TraceStore(
+      Params.getSlowTraceCapacity(),
+      Params.getSlowTraceMillis(),
+      Params.getSlowTraceSamplePercent() / 100.0
+  );
+
+  public static void recordRequest(String method, String route, int status, long nanos) {
+    getOrCreate(requests, new RequestKey(method, route, status)).record(nanos);
+  }
+
+  public static void requestStarted(String route) {
+    inFlight.computeIfAbsent(route, key -> new AtomicInteger()).incrementAndGet();
+  }
+
+  public static void requestFinished(String route) {
+    AtomicInteger count = inFlight.get(route);
+    if (count != null) {
+      count.decrementAndGet();
+    }
+  }
+
+  public static void recordDbConnect(long nanos, boolean success) {
+    dbConnect.record(nanos);
+    if (!success) {
+      dbConnectErrors.increment();
+    }
+  }
+
+  /**
+   * Records a call to the Supabase API. Failed calls are also counted as errors.
+   */
+  public static void recordSupabaseCall(String operation, long nanos, boolean success) {
+    getOrCreate(supabaseRequests, operation).record(nanos);
+    if (!success) {
+      LongAdder errors = supabaseErrors.get(operation);
+      if (errors == null) {
+        errors = supabaseErrors.computeIfAbsent(operation, key -> new LongAdder());
+      }
+      errors.increment();
+    }
+  }
+
+  // Avoids the lock taken by computeIfAbsent when the histogram already exists.
+  private static <K> LatencyHistogram getOrCreate(Map<K, LatencyHistogram> histograms, K key) {
+    LatencyHistogram histogram = histograms.get(key);
+    if (histogram == null) {
+      histogram = histograms.computeIfAbsent(key, k -> new LatencyHistogram());
+    }
+    return histogram;
+  }
+
+  public static Map<RequestKey, LatencyHistogram> getRequests() {
+    return requests;
+  }
+
+  public static Map<String, AtomicInteger> getInFlight() {
+    return inFlight;
+  }
+
+  public static LatencyHistogram getDbConnect() {
+    return dbConnect;
+  }
+
+  public static long getDbConnectErrors() {
+    return dbConnectErrors.sum();
+  }
+
+  public static TraceStore getSlowTraces() {
+    return slowTraces;
+  }
+
+  public static Map<String, LatencyHistogram> getSupabaseRequests() {
+    return supabaseRequests;
+  }
+
+  public static long getSupabaseErrors(String operation) {
+    LongAdder errors = supabaseErrors.get(operation);
+    return errors == null ? 0 : errors.sum();
+  }
+}
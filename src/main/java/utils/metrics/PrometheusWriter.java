@@ -0,0 +1,108 @@
+package utils.metrics;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Writes metrics in the Prometheus text exposition format. Labels are given as name and value pairs.
+ */
+public class PrometheusWriter {
+
+  public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+  // Histogram buckets in seconds.
+  private static final double[] BUCKET_SECONDS = {
+      0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10
+  };
+  private static final long[] BUCKET_MICROS = new long[BUCKET_SECONDS.length];
+
+  static {
+    for (int i = 0; i < BUCKET_SECONDS.length; i++) {
+      BUCKET_MICROS[i] = Math.round(BUCKET_SECONDS[i] * 1_000_000);
+    }
+  }
+
+  private final StringBuilder out = new StringBuilder();
+  private final Set<String> described = new HashSet<>();
+
+  /**
+   * Writes the help and type lines of a metric. Only the first call for each metric writes anything, since all
+   * samples of a metric have to follow its type line.
+   */
+  public PrometheusWriter describe(String name, String type, String help) {
+    if (described.add(name)) {
+      out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+      out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+    return this;
+  }
+
+  public PrometheusWriter sample(String name, double value, String... labels) {
+    out.append(name);
+    appendLabels(labels, null);
+    out.append(' ').append(formatValue(value)).append('\n');
+    return this;
+  }
+
+  /**
+   * Writes the buckets, sum and count of a histogram. The metric has to be described as a histogram first.
+   */
+  public PrometheusWriter histogram(String name, LatencyHistogram histogram, String... labels) {
+    long[] cumulative = histogram.getCumulativeCounts(BUCKET_MICROS);
+    long count = histogram.getCount();
+    for (int i = 0; i < BUCKET_SECONDS.length; i++) {
+      out.append(name).append("_bucket");
+      appendLabels(labels, formatValue(BUCKET_SECONDS[i]));
+      out.append(' ').append(Math.min(cumulative[i], count)).append('\n');
+    }
+    out.append(name).append("_bucket");
+    appendLabels(labels, "+Inf");
+    out.append(' ').append(count).append('\n');
+
+    sample(name + "_sum", histogram.getSumNanos() / 1e9, labels);
+    sample(name + "_count", count, labels);
+    return this;
+  }
+
+  private void appendLabels(String[] labels, String le) {
+    if (labels.length == 0 && le == null) {
+      return;
+    }
+    out.append('{');
+    for (int i = 0; i + 1 < labels.length; i += 2) {
+      if (i > 0) {
+        out.append(',');
+      }
+      out.append(labels[i]).append("=\"").append(escape(labels[i + 1])).append('"');
+    }
+    if (le != null) {
+      if (labels.length > 0) {
+        out.append(',');
+      }
+      out.append("le=\"").append(le).append('"');
+    }
+    out.append('}');
+  }
+
+  static String escape(String value) {
+    if (value == null) {
+      return "";
+    }
+    return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+  }
+
+  static String formatValue(double value) {
+    if (Double.isNaN(value)) {
+      return "NaN";
+    }
+    if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+      return Long.toString((long) value);
+    }
+    return Double.toString(value);
+  }
+
+  @Override
+  public String toString() {
+    return out.toString();
+  }
+}
@@ -0,0 +1,246 @@
+package utils.metrics;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/*
+  Timings of the phases of a single request, such as authentication, opening connections, queries, permission checks
+  and serialization. The trace of the request being handled is kept for the handler's thread, so code that runs while
+  handling it can add spans without the trace being passed through every call. When no request is being traced,
+  spans are not recorded.
+
+  Spans are summed by name and label for the Server-Timing header, and the first spans are also kept in order for the
+  log and for slow request traces.
+ */
+public class RequestTrace {
+
+  public static final String AUTH = "auth";
+  public static final String DB_ACQUIRE = "db.acquire";
+  public static final String DB_QUERY = "db.query";
+  public static final String PERMISSION = "permission";
+  public static final String SERIALIZE = "serialize";
+  public static final String COMPRESS = "compress";
+
+  // Requests with a query per row could otherwise keep thousands of spans.
+  static final int MAX_SPANS = 200;
+
+  private static final ThreadLocal<RequestTrace> current = new ThreadLocal<>();
+  private static final Span NO_SPAN = new Span(null, null, null);
+
+  public record SpanTiming(String name, String label, double startMillis, double durationMillis) {}
+
+  private record TimingKey(String name, String label) {}
+
+  /**
+   * A phase of the request, which ends when it is closed.
+   */
+  public static class Span implements AutoCloseable {
+    private final RequestTrace trace;
+    private final String name;
+    private final String label;
+    private final long startNanos;
+
+    private Span(RequestTrace trace, String name, String label) {
+      this.trace = trace;
+      this.name = name;
+      this.label = label;
+      this.startNanos = trace == null ? 0 : System.nanoTime();
+    }
+
+    @Override
+    public void close() {
+      if (trace != null) {
+        trace.add(name, label, startNanos, System.nanoTime() - startNanos);
+      }
+    }
+  }
+
+  private final String method;
+  private final String path;
+  private final long startedAt;
+  private final long startNanos;
+  private final List<SpanTiming> spans = new ArrayList<>();
+  private final Map<TimingKey, long[]> totals = new LinkedHashMap<>();
+  private final Map<String, Integer> statementCounts = new HashMap<>();
+  private final String route;
+  private int status;
+  private long durationNanos = -1;
+  private int droppedSpans;
+
+  RequestTrace(String method, String path, String route) {
+    this.method = method;
+    this.path = path;
+    this.route = route;
+    this.startedAt = System.currentTimeMillis();
+    this.startNanos = System.nanoTime();
+  }
+
+  /**
+   * Starts tracing a request on the current thread, replacing any trace left by a previous request.
+   */
+  public static RequestTrace start(String method, String path, String route) {
+    RequestTrace trace = new RequestTrace(method, path, route);
+    current.set(trace);
+    return trace;
+  }
+
+  /**
+   * @return Returns the trace of the request handled by the current thread, or null if it is not traced.
+   */
+  public static RequestTrace current() {
+    return current.get();
+  }
+
+  /**
+   * Stops adding spans to the current trace.
+   */
+  public static void detach() {
+    current.remove();
+  }
+
+  public static Span span(String name) {
+    return span(name, null);
+  }
+
+  /**
+   * Starts a span of the current request. Should be closed with try with resources.
+   */
+  public static Span span(String name, String label) {
+    RequestTrace trace = current.get();
+    if (trace == null) {
+      return NO_SPAN;
+    }
+    return new Span(trace, name, label);
+  }
+
+  synchronized void add(String name, String label, long spanStartNanos, long nanos) {
+    long[] total = totals.computeIfAbsent(new TimingKey(name, label), key -> new long[2]);
+    total[0] += nanos;
+    total[1]++;
+    if (spans.size() < MAX_SPANS) {
+      spans.add(new SpanTiming(name, label, toMillis(spanStartNanos - startNanos), toMillis(nanos)));
+    } else {
+      droppedSpans++;
+    }
+  }
+
+  /**
+   * Counts an execution of the statement while handling the request.
+   *
+   * @return Returns the number of times the statement has been run so far, including this one.
+   */
+  public synchronized int countStatement(String sql) {
+    return statementCounts.merge(sql, 1, Integer::sum);
+  }
+
+  /**
+   * Ends the trace with the status and duration of the response.
+   */
+  public synchronized void finish(int status, long durationNanos) {
+    this.status = status;
+    this.durationNanos = durationNanos;
+  }
+
+  /**
+   * @return Returns the value of the Server-Timing header, with the time of each phase so far and the total.
+   */
+  public synchronized String toServerTiming() {
+    StringBuilder header = new StringBuilder();
+    for (Map.Entry<TimingKey, long[]> entry : totals.entrySet()) {
+      TimingKey key = entry.getKey();
+      long[] total = entry.getValue();
+      header.append(key.name());
+      String description = key.label() == null ? "" : key.label();
+      if (total[1] > 1) {
+        description += (description.isEmpty() ? "" : " ") + "x" + total[1];
+      }
+      if (!description.isEmpty()) {
+        header.append(";desc=\"").append(description.replace("\\", "").replace("\"", "")).append('"');
+      }
+      header.append(";dur=").append(formatMillis(total[0])).append(", ");
+    }
+    header.append("total;dur=").append(formatMillis(getElapsedNanos()));
+    return header.toString();
+  }
+
+  /**
+   * @return Returns a single line of key value pairs with the request, its status and the total time of each phase.
+   */
+  public synchronized String toLogLine() {
+    StringBuilder line = new StringBuilder("request");
+    line.append(" method=").append(method);
+    line.append(" route=").append(route);
+    line.append(" status=").append(status);
+    line.append(" duration_ms=").append(formatMillis(getElapsedNanos()));
+    for (Map.Entry<TimingKey, long[]> entry : totals.entrySet()) {
+      TimingKey key = entry.getKey();
+      String name = key.label() == null ? key.name() : key.name() + "." + key.label();
+      line.append(' ').append(name).append("_ms=").append(formatMillis(entry.getValue()[0]));
+      if (entry.getValue()[1] > 1) {
+        line.append(' ').append(name).append("_count=").append(entry.getValue()[1]);
+      }
+    }
+    return line.toString();
+  }
+
+  private long getElapsedNanos() {
+    return durationNanos >= 0 ? durationNanos : System.nanoTime() - startNanos;
+  }
+
+  private static double toMillis(long nanos) {
+    return Math.round(nanos / 1000.0) / 1000.0;
+  }
+
+  private static String formatMillis(long nanos) {
+    return String.format(Locale.ROOT, "%.3f", nanos / 1_000_000.0);
+  }
+
+  public String getMethod() {
+    return method;
+  }
+
+  public String getPath() {
+    return path;
+  }
+
+  public String getRoute() {
+    return route;
+  }
+
+  public long getStartedAt() {
+    return startedAt;
+  }
+
+  public synchronized int getStatus() {
+    return status;
+  }
+
+  public synchronized double getDurationMillis() {
+    return toMillis(getElapsedNanos());
+  }
+
+  public synchronized List<SpanTiming> getSpans() {
+    return List.copyOf(spans);
+  }
+
+  public synchronized int getDroppedSpans() {
+    return droppedSpans;
+  }
+
+  /**
+   * @return Returns the statements that were run more than once, with the number of times they were run.
+   */
+  public synchronized Map<String, Integer> getRepeatedStatements() {
+    Map<String, Integer> repeated = new LinkedHashMap<>();
+    statementCounts.forEach((sql, count) -> {
+      if (count > 1) {
+        repeated.put(sql, count);
+      }
+    });
+    return repeated;
+  }
+}
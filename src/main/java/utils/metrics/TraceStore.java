@@ -0,0 +1,72 @@
+package utils.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/*
+  The most recent traces of slow requests. A sample of the requests that take longer than the threshold is written to
+  a fixed size ring, so the newest traces replace the oldest ones without locking or allocating.
+ */
+public class TraceStore {
+
+  private final AtomicReferenceArray<RequestTrace> traces;
+  private final AtomicLong next = new AtomicLong();
+  private final long slowNanos;
+  private final double sampleRate;
+
+  public TraceStore(int capacity, long slowMillis, double sampleRate) {
+    this.traces = new AtomicReferenceArray<>(capacity);
+    this.slowNanos = slowMillis * 1_000_000;
+    this.sampleRate = sampleRate;
+  }
+
+  /**
+   * Keeps the trace if the request was slow and is part of the sample.
+   *
+   * @return Returns true if the trace was kept.
+   */
+  public boolean offer(RequestTrace trace, long durationNanos) {
+    if (durationNanos < slowNanos || traces.length() == 0) {
+      return false;
+    }
+    if (sampleRate < 1 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+      return false;
+    }
+    traces.set((int) (next.getAndIncrement() % traces.length()), trace);
+    return true;
+  }
+
+  /**
+   * @return Returns up to limit traces, newest first.
+   */
+  public List<RequestTrace> getTraces(int limit) {
+    long end = next.get();
+    long start = Math.max(0, end - Math.min(limit, traces.length()));
+    List<RequestTrace> result = new ArrayList<>();
+    for (long i = end - 1; i >= start; i--) {
+      RequestTrace trace = traces.get((int) (i % traces.length()));
+      if (trace != null) {
+        result.add(trace);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * @return Returns the number of traces kept since startup, including those that were since replaced.
+   */
+  public long getTotalKept() {
+    return next.get();
+  }
+
+  public long getSlowMillis() {
+    return slowNanos / 1_000_000;
+  }
+
+  public double getSampleRate() {
+    return sampleRate;
+  }
+}
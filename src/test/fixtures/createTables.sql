@@ -75,6 +75,7 @@ create table if not exists event_time (
   start_time timestamp with time zone null,
   end_time timestamp with time zone null,
   day_of_week dayofweek null,
+  week_of_month integer null,
   constraint event_time_pkey primary key (id),
   constraint event_time_event_id_fkey foreign KEY (event_id) references events (id)
 );
@@ -150,3 +151,39 @@ create table  if not exists group_admin_data (
 
 
 
+
+create table if not exists import_checkpoint (
+  payload_hash character varying not null,
+  entity_type character varying not null,
+  entity_offset integer not null,
+  updated_at timestamp with time zone default now(),
+  constraint import_checkpoint_pkey primary key (payload_hash)
+);
+
+create index if not exists groups_lower_name_idx on groups (lower(name));
+create index if not exists location_group_map_group_id_idx on location_group_map (group_id);
+create index if not exists event_time_event_id_idx on event_time (event_id);
+
+create table if not exists change_log (
+  version bigserial not null,
+  entity_type character varying not null,
+  entity_id integer not null,
+  operation character varying not null,
+  changed_at timestamp with time zone not null default now(),
+  constraint change_log_pkey primary key (version)
+);
+
+create index if not exists change_log_entity_idx on change_log (entity_type, entity_id, version);
+
+create table if not exists change_log_horizon (
+  id integer not null default 1,
+  version bigint not null default 0,
+  constraint change_log_horizon_pkey primary key (id)
+);
+
+create table if not exists data_versions (
+  data_table character varying not null,
+  version bigint not null default 0,
+  modified_at timestamp with time zone not null default now(),
+  constraint data_versions_pkey primary key (data_table)
+);
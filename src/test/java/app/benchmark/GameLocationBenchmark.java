@@ -0,0 +1,116 @@
+package app.benchmark;
+
+import app.data.Convention;
+import app.data.GameRestaurant;
+import app.data.GameStore;
+import app.result.GameLocationData;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures extending conventions with Convention.addDays and serializing the game location data, with the given number
+ * of conventions, game stores and game restaurants.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GameLocationBenchmark {
+
+  private static final String[] CITIES = {"Arlington", "Alexandria", "Fairfax", "Rockville", "Washington", "Reston"};
+  private static final LocalDate FIRST_DAY = LocalDate.of(2025, 1, 1);
+
+  @Param({"10", "100", "1000", "10000", "100000"})
+  int size;
+
+  private String[] firstDays;
+  private int[] extraDays;
+  private GameLocationData locationData;
+  private ObjectMapper mapper;
+
+  @Setup
+  public void setup() {
+    Random random = new Random(42);
+    firstDays = new String[size];
+    extraDays = new int[size];
+    Map<Integer, Convention> conventions = new LinkedHashMap<>();
+    Map<Integer, GameStore> stores = new LinkedHashMap<>();
+    Map<Integer, GameRestaurant> restaurants = new LinkedHashMap<>();
+    for (int id = 1; id <= size; id++) {
+      int index = id - 1;
+      firstDays[index] = FIRST_DAY.plusDays(random.nextInt(365)).toString();
+      // Most conventions last a weekend, and a few last a week.
+      extraDays[index] = random.nextInt(10) == 0 ? 6 : 1 + random.nextInt(2);
+      String city = CITIES[random.nextInt(CITIES.length)];
+
+      Convention convention = createConvention(id, firstDays[index]);
+      convention.addDays(extraDays[index]);
+      conventions.put(id, convention);
+
+      GameStore store = new GameStore();
+      store.setId(id);
+      store.setName("Game Store " + id);
+      store.setUrl("https://www.example.com/stores/" + id);
+      store.setLocation(id + " Main St, " + city + ", VA 22201");
+      stores.put(id, store);
+
+      GameRestaurant restaurant = new GameRestaurant();
+      restaurant.setId(id);
+      restaurant.setName("Board Game Cafe " + id);
+      restaurant.setUrl("https://www.example.com/restaurants/" + id);
+      restaurant.setLocation(id + " Market St, " + city + ", VA 22201");
+      restaurants.put(id, restaurant);
+    }
+
+    locationData = new GameLocationData();
+    locationData.setConventions(conventions);
+    locationData.setGameStores(stores);
+    locationData.setGameRestaurants(restaurants);
+    mapper = new ObjectMapper();
+  }
+
+  private static Convention createConvention(int id, String firstDay) {
+    Convention convention = new Convention();
+    convention.setId(id);
+    convention.setName("Board Game Convention " + id);
+    convention.setUrl("https://www.example.com/conventions/" + id);
+    convention.setDays(new String[]{firstDay});
+    return convention;
+  }
+
+  // Each day after the first is added on its own, which copies the days every time.
+  @Benchmark
+  public void addDays(Blackhole blackhole) {
+    for (int i = 0; i < size; i++) {
+      Convention convention = createConvention(i + 1, firstDays[i]);
+      for (int day = 0; day < extraDays[i]; day++) {
+        convention.addDays(1);
+      }
+      blackhole.consume(convention);
+    }
+  }
+
+  @Benchmark
+  public byte[] serialize() throws Exception {
+    return mapper.writeValueAsBytes(locationData);
+  }
+}
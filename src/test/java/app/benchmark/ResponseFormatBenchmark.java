@@ -0,0 +1,84 @@
+package app.benchmark;
+
+import app.http.ResponseFormat;
+import app.result.GroupSearchResult;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the encode time of each response format for a search result with the given number of groups. The
+ * gc.alloc.rate.norm result of the allocation profiler follows the size of the payload.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponseFormatBenchmark {
+
+  private static final String[] DAYS = {"monday", "tuesday", "wednesday", "thursday", "friday", "saturday", "sunday"};
+  private static final String[] CITIES = {"Arlington", "Alexandria", "Fairfax", "Rockville", "Washington", "Reston"};
+
+  @Param({"JSON", "CBOR", "SMILE"})
+  ResponseFormat format;
+
+  @Param({"100", "500", "5000"})
+  int groups;
+
+  private GroupSearchResult result;
+  private ObjectMapper jsonMapper;
+
+  static GroupSearchResult createSearchResult(int groups) {
+    Random random = new Random(42);
+    GroupSearchResult result = new GroupSearchResult();
+    int eventId = 0;
+    for (int groupId = 1; groupId <= groups; groupId++) {
+      String city = CITIES[random.nextInt(CITIES.length)];
+      result.addGroup(
+          groupId,
+          "Board Game Group " + groupId,
+          "https://www.meetup.com/board-game-group-" + groupId + "/",
+          "Come play board games with us. New players are always welcome.",
+          city
+      );
+      int events = 1 + random.nextInt(4);
+      for (int i = 0; i < events; i++) {
+        result.addEvent(
+            groupId,
+            ++eventId,
+            "Game Night",
+            "Weekly open gaming. Bring a game or play one of ours.",
+            DAYS[random.nextInt(DAYS.length)],
+            "123 Main St, " + city + ", VA 22201",
+            city
+        );
+      }
+    }
+    return result;
+  }
+
+  @Setup
+  public void setup() {
+    result = createSearchResult(groups);
+    jsonMapper = new ObjectMapper();
+  }
+
+  @Benchmark
+  public byte[] serialize() throws Exception {
+    return format.serialize(jsonMapper, result);
+  }
+}
@@ -0,0 +1,87 @@
+package app.benchmark;
+
+import app.data.Event;
+import app.groups.data.Group;
+import app.result.GroupSearchResult;
+import app.result.groupPage.GroupPageData;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how search results are assembled from query rows, sorted, turned into group pages and serialized, for
+ * search results of increasing size. The results use the same synthetic groups as {@link ResponseFormatBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchResultBenchmark {
+
+  @Param({"10", "100", "1000", "10000", "100000"})
+  int groups;
+
+  private GroupSearchResult result;
+  private Group[] groupData;
+  private ObjectMapper mapper;
+
+  @Setup
+  public void setup() {
+    result = ResponseFormatBenchmark.createSearchResult(groups);
+    groupData = result.getGroupData().values().toArray(new Group[0]);
+    mapper = new ObjectMapper();
+  }
+
+  // GroupSearchResult.addGroup and addEvent, called for each row of the search query.
+  @Benchmark
+  public GroupSearchResult addGroupsAndEvents() {
+    return ResponseFormatBenchmark.createSearchResult(groups);
+  }
+
+  // Group.addEvent and addCity on their own, which copy the array on every call.
+  @Benchmark
+  public void addEventsAndCities(Blackhole blackhole) {
+    for (Group source : groupData) {
+      Group group = new Group();
+      for (String city : source.getCities()) {
+        group.addCity(city);
+      }
+      for (Event event : source.getEvents()) {
+        group.addEvent(event);
+        group.addCity(source.getCities()[0]);
+      }
+      blackhole.consume(group);
+    }
+  }
+
+  @Benchmark
+  public Object getGroupData() {
+    return result.getGroupData();
+  }
+
+  @Benchmark
+  public void createGroupPages(Blackhole blackhole) {
+    for (Group group : groupData) {
+      blackhole.consume(GroupPageData.createFromSearchResult(group));
+    }
+  }
+
+  @Benchmark
+  public byte[] serialize() throws Exception {
+    return mapper.writeValueAsBytes(result);
+  }
+}
@@ -0,0 +1,492 @@
+package app.database.utils.local;
+
+import app.data.Convention;
+import app.data.Event;
+import app.data.GameRestaurant;
+import app.data.GameStore;
+import app.data.LocationTag;
+import app.database.utils.DbUtils;
+import app.groups.data.Group;
+import app.request.BulkUpdateRequest;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import database.utils.LocalConnectionProvider;
+import database.utils.LocalDevConnectionProvider;
+import service.BulkUpdateService;
+import service.user.UserService;
+
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Generates listing data in the format of src/test/fixtures/listingData.json at a configurable scale, so benchmarks
+ * and load tests can run against more data than the fixture has. The same options and seed always generate the same
+ * data.
+ *
+ * <p>Groups are spread over the cities with a Zipf distribution, so a few cities have most of the groups as they do in
+ * the fixture, and most groups have no events or one event while a few have many. Each section is generated from its
+ * own random sequence, so changing the number of items in one section does not change the others.
+ *
+ * <p>Run with {@code java -cp <test classpath> app.database.utils.local.SyntheticDataGenerator [option=value ...]}.
+ * The options are the fields of {@link Options}, and {@code scale=10} multiplies the size of the fixture. With
+ * {@code out=<file>} the data is written to a JSON file, which can be sent as the data of /admin/saveData, and otherwise
+ * it is loaded into the local database, like {@link InitLocalDb}.
+ */
+public class SyntheticDataGenerator {
+
+  private static final String[] DMV_CITIES = {
+      "Arlington", "Alexandria", "Washington", "Rockville", "Fairfax", "Silver Spring", "Gaithersburg", "Woodbridge",
+      "Ashburn", "Falls Church", "Reston", "Herndon", "Manassas", "Bowie", "Frederick", "Leesburg", "Germantown",
+      "College Park", "Chantilly", "Springfield", "Hyattsville", "Greenbelt", "Olney", "Dulles", "Lake Ridge",
+      "Purcellville", "Brentwood", "Charles Town", "Brunswick", "Sheperdstown", "Vienna", "Laurel"
+  };
+  private static final String[] STATES = {"VA", "MD", "DC", "WV"};
+  private static final String[] DAYS = {"Saturday", "Monday", "Wednesday", "Thursday", "Sunday", "Friday", "Tuesday"};
+  // Weights of DAYS, taken from the events in the fixture.
+  private static final int[] DAY_WEIGHTS = {9, 6, 6, 6, 4, 3, 3};
+  private static final String[] STREETS = {
+      "Main St", "Duke St", "Wilson Blvd", "Connecticut Ave NW", "Rockville Pike", "Lee Hwy", "Market St", "Church St",
+      "Elm St", "Georgia Ave", "Columbia Pike", "King St"
+  };
+  private static final String[] ADJECTIVES = {
+      "Friendly", "Casual", "Weekly", "Strategy", "Family", "Social", "Competitive", "Relaxed", "Late Night", "Euro"
+  };
+  private static final String[] GROUP_NOUNS = {
+      "Board Gamers", "Tabletop Gaming Group", "Game Night", "Meeples", "Board Game Club", "Gaming Society",
+      "Dice Rollers", "Card and Board Games"
+  };
+  private static final String[] EVENT_NAMES = {
+      "Game Night", "Board Game Afternoon", "Open Gaming", "Strategy Game Night", "Learn to Play", "Games and Drinks",
+      "Family Game Day", "Euro Game Night"
+  };
+  private static final String[] VENUE_NOUNS = {"Games", "Hobbies", "Comics and Games", "Game Shop", "Game Cafe"};
+  private static final String[] CONVENTION_NOUNS = {"Con", "Game Fest", "Tabletop Weekend", "Gaming Expo", "Game Days"};
+  private static final String SUMMARY =
+      "Come play board games with us. We play everything from party games to heavy euros, and new players are "
+          + "always welcome. Bring a game or play one of ours.";
+
+  /**
+   * Sizes of the generated data. The defaults are about the size of the fixture.
+   */
+  public static class Options {
+    public long seed = 1;
+    public int groups = 40;
+    // Average number of events per group.
+    public double eventsPerGroup = 0.9;
+    public int cities = 32;
+    public int locationTags = 1;
+    public int conventions = 5;
+    // Average number of days of each convention.
+    public double conventionDays = 2.5;
+    public int stores = 15;
+    public int restaurants = 4;
+    // Conventions are on days in the year from this day.
+    public LocalDate firstDay = LocalDate.of(2025, 1, 1);
+
+    /**
+     * @return Returns options for the given multiple of the fixture's size.
+     */
+    public static Options scaled(double scale) {
+      Options options = new Options();
+      options.groups = (int) Math.round(options.groups * scale);
+      options.cities = (int) Math.round(options.cities * Math.max(1, Math.sqrt(scale)));
+      options.locationTags = (int) Math.round(options.locationTags * Math.max(1, Math.sqrt(scale)));
+      options.conventions = (int) Math.round(options.conventions * scale);
+      options.stores = (int) Math.round(options.stores * scale);
+      options.restaurants = (int) Math.round(options.restaurants * scale);
+      return options;
+    }
+  }
+
+  private final Options options;
+  private final String[] cities;
+  private final double[] cityWeights;
+
+  public SyntheticDataGenerator(Options options) {
+    this.options = options;
+    this.cities = createCities(options.cities);
+    this.cityWeights = zipfWeights(cities.length);
+  }
+
+  /**
+   * @return Returns all of the data. Use writeJson for data that should not be kept in memory.
+   */
+  public BulkUpdateRequest generate() {
+    List<Group> groups = new ArrayList<>();
+    List<Convention> conventions = new ArrayList<>();
+    List<GameStore> stores = new ArrayList<>();
+    List<GameRestaurant> restaurants = new ArrayList<>();
+    List<LocationTag> locationTags = new ArrayList<>();
+    forEachGroup(groups::add);
+    forEachConvention(conventions::add);
+    forEachStore(stores::add);
+    forEachRestaurant(restaurants::add);
+    forEachLocationTag(locationTags::add);
+
+    BulkUpdateRequest request = new BulkUpdateRequest();
+    request.setGroups(groups.toArray(new Group[0]));
+    request.setConventions(conventions.toArray(new Convention[0]));
+    request.setGameStores(stores.toArray(new GameStore[0]));
+    request.setGameRestaurants(restaurants.toArray(new GameRestaurant[0]));
+    request.setLocationTags(locationTags.toArray(new LocationTag[0]));
+    return request;
+  }
+
+  /**
+   * Writes the data as JSON one item at a time, so the data is never held in memory.
+   */
+  public void writeJson(OutputStream out) throws IOException {
+    try (JsonGenerator json = new JsonFactory().createGenerator(out, JsonEncoding.UTF8)) {
+      json.writeStartObject();
+
+      json.writeArrayFieldStart("conventions");
+      forEachConvention(convention -> write(json, () -> writeConvention(json, convention)));
+      json.writeEndArray();
+
+      json.writeArrayFieldStart("gameRestaurants");
+      forEachRestaurant(restaurant -> write(json, () -> writeVenue(
+          json, restaurant.getId(), restaurant.getUrl(), restaurant.getLocation(), restaurant.getName()
+      )));
+      json.writeEndArray();
+
+      json.writeArrayFieldStart("gameStores");
+      forEachStore(store -> write(json, () -> writeVenue(
+          json, store.getId(), store.getUrl(), store.getLocation(), store.getName()
+      )));
+      json.writeEndArray();
+
+      json.writeArrayFieldStart("groups");
+      forEachGroup(group -> write(json, () -> writeGroup(json, group)));
+      json.writeEndArray();
+
+      json.writeArrayFieldStart("locationTags");
+      forEachLocationTag(tag -> write(json, () -> writeLocationTag(json, tag)));
+      json.writeEndArray();
+
+      json.writeEndObject();
+    }
+  }
+
+  /**
+   * Replaces the data in the database with generated data, imported in chunks like a large bulk update.
+   */
+  public void load(LocalConnectionProvider connectionProvider, int chunkSize) throws Exception {
+    DbUtils.createTables(connectionProvider.getDatabaseConnection());
+    BulkUpdateService bulkUpdateService = new BulkUpdateService();
+    bulkUpdateService.deleteUsers(connectionProvider);
+    bulkUpdateService.bulkUpdateInChunks(generate(), chunkSize, connectionProvider);
+
+    UserService userService =
+        new UserService(UserService.DataProvider.createDataProvider(connectionProvider.getDatabaseConnection()));
+    userService.createAdmin(DbUtils.TEST_USER_EMAIL);
+  }
+
+  void forEachGroup(Consumer<Group> consumer) {
+    Random random = new Random(options.seed);
+    int eventId = 0;
+    for (int id = 1; id <= options.groups; id++) {
+      String city = pickCity(random);
+      Group group = new Group();
+      group.setId(id);
+      group.setName(city + " " + pick(random, ADJECTIVES) + " " + pick(random, GROUP_NOUNS));
+      group.setUrl("https://www.meetup.com/synthetic-group-" + id + "/");
+      group.setSummary(SUMMARY);
+
+      // Event names have to be unique within a group.
+      Set<String> eventNames = new LinkedHashSet<>();
+      List<Event> events = new ArrayList<>();
+      Set<String> groupCities = new LinkedHashSet<>();
+      groupCities.add(city);
+      int eventCount = countEvents(random);
+      for (int i = 0; i < eventCount; i++) {
+        // Most events are in the group's city.
+        String eventCity = random.nextInt(4) == 0 ? pickCity(random) : city;
+        String day = DAYS[pickWeighted(random, DAY_WEIGHTS)];
+        String name = day + " " + pick(random, EVENT_NAMES);
+        if (!eventNames.add(name)) {
+          name = name + " " + (i + 1);
+          eventNames.add(name);
+        }
+        Event event = new Event();
+        event.setId(++eventId);
+        event.setName(name);
+        event.setDay(day);
+        event.setLocation(createAddress(random, eventCity));
+        event.setSummary(SUMMARY);
+        events.add(event);
+        groupCities.add(eventCity);
+      }
+      group.setEvents(events.toArray(new Event[0]));
+      group.setCities(groupCities.toArray(new String[0]));
+      consumer.accept(group);
+    }
+  }
+
+  void forEachConvention(Consumer<Convention> consumer) {
+    Random random = new Random(options.seed + 1);
+    for (int id = 1; id <= options.conventions; id++) {
+      LocalDate start = options.firstDay.plusDays(random.nextInt(365));
+      // Conventions last at least a day, and most last a weekend.
+      int days = 1 + (int) Math.round(-Math.log(1 - random.nextDouble()) * (options.conventionDays - 1));
+      String[] dates = new String[days];
+      for (int i = 0; i < days; i++) {
+        LocalDate date = start.plusDays(i);
+        dates[i] = date.getMonthValue() + "/" + date.getDayOfMonth() + "/" + date.getYear();
+      }
+      Convention convention = new Convention();
+      convention.setId(id);
+      convention.setName(pickCity(random) + " " + pick(random, CONVENTION_NOUNS) + " " + id);
+      convention.setUrl("https://www.example.com/conventions/" + id);
+      convention.setDays(dates);
+      consumer.accept(convention);
+    }
+  }
+
+  void forEachStore(Consumer<GameStore> consumer) {
+    Random random = new Random(options.seed + 2);
+    for (int id = 1; id <= options.stores; id++) {
+      String city = pickCity(random);
+      GameStore store = new GameStore();
+      store.setId(id);
+      store.setName(city + " " + pick(random, VENUE_NOUNS) + " " + id);
+      store.setUrl("https://www.example.com/stores/" + id);
+      store.setLocation(createAddress(random, city));
+      consumer.accept(store);
+    }
+  }
+
+  void forEachRestaurant(Consumer<GameRestaurant> consumer) {
+    Random random = new Random(options.seed + 3);
+    for (int id = 1; id <= options.restaurants; id++) {
+      String city = pickCity(random);
+      GameRestaurant restaurant = new GameRestaurant();
+      restaurant.setId(id);
+      restaurant.setName("Board Game Cafe " + id);
+      restaurant.setUrl("https://www.example.com/restaurants/" + id);
+      restaurant.setLocation(createAddress(random, city));
+      consumer.accept(restaurant);
+    }
+  }
+
+  // Each tag covers a region of neighbouring cities, and the first tag covers all of them, like the DMV tag.
+  void forEachLocationTag(Consumer<LocationTag> consumer) {
+    Random random = new Random(options.seed + 4);
+    for (int i = 0; i < options.locationTags; i++) {
+      LocationTag tag = new LocationTag();
+      if (i == 0) {
+        tag.setName("DMV");
+        tag.setLocations(cities.clone());
+      } else {
+        int size = 1 + random.nextInt(Math.max(1, cities.length / 4));
+        int start = random.nextInt(cities.length);
+        String[] locations = new String[Math.min(size, cities.length)];
+        for (int j = 0; j < locations.length; j++) {
+          locations[j] = cities[(start + j) % cities.length];
+        }
+        tag.setName("Region " + i);
+        tag.setLocations(locations);
+      }
+      consumer.accept(tag);
+    }
+  }
+
+  // Most groups have no events or one event, and a few have many.
+  private int countEvents(Random random) {
+    if (options.eventsPerGroup <= 0 || random.nextDouble() < 0.45) {
+      return 0;
+    }
+    double mean = options.eventsPerGroup / 0.55;
+    return 1 + (int) (-Math.log(1 - random.nextDouble()) * Math.max(0, mean - 1));
+  }
+
+  private String pickCity(Random random) {
+    double target = random.nextDouble() * cityWeights[cityWeights.length - 1];
+    int low = 0;
+    int high = cityWeights.length - 1;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (cityWeights[mid] < target) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return cities[low];
+  }
+
+  private static String createAddress(Random random, String city) {
+    String state = STATES[Math.floorMod(city.hashCode(), STATES.length)];
+    int zipCode = 20000 + Math.floorMod(city.hashCode(), 3000);
+    return (1 + random.nextInt(9999)) + " " + pick(random, STREETS) + ", " + city + ", " + state + " " + zipCode;
+  }
+
+  private static String[] createCities(int count) {
+    String[] cities = new String[Math.max(1, count)];
+    for (int i = 0; i < cities.length; i++) {
+      cities[i] = i < DMV_CITIES.length ? DMV_CITIES[i] : DMV_CITIES[i % DMV_CITIES.length] + " " + (i / DMV_CITIES.length + 1);
+    }
+    return cities;
+  }
+
+  // Cumulative weights, where the city at rank n has a weight of 1 / n.
+  private static double[] zipfWeights(int count) {
+    double[] weights = new double[count];
+    double total = 0;
+    for (int i = 0; i < count; i++) {
+      total += 1.0 / (i + 1);
+      weights[i] = total;
+    }
+    return weights;
+  }
+
+  private static int pickWeighted(Random random, int[] weights) {
+    int total = 0;
+    for (int weight : weights) {
+      total += weight;
+    }
+    int target = random.nextInt(total);
+    for (int i = 0; i < weights.length; i++) {
+      target -= weights[i];
+      if (target < 0) {
+        return i;
+      }
+    }
+    return weights.length - 1;
+  }
+
+  private static String pick(Random random, String[] values) {
+    return values[random.nextInt(values.length)];
+  }
+
+  private interface JsonWriter {
+    void write() throws IOException;
+  }
+
+  private static void write(JsonGenerator json, JsonWriter writer) {
+    try {
+      json.writeStartObject();
+      writer.write();
+      json.writeEndObject();
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  private static void writeConvention(JsonGenerator json, Convention convention) throws IOException {
+    json.writeArrayFieldStart("days");
+    for (String day : convention.getDays()) {
+      json.writeString(day);
+    }
+    json.writeEndArray();
+    json.writeNumberField("id", convention.getId());
+    json.writeStringField("url", convention.getUrl());
+    json.writeStringField("name", convention.getName());
+  }
+
+  private static void writeVenue(JsonGenerator json, int id, String url, String location, String name)
+      throws IOException {
+    json.writeNumberField("id", id);
+    json.writeStringField("url", url);
+    json.writeStringField("location", location);
+    json.writeStringField("name", name);
+  }
+
+  private static void writeGroup(JsonGenerator json, Group group) throws IOException {
+    json.writeArrayFieldStart("events");
+    for (Event event : group.getEvents()) {
+      json.writeStartObject();
+      json.writeStringField("day", event.getDay());
+      json.writeNumberField("id", event.getId());
+      json.writeStringField("location", event.getLocation());
+      json.writeStringField("summary", event.getSummary());
+      json.writeStringField("name", event.getName());
+      json.writeEndObject();
+    }
+    json.writeEndArray();
+    json.writeNumberField("id", group.getId());
+    json.writeStringField("url", group.getUrl());
+    json.writeArrayFieldStart("cities");
+    for (String city : group.getCities()) {
+      json.writeString(city);
+    }
+    json.writeEndArray();
+    json.writeStringField("summary", group.getSummary());
+    json.writeStringField("name", group.getName());
+  }
+
+  private static void writeLocationTag(JsonGenerator json, LocationTag tag) throws IOException {
+    json.writeStringField("name", tag.getName());
+    json.writeArrayFieldStart("locations");
+    for (String location : tag.getLocations()) {
+      json.writeString(location);
+    }
+    json.writeEndArray();
+  }
+
+  static Map<String, String> parseArguments(String[] args) {
+    Map<String, String> values = new HashMap<>();
+    for (String arg : args) {
+      String[] parts = arg.split("=", 2);
+      if (parts.length != 2) {
+        throw new IllegalArgumentException("Expected option=value: " + arg);
+      }
+      values.put(parts[0], parts[1]);
+    }
+    return values;
+  }
+
+  static Options parseOptions(Map<String, String> arguments) {
+    Map<String, String> values = new HashMap<>(arguments);
+    Options options = values.containsKey("scale")
+        ? Options.scaled(Double.parseDouble(values.remove("scale")))
+        : new Options();
+    values.remove("out");
+    values.remove("chunkSize");
+    for (Map.Entry<String, String> value : values.entrySet()) {
+      String v = value.getValue();
+      switch (value.getKey()) {
+        case "seed" -> options.seed = Long.parseLong(v);
+        case "groups" -> options.groups = Integer.parseInt(v);
+        case "eventsPerGroup" -> options.eventsPerGroup = Double.parseDouble(v);
+        case "cities" -> options.cities = Integer.parseInt(v);
+        case "locationTags" -> options.locationTags = Integer.parseInt(v);
+        case "conventions" -> options.conventions = Integer.parseInt(v);
+        case "conventionDays" -> options.conventionDays = Double.parseDouble(v);
+        case "stores" -> options.stores = Integer.parseInt(v);
+        case "restaurants" -> options.restaurants = Integer.parseInt(v);
+        case "firstDay" -> options.firstDay = LocalDate.parse(v);
+        default -> throw new IllegalArgumentException("Unknown option: " + value.getKey());
+      }
+    }
+    return options;
+  }
+
+  public static void main(String[] args) throws Exception {
+    Map<String, String> values = parseArguments(args);
+    SyntheticDataGenerator generator = new SyntheticDataGenerator(parseOptions(values));
+
+    String out = values.get("out");
+    if (out != null) {
+      try (OutputStream stream = new BufferedOutputStream(new FileOutputStream(out))) {
+        generator.writeJson(stream);
+      }
+      System.out.println("Wrote synthetic data to " + out);
+    } else {
+      int chunkSize = Integer.parseInt(values.getOrDefault("chunkSize", "500"));
+      generator.load(new LocalDevConnectionProvider(), chunkSize);
+      System.out.println("Loaded synthetic data into the local database");
+    }
+  }
+}
@@ -0,0 +1,63 @@
+package app.service;
+
+import app.database.utils.DbUtils;
+import app.database.utils.IntegrationTestConnectionProvider;
+import app.request.BulkUpdateRequest;
+import app.result.GroupSearchResult;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import database.imports.ImportCheckpoint;
+import database.imports.ImportCheckpointRepository;
+import database.imports.ImportStage;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import service.BulkUpdateService;
+import service.read.SearchService;
+
+import java.io.File;
+import java.sql.Connection;
+import java.util.LinkedHashMap;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BulkUpdateServiceIntegrationTest {
+
+  private static IntegrationTestConnectionProvider testConnectionProvider;
+  private static BulkUpdateRequest data;
+
+  @BeforeAll
+  static void setup() {
+    testConnectionProvider = new IntegrationTestConnectionProvider();
+    try {
+      Connection conn = testConnectionProvider.getDatabaseConnection();
+      DbUtils.createTables(conn);
+      data = new ObjectMapper().readValue(new File("src/test/fixtures/listingData.json"), BulkUpdateRequest.class);
+    } catch (Exception e) {
+      e.printStackTrace();
+      fail("Error initializing database:" + e.getMessage());
+    }
+  }
+
+  @Test
+  public void testChunkedImport_importsAllData_andIsNotRepeated() throws Exception {
+    BulkUpdateService bulkUpdateService = new BulkUpdateService();
+    bulkUpdateService.bulkUpdateInChunks(data, 5, testConnectionProvider);
+
+    SearchService searchService = new SearchService();
+    GroupSearchResult result = searchService.getGroups(new LinkedHashMap<>(), testConnectionProvider);
+    assertEquals(39, result.countGroups());
+    assertEquals(37, result.countEvents());
+
+    Optional<ImportCheckpoint> checkpoint = new ImportCheckpointRepository().getCheckpoint(
+        BulkUpdateService.getPayloadHash(data),
+        testConnectionProvider.getDatabaseConnection()
+    );
+    assertTrue(checkpoint.isPresent());
+    assertEquals(ImportStage.COMPLETE, checkpoint.get().stage());
+
+    bulkUpdateService.bulkUpdateInChunks(data, 5, testConnectionProvider);
+    GroupSearchResult repeated = searchService.getGroups(new LinkedHashMap<>(), testConnectionProvider);
+    assertEquals(39, repeated.countGroups());
+    assertEquals(37, repeated.countEvents());
+  }
+}
@@ -0,0 +1,152 @@
+package app.service;
+
+import app.database.utils.DbUtils;
+import app.data.Event;
+import app.database.utils.IntegrationTestConnectionProvider;
+import app.groups.data.Group;
+import app.result.error.GroupNotFoundError;
+import app.utils.CreateGroupUtils;
+import database.content.EventRepository;
+import database.content.GroupsRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import service.calendar.CalendarFeed;
+import service.calendar.CalendarService;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CalendarServiceIntegrationTest {
+
+  private static IntegrationTestConnectionProvider testConnectionProvider;
+  private static CalendarService calendarService;
+
+  @BeforeAll
+  static void setup() {
+    testConnectionProvider = new IntegrationTestConnectionProvider();
+    try {
+      Connection conn = testConnectionProvider.getDatabaseConnection();
+      DbUtils.createTables(conn);
+      DbUtils.initializeData(testConnectionProvider);
+      calendarService = new CalendarService();
+    } catch (Exception e) {
+      e.printStackTrace();
+      fail("Error initializing database:" + e.getMessage());
+    }
+  }
+
+  private String writeCalendar(CalendarFeed feed) throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    feed.write(out);
+    return out.toString(StandardCharsets.UTF_8);
+  }
+
+  @Test
+  public void testAreaCalendar_hasRecurringEvents() throws Exception {
+    CalendarFeed feed = calendarService.getAreaCalendar("dmv", testConnectionProvider);
+    String calendar = writeCalendar(feed);
+
+    assertTrue(feed.countEvents() > 0);
+    assertTrue(calendar.startsWith("BEGIN:VCALENDAR\r\n"));
+    assertTrue(calendar.endsWith("END:VCALENDAR\r\n"));
+    assertTrue(calendar.contains("RRULE:FREQ=WEEKLY;BYDAY="));
+    for (String line : calendar.split("\r\n")) {
+      assertTrue(line.getBytes(StandardCharsets.UTF_8).length <= 75, line);
+    }
+  }
+
+  @Test
+  public void testCalendarETag_sameForSameData() throws Exception {
+    CalendarFeed first = calendarService.getAreaCalendar("dmv", testConnectionProvider);
+    CalendarFeed second = calendarService.getAreaCalendar("dmv", testConnectionProvider);
+
+    assertEquals(writeCalendar(first), writeCalendar(second));
+    assertEquals(first.getETag(), second.getETag());
+    assertTrue(first.getETag().startsWith("\""));
+  }
+
+  @Test
+  public void testCalendar_multiDayEventHasUidPerDay() throws Exception {
+    Group group = new Group();
+    group.setId(1);
+    group.setName("Game Group");
+    group.setUrl("https://www.example.com/group");
+    for (String day : new String[]{"Wednesday", "Monday"}) {
+      Event event = new Event();
+      event.setId(7);
+      event.setName("Game Night");
+      event.setDay(day);
+      event.setLocation("123 Main St, Arlington, VA 22201");
+      group.addEvent(event);
+    }
+    String calendar = writeCalendar(new CalendarFeed("Game Group", List.of(group)));
+
+    List<String> uids = new ArrayList<>();
+    for (String line : calendar.split("\r\n")) {
+      if (line.startsWith("UID:")) {
+        uids.add(line);
+      }
+    }
+    assertEquals(
+        List.of("UID:event-7-monday-group-1@dmvboardgames.com", "UID:event-7-wednesday-group-1@dmvboardgames.com"),
+        uids
+    );
+  }
+
+  @Test
+  public void testAreaCalendar_multiDayEventOnEachDay() throws Exception {
+    Connection conn = testConnectionProvider.getDatabaseConnection();
+    Group group = CreateGroupUtils.createGroupObject();
+    group.setCities(new String[]{"Arlington"});
+    for (String day : new String[]{"Monday", "Wednesday"}) {
+      Event event = new Event();
+      event.setName("Game Night");
+      event.setDay(day);
+      event.setLocation("123 Main St, Arlington, VA 22201");
+      event.setSummary("Game night twice a week");
+      group.addEvent(event);
+    }
+    GroupsRepository groupsRepository = new GroupsRepository();
+    groupsRepository.insertGroups(new Group[]{group}, conn);
+    new EventRepository().addEvents(new Group[]{group}, conn);
+    int groupId = groupsRepository.getGroupId(group, conn);
+
+    String calendar = writeCalendar(calendarService.getAreaCalendar("dmv", testConnectionProvider));
+    assertTrue(calendar.contains("-monday-group-" + groupId + "@"));
+    assertTrue(calendar.contains("-wednesday-group-" + groupId + "@"));
+  }
+
+  @Test
+  public void testCalendar_skipsEventsWithoutDay() throws Exception {
+    Group group = new Group();
+    group.setId(1);
+    group.setName("Game Group");
+    group.setUrl("https://www.example.com/group");
+    Event withoutDay = new Event();
+    withoutDay.setId(8);
+    withoutDay.setName("Game Night");
+    group.addEvent(withoutDay);
+    Event weekly = new Event();
+    weekly.setId(9);
+    weekly.setName("Game Night");
+    weekly.setDay("Friday");
+    group.addEvent(weekly);
+
+    String calendar = writeCalendar(new CalendarFeed("Game Group", List.of(group)));
+    assertFalse(calendar.contains("UID:event-8-"));
+    assertTrue(calendar.contains("UID:event-9-friday-group-1@"));
+  }
+
+  @Test
+  public void testGroupCalendar_invalidGroup() {
+    assertThrows(
+        GroupNotFoundError.class,
+        () -> calendarService.getGroupCalendar(-1, testConnectionProvider)
+    );
+  }
+}
@@ -0,0 +1,170 @@
+package app.service;
+
+import app.data.Event;
+import app.database.utils.DbUtils;
+import app.database.utils.IntegrationTestConnectionProvider;
+import app.groups.data.Group;
+import app.result.changes.ChangeFeed;
+import app.utils.CreateGroupUtils;
+import database.changes.Change;
+import database.changes.ChangeLogRepository;
+import database.changes.ChangeOperation;
+import database.changes.EntityType;
+import database.content.EventRepository;
+import database.content.GroupsRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import service.events.ListingEventBus;
+import service.read.ChangeService;
+
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ChangeLogIntegrationTest {
+
+  private static IntegrationTestConnectionProvider testConnectionProvider;
+
+  @BeforeAll
+  static void setup() {
+    testConnectionProvider = new IntegrationTestConnectionProvider();
+    try {
+      Connection conn = testConnectionProvider.getDatabaseConnection();
+      DbUtils.createTables(conn);
+      DbUtils.initializeData(testConnectionProvider);
+    } catch (Exception e) {
+      e.printStackTrace();
+      fail("Error initializing database:" + e.getMessage());
+    }
+  }
+
+  private static boolean hasChange(List<Change> changes, EntityType type) {
+    return changes.stream().anyMatch(change -> change.type() == type && change.operation() == ChangeOperation.UPSERT);
+  }
+
+  @Test
+  public void testImport_recordsImportedEntities() throws Exception {
+    ChangeService changeService = new ChangeService();
+    ChangeFeed feed = changeService.getChanges(0, ChangeService.MAX_LIMIT, testConnectionProvider);
+
+    assertFalse(feed.getFullResync());
+    assertTrue(hasChange(feed.getChanges(), EntityType.GROUP));
+    assertTrue(hasChange(feed.getChanges(), EntityType.EVENT));
+    assertTrue(hasChange(feed.getChanges(), EntityType.CONVENTION));
+    assertTrue(hasChange(feed.getChanges(), EntityType.GAME_STORE));
+    assertTrue(hasChange(feed.getChanges(), EntityType.LOCATION_TAG));
+  }
+
+  @Test
+  public void testPaging_returnsEachEntityOnce() throws Exception {
+    ChangeService changeService = new ChangeService();
+    ChangeFeed all = changeService.getChanges(0, ChangeService.MAX_LIMIT, testConnectionProvider);
+
+    ChangeFeed firstPage = changeService.getChanges(0, 2, testConnectionProvider);
+    assertEquals(2, firstPage.getChanges().size());
+    assertTrue(firstPage.getHasMore());
+
+    ChangeFeed secondPage = changeService.getChanges(firstPage.getVersion(), ChangeService.MAX_LIMIT, testConnectionProvider);
+    assertEquals(all.getChanges().size(), firstPage.getChanges().size() + secondPage.getChanges().size());
+  }
+
+  @Test
+  public void testConcurrentWriters_commitInVersionOrder() throws Exception {
+    ChangeLogRepository changeLogRepository = new ChangeLogRepository();
+    long since = changeLogRepository.getLatestVersion(testConnectionProvider.getDatabaseConnection());
+
+    Connection first = testConnectionProvider.getDatabaseConnection();
+    first.setAutoCommit(false);
+    changeLogRepository.recordUpsert(EntityType.CONVENTION, -1, first);
+
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      Future<?> second = executor.submit(() -> {
+        Connection conn = testConnectionProvider.getDatabaseConnection();
+        changeLogRepository.recordUpsert(EntityType.CONVENTION, -2, conn);
+        return null;
+      });
+      // The second writer waits until the first transaction ends.
+      assertThrows(TimeoutException.class, () -> second.get(500, TimeUnit.MILLISECONDS));
+
+      first.commit();
+      ListingEventBus.committed(first);
+      second.get(10, TimeUnit.SECONDS);
+    } finally {
+      executor.shutdownNow();
+    }
+
+    List<Change> changes = new ChangeService()
+        .getChanges(since, ChangeService.MAX_LIMIT, testConnectionProvider)
+        .getChanges();
+    assertEquals(List.of(-1, -2), changes.stream().map(Change::id).toList());
+  }
+
+  @Test
+  public void testDeleteGroup_recordsDeletesOfItsEvents() throws Exception {
+    ChangeService changeService = new ChangeService();
+    ChangeLogRepository changeLogRepository = new ChangeLogRepository();
+    GroupsRepository groupsRepository = new GroupsRepository();
+    Connection conn = testConnectionProvider.getDatabaseConnection();
+    long since = changeLogRepository.getLatestVersion(conn);
+
+    Group group = CreateGroupUtils.createGroupObject();
+    group.setCities(new String[0]);
+    Event event = new Event();
+    event.setName("Game Night");
+    event.setDay("Monday");
+    event.setLocation("123 Main St, Arlington, VA 22201");
+    event.setSummary("Weekly game night");
+    group.addEvent(event);
+    groupsRepository.insertGroups(new Group[]{group}, conn);
+    new EventRepository().addEvents(new Group[]{group}, conn);
+    int groupId = groupsRepository.getGroupId(group, conn);
+    groupsRepository.deleteGroup(groupId, conn);
+
+    List<Change> changes = changeService.getChanges(since, ChangeService.MAX_LIMIT, testConnectionProvider).getChanges();
+    assertTrue(changes.stream().anyMatch(change ->
+        change.type() == EntityType.GROUP && change.id() == groupId && change.operation() == ChangeOperation.DELETE
+    ));
+    assertTrue(changes.stream().anyMatch(change ->
+        change.type() == EntityType.EVENT && change.operation() == ChangeOperation.DELETE
+    ));
+  }
+
+  @Test
+  public void testDelete_compactionRequiresFullResyncForOlderVersions() throws Exception {
+    ChangeService changeService = new ChangeService();
+    ChangeLogRepository changeLogRepository = new ChangeLogRepository();
+    GroupsRepository groupsRepository = new GroupsRepository();
+    long since = changeLogRepository.getLatestVersion(testConnectionProvider.getDatabaseConnection());
+
+    Group group = CreateGroupUtils.createGroupObject();
+    group.setCities(new String[0]);
+    groupsRepository.insertGroups(new Group[]{group}, testConnectionProvider.getDatabaseConnection());
+    int groupId = groupsRepository.getGroupId(group, testConnectionProvider.getDatabaseConnection());
+    group.setId(groupId);
+    group.setSummary("Updated summary");
+    groupsRepository.updateGroup(group, testConnectionProvider.getDatabaseConnection());
+    groupsRepository.deleteGroup(groupId, testConnectionProvider.getDatabaseConnection());
+
+    ChangeFeed feed = changeService.getChanges(since, ChangeService.MAX_LIMIT, testConnectionProvider);
+    assertEquals(1, feed.getChanges().size());
+    Change change = feed.getChanges().get(0);
+    assertEquals(EntityType.GROUP, change.type());
+    assertEquals(groupId, change.id());
+    assertEquals(ChangeOperation.DELETE, change.operation());
+
+    assertTrue(changeService.compact(Duration.ZERO, testConnectionProvider) > 0);
+    assertTrue(changeService.getChanges(since, ChangeService.MAX_LIMIT, testConnectionProvider).getFullResync());
+
+    ChangeFeed current = changeService.getChanges(feed.getVersion(), ChangeService.MAX_LIMIT, testConnectionProvider);
+    assertFalse(current.getFullResync());
+    assertTrue(current.getChanges().isEmpty());
+  }
+}
@@ -0,0 +1,81 @@
+package app.service;
+
+import app.data.Convention;
+import database.content.ConventionIndex;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConventionIndexTest {
+
+  private static final LocalDate START = LocalDate.of(2026, 1, 1);
+
+  private ConventionIndex.ConventionSpan createSpan(int id, int startOffset, int length) {
+    Convention convention = new Convention();
+    convention.setId(id);
+    convention.setName("Convention " + id);
+    LocalDate start = START.plusDays(startOffset);
+    return new ConventionIndex.ConventionSpan(convention, start, start.plusDays(length - 1));
+  }
+
+  private List<Integer> getIds(List<Convention> conventions) {
+    List<Integer> ids = new ArrayList<>();
+    conventions.forEach(convention -> ids.add(convention.getId()));
+    return ids;
+  }
+
+  @Test
+  public void testOverlap_includesConventionsThatStartBeforeRange() {
+    ConventionIndex index = ConventionIndex.create(List.of(
+        createSpan(1, 0, 5),
+        createSpan(2, 10, 2),
+        createSpan(3, 20, 3)
+    ));
+
+    List<Convention> result = index.getOverlapping(START.plusDays(4), START.plusDays(10), 10);
+    assertEquals(List.of(1, 2), getIds(result));
+  }
+
+  @Test
+  public void testOverlap_noEndDateAndLimit() {
+    ConventionIndex index = ConventionIndex.create(List.of(
+        createSpan(3, 20, 3),
+        createSpan(1, 0, 5),
+        createSpan(2, 10, 2)
+    ));
+
+    assertEquals(List.of(2, 3), getIds(index.getOverlapping(START.plusDays(5), null, 10)));
+    assertEquals(List.of(1), getIds(index.getOverlapping(START, null, 1)));
+    assertTrue(index.getOverlapping(START.plusDays(30), null, 10).isEmpty());
+  }
+
+  @Test
+  public void testOverlap_matchesLinearScan() {
+    Random random = new Random(42);
+    List<ConventionIndex.ConventionSpan> spans = new ArrayList<>();
+    for (int i = 0; i < 500; i++) {
+      spans.add(createSpan(i, random.nextInt(365), 1 + random.nextInt(60)));
+    }
+    ConventionIndex index = ConventionIndex.create(spans);
+
+    for (int i = 0; i < 100; i++) {
+      LocalDate from = START.plusDays(random.nextInt(400));
+      LocalDate to = from.plusDays(random.nextInt(30));
+
+      List<Integer> expected = new ArrayList<>();
+      spans.stream()
+          .filter(span -> !span.start().isAfter(to) && !span.end().isBefore(from))
+          .sorted((a, b) -> a.start().equals(b.start())
+              ? Integer.compare(a.convention().getId(), b.convention().getId())
+              : a.start().compareTo(b.start()))
+          .forEach(span -> expected.add(span.convention().getId()));
+
+      assertEquals(expected, getIds(index.getOverlapping(from, to, Integer.MAX_VALUE)));
+    }
+  }
+}
@@ -0,0 +1,59 @@
+package app.service;
+
+import app.database.utils.DbUtils;
+import app.database.utils.IntegrationTestConnectionProvider;
+import database.content.LocationsRepository;
+import database.version.DataTable;
+import database.version.DataVersion;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DataVersionIntegrationTest {
+
+  private static IntegrationTestConnectionProvider testConnectionProvider;
+
+  @BeforeAll
+  static void setup() {
+    testConnectionProvider = new IntegrationTestConnectionProvider();
+    try {
+      Connection conn = testConnectionProvider.getDatabaseConnection();
+      DbUtils.createTables(conn);
+      DbUtils.initializeData(testConnectionProvider);
+    } catch (Exception e) {
+      e.printStackTrace();
+      fail("Error initializing database:" + e.getMessage());
+    }
+  }
+
+  @Test
+  public void testWrite_changesOnlyWrittenTable() throws Exception {
+    long locations = DataVersion.getVersion(DataTable.LOCATIONS);
+    long groups = DataVersion.getVersion(DataTable.GROUPS);
+
+    LocationsRepository locationsRepository = new LocationsRepository();
+    locationsRepository.getLocationIdForCity("Data Version City", testConnectionProvider.getDatabaseConnection());
+
+    assertTrue(DataVersion.getVersion(DataTable.LOCATIONS) > locations);
+    assertEquals(groups, DataVersion.getVersion(DataTable.GROUPS));
+  }
+
+  @Test
+  public void testTransaction_changesVersionAgainAfterCommit() throws Exception {
+    Connection conn = testConnectionProvider.getDatabaseConnection();
+    conn.setAutoCommit(false);
+
+    LocationsRepository locationsRepository = new LocationsRepository();
+    locationsRepository.getLocationIdForCity("Data Version Transaction City", conn);
+    long beforeCommit = DataVersion.getVersion(DataTable.LOCATIONS);
+
+    conn.commit();
+    DataVersion.committed(conn);
+    conn.close();
+
+    assertTrue(DataVersion.getVersion(DataTable.LOCATIONS) > beforeCommit);
+  }
+}
@@ -0,0 +1,47 @@
+package app.service;
+
+import app.data.auth.GroupAdminType;
+import database.permissions.GroupRoleCache;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class GroupRoleCacheTest {
+
+  private static Map<Integer, GroupAdminType> load(int userId, GroupAdminType type) throws Exception {
+    return GroupRoleCache.getRoles(userId, key -> Map.of(1, type));
+  }
+
+  @Test
+  public void testInvalidateUser_againAfterCommit() throws Exception {
+    Connection conn = mock(Connection.class);
+    when(conn.getAutoCommit()).thenReturn(false);
+    int userId = 1001;
+
+    load(userId, GroupAdminType.GROUP_MODERATOR);
+    GroupRoleCache.invalidateUser(conn, userId);
+    // Read by another request before the commit.
+    load(userId, GroupAdminType.GROUP_MODERATOR);
+
+    GroupRoleCache.committed(conn);
+    assertEquals(GroupAdminType.GROUP_ADMIN, load(userId, GroupAdminType.GROUP_ADMIN).get(1));
+  }
+
+  @Test
+  public void testInvalidateGroup_againAfterRollback() throws Exception {
+    Connection conn = mock(Connection.class);
+    when(conn.getAutoCommit()).thenReturn(false);
+    int userId = 1002;
+
+    GroupRoleCache.invalidateGroup(conn, 1);
+    // Read on the same connection before the rollback.
+    load(userId, GroupAdminType.GROUP_ADMIN);
+
+    GroupRoleCache.rolledBack(conn);
+    assertEquals(GroupAdminType.GROUP_MODERATOR, load(userId, GroupAdminType.GROUP_MODERATOR).get(1));
+  }
+}
@@ -0,0 +1,82 @@
+package app.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import database.version.DataTable;
+import database.version.DataVersion;
+import database.version.InvalidationChannel;
+import database.version.InvalidationMessage;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class InvalidationChannelTest {
+
+  private static final ObjectMapper mapper = new ObjectMapper();
+
+  private static String message(String origin, long sequence, DataTable table) throws Exception {
+    return mapper.writeValueAsString(new InvalidationMessage(origin, sequence, List.of(table), List.of()));
+  }
+
+  @Test
+  public void testRemoteMessage_changesOnlyListedTables() throws Exception {
+    long groups = DataVersion.getVersion(DataTable.GROUPS);
+    long users = DataVersion.getVersion(DataTable.USERS);
+
+    InvalidationChannel.receive(message("remote-tables", 1, DataTable.GROUPS));
+
+    assertEquals(groups + 1, DataVersion.getVersion(DataTable.GROUPS));
+    assertEquals(users, DataVersion.getVersion(DataTable.USERS));
+  }
+
+  @Test
+  public void testSequenceGap_flushesEveryTable() throws Exception {
+    InvalidationChannel.receive(message("remote-gap", 1, DataTable.GROUPS));
+    long users = DataVersion.getVersion(DataTable.USERS);
+
+    InvalidationChannel.receive(message("remote-gap", 3, DataTable.GROUPS));
+
+    assertTrue(DataVersion.getVersion(DataTable.USERS) > users);
+  }
+
+  @Test
+  public void testRemoteMessage_updatesSharedVersions() throws Exception {
+    Connection conn = mock(Connection.class);
+    PreparedStatement select = mock(PreparedStatement.class);
+    when(conn.prepareStatement(anyString())).thenReturn(select);
+    when(select.executeQuery()).thenReturn(mock(ResultSet.class));
+    DataVersion.loadShared(conn);
+
+    try {
+      long version = DataVersion.getSharedVersion(DataTable.GAME_STORES) + 10;
+      InvalidationChannel.receive(mapper.writeValueAsString(new InvalidationMessage(
+          "remote-shared", 1, List.of(DataTable.GAME_STORES), List.of(), Map.of(DataTable.GAME_STORES, version), 1000
+      )));
+      assertEquals(version, DataVersion.getSharedVersion(DataTable.GAME_STORES));
+
+      // A message that arrives late does not move the version back.
+      InvalidationChannel.receive(mapper.writeValueAsString(new InvalidationMessage(
+          "remote-shared", 2, List.of(DataTable.GAME_STORES), List.of(), Map.of(DataTable.GAME_STORES, version - 1), 900
+      )));
+      assertEquals(version, DataVersion.getSharedVersion(DataTable.GAME_STORES));
+      assertEquals(1000, DataVersion.getSharedLastModified(DataTable.GAME_STORES));
+    } finally {
+      DataVersion.disableShared();
+    }
+  }
+
+  @Test
+  public void testOwnMessage_isIgnored() throws Exception {
+    long groups = DataVersion.getVersion(DataTable.GROUPS);
+
+    InvalidationChannel.receive(message(InvalidationChannel.getInstanceId(), 1, DataTable.GROUPS));
+
+    assertEquals(groups, DataVersion.getVersion(DataTable.GROUPS));
+  }
+}
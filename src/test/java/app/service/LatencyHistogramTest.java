@@ -0,0 +1,53 @@
+package app.service;
+
+import org.junit.jupiter.api.Test;
+import utils.metrics.LatencyHistogram;
+import utils.metrics.PrometheusWriter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LatencyHistogramTest {
+
+  private static final long MILLISECOND = 1_000_000;
+
+  @Test
+  public void testCumulativeCounts_countDurationsWithinEachLimit() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    histogram.record(500_000);
+    histogram.record(3 * MILLISECOND);
+    histogram.record(40 * MILLISECOND);
+    histogram.record(2000 * MILLISECOND);
+
+    long[] counts = histogram.getCumulativeCounts(new long[]{1_000, 5_000, 50_000, 1_000_000, 10_000_000});
+    assertArrayEquals(new long[]{1, 2, 3, 3, 4}, counts);
+    assertEquals(4, histogram.getCount());
+    assertEquals(2043_500_000L, histogram.getSumNanos());
+  }
+
+  @Test
+  public void testCumulativeCounts_bucketsAreWithinAnEighthOfTheDuration() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    histogram.record(100 * MILLISECOND);
+
+    long[] counts = histogram.getCumulativeCounts(new long[]{100_000 * 7 / 8, 100_000 * 9 / 8});
+    assertArrayEquals(new long[]{0, 1}, counts);
+  }
+
+  @Test
+  public void testPrometheusHistogram_writesBucketsSumAndCount() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    histogram.record(20 * MILLISECOND);
+
+    String text = new PrometheusWriter()
+        .describe("request_seconds", "histogram", "Request time.")
+        .histogram("request_seconds", histogram, "route", "/groups/{id}")
+        .toString();
+
+    assertTrue(text.contains("# TYPE request_seconds histogram\n"));
+    assertTrue(text.contains("request_seconds_bucket{route=\"/groups/{id}\",le=\"0.01\"} 0\n"));
+    assertTrue(text.contains("request_seconds_bucket{route=\"/groups/{id}\",le=\"0.025\"} 1\n"));
+    assertTrue(text.contains("request_seconds_bucket{route=\"/groups/{id}\",le=\"+Inf\"} 1\n"));
+    assertTrue(text.contains("request_seconds_sum{route=\"/groups/{id}\"} 0.02\n"));
+    assertTrue(text.contains("request_seconds_count{route=\"/groups/{id}\"} 1\n"));
+  }
+}
@@ -0,0 +1,91 @@
+package app.service;
+
+import org.junit.jupiter.api.Test;
+import service.events.ListingEventBus;
+import service.events.ListingFilter;
+import service.events.ListingScope;
+import service.events.ListingSubscriber;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ListingSubscriberTest {
+
+  private static class TestSink implements ListingSubscriber.Sink {
+    int sent = 0;
+    boolean closed = false;
+
+    @Override
+    public void send(String event, Object data) {
+      sent++;
+    }
+
+    @Override
+    public void sendComment(String comment) {
+    }
+
+    @Override
+    public void close() {
+      closed = true;
+    }
+  }
+
+  private static final ListingScope SCOPE = new ListingScope(
+      Set.of("arlington"),
+      Set.of("northern virginia"),
+      Set.of("tuesday")
+  );
+
+  @Test
+  public void testFilter_matchesScope() {
+    assertTrue(ListingFilter.create(null, "", null).isEmpty());
+    assertTrue(ListingFilter.create("Northern Virginia", "Tuesday", " Arlington ").matches(SCOPE));
+    assertFalse(ListingFilter.create(null, null, "Baltimore").matches(SCOPE));
+    assertFalse(ListingFilter.create(null, "Monday", null).matches(SCOPE));
+  }
+
+  @Test
+  public void testFilter_unknownScopeMatchesEveryFilter() {
+    assertTrue(ListingFilter.create(null, "Monday", "Baltimore").matches(null));
+  }
+
+  @Test
+  public void testFullQueue_rejectsMessages() {
+    TestSink sink = new TestSink();
+    ListingSubscriber subscriber = new ListingSubscriber(ListingFilter.ALL, sink, 2);
+
+    assertTrue(subscriber.offer("change", 1));
+    assertTrue(subscriber.offerComment("heartbeat"));
+    assertFalse(subscriber.offer("change", 2));
+    assertEquals(2, subscriber.getQueuedMessages());
+  }
+
+  @Test
+  public void testClose_closesSinkAndRejectsMessages() {
+    TestSink sink = new TestSink();
+    ListingSubscriber subscriber = new ListingSubscriber(ListingFilter.ALL, sink, 2);
+    subscriber.offer("change", 1);
+
+    subscriber.close();
+    assertTrue(sink.closed);
+    assertTrue(subscriber.isClosed());
+    assertFalse(subscriber.offer("change", 2));
+    assertEquals(0, sink.sent);
+  }
+
+  @Test
+  public void testReserve_rejectsSubscribersOverLimit() {
+    assertTrue(ListingEventBus.reserve(2));
+    assertTrue(ListingEventBus.reserve(2));
+    try {
+      assertFalse(ListingEventBus.reserve(2));
+
+      ListingEventBus.release();
+      assertTrue(ListingEventBus.reserve(2));
+    } finally {
+      ListingEventBus.release();
+      ListingEventBus.release();
+    }
+  }
+}
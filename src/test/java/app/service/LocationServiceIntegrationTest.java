@@ -75,6 +75,36 @@ public class LocationServiceIntegrationTest {
     );
   }
 
+  @Test
+  public void testConventionHorizonAndLimit() throws Exception {
+    LocalDate date = LocalDate.of(2025,1,1);
+    GameLocationData all = gameLocationsService.getGameLocations(testConnectionProvider, date);
+    GameLocationData limited = gameLocationsService.getGameLocations(testConnectionProvider, date, null, 2);
+    GameLocationData noHorizon = gameLocationsService.getGameLocations(testConnectionProvider, date, 0, 10);
+
+    Assertions.assertAll(
+        () -> assertEquals(2, limited.getConventions().size()),
+        () -> assertEquals(
+            all.getConventions().keySet().stream().limit(2).toList(),
+            limited.getConventions().keySet().stream().toList()
+        ),
+        () -> assertTrue(noHorizon.getConventions().size() <= all.getConventions().size())
+    );
+  }
+
+  @Test
+  public void testConventionsOnlyIncludeRemainingDays() throws Exception {
+    LocalDate date = LocalDate.of(2025,1,1);
+    GameLocationData result = gameLocationsService.getGameLocations(testConnectionProvider, date);
+
+    for (Convention convention : result.getConventions().values()) {
+      assertTrue(convention.getDays().length > 0);
+      for (String day : convention.getDays()) {
+        assertFalse(LocalDate.parse(day).isBefore(date));
+      }
+    }
+  }
+
   @Test
   public void testListAllEventCities() throws Exception{
     TreeSet<String> eventCities = gameLocationsService.getAllEventLocations(testConnectionProvider, null);
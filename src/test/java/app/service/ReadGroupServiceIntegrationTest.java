@@ -4,6 +4,7 @@ import app.groups.data.Group;
 import app.data.auth.User;
 import app.database.utils.DbUtils;
 import app.database.utils.IntegrationTestConnectionProvider;
+import app.result.error.AmbiguousGroupNameError;
 import app.result.groupPage.GroupPageData;
 import app.result.groupPage.GroupPageEventData;
 import app.utils.CreateGroupUtils;
@@ -15,6 +16,7 @@ import service.auth.AuthService;
 import service.permissions.GroupPermissionService;
 import service.provider.ReadGroupDataProvider;
 import service.read.ReadGroupService;
+import service.update.GroupEditService;
 import service.user.UserService;
 
 import java.sql.Connection;
@@ -22,6 +24,7 @@ import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.util.LinkedHashMap;
 import java.util.Set;
+import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -299,4 +302,87 @@ public class ReadGroupServiceIntegrationTest {
     );
     assertFalse(result.userCanEdit());
   }
+
+  @Test
+  public void testGetGroupData_byId() throws Exception{
+    User standardUser = userService.createStandardUser("test_8");
+    Group group = CreateGroupUtils.createGroup(standardUser, testConnectionProvider);
+
+    LinkedHashMap<String, String> params = new LinkedHashMap<>();
+    params.put(GroupSearchParams.ID, String.valueOf(group.getId()));
+    GroupPageData result = groupService.getGroupPageData(
+        standardUser,
+        params,
+        testConnectionProvider
+    );
+    Assertions.assertAll(
+        () -> assertEquals(group.id, result.getId()),
+        () -> assertEquals(group.getName(), result.getName()),
+        () -> assertTrue(result.userCanEdit())
+    );
+  }
+
+  @Test
+  public void testGetGroupData_invalidId() throws Exception{
+    LinkedHashMap<String, String> params = new LinkedHashMap<>();
+    params.put(GroupSearchParams.ID, "-1");
+
+    Exception exception = assertThrows(
+        Exception.class,
+        () -> {
+          groupService.getGroupPageData(AuthService.getReadOnlyUser(), params, testConnectionProvider);
+        }
+    );
+    assertTrue(exception.getMessage().contains("No group found"));
+  }
+
+  @Test
+  public void testGetGroupData_prefersExactNameMatch() throws Exception{
+    User standardUser = userService.createStandardUser("test_9");
+    String name = "Case Group " + UUID.randomUUID();
+    Group exact = insertGroup(standardUser, name);
+    insertGroup(standardUser, name.toLowerCase());
+
+    LinkedHashMap<String, String> params = new LinkedHashMap<>();
+    params.put(GroupSearchParams.NAME, name.replace(" ", "_"));
+    GroupPageData result = groupService.getGroupPageData(standardUser, params, testConnectionProvider);
+    assertEquals(exact.id, result.getId());
+
+    params.put(GroupSearchParams.NAME, name.toUpperCase().replace(" ", "_"));
+    assertThrows(
+        AmbiguousGroupNameError.class,
+        () -> groupService.getGroupPageData(standardUser, params, testConnectionProvider)
+    );
+  }
+
+  @Test
+  public void testGetGroupData_filtersByDayAndCity() throws Exception{
+    LinkedHashMap<String, String> params = new LinkedHashMap<>();
+    params.put(GroupSearchParams.NAME, "Alexandria_Board_Game_Group");
+    params.put(GroupSearchParams.DAY_OF_WEEK, "monday");
+    params.put(GroupSearchParams.CITY, "Alexandria");
+    GroupPageData result = groupService.getGroupPageData(AuthService.getReadOnlyUser(), params, testConnectionProvider);
+    assertEquals("Alexandria Board Game Group", result.getName());
+
+    params.put(GroupSearchParams.DAY_OF_WEEK, "tuesday");
+    Exception exception = assertThrows(
+        Exception.class,
+        () -> groupService.getGroupPageData(AuthService.getReadOnlyUser(), params, testConnectionProvider)
+    );
+    assertTrue(exception.getMessage().contains("No group found"));
+
+    params.put(GroupSearchParams.DAY_OF_WEEK, "monday");
+    params.put(GroupSearchParams.CITY, "Arlington");
+    exception = assertThrows(
+        Exception.class,
+        () -> groupService.getGroupPageData(AuthService.getReadOnlyUser(), params, testConnectionProvider)
+    );
+    assertTrue(exception.getMessage().contains("No group found"));
+  }
+
+  private static Group insertGroup(User user, String name) throws Exception{
+    Group group = CreateGroupUtils.createGroupObject();
+    group.setName(name);
+    return new GroupEditService().insertGroup(user, group, testConnectionProvider);
+  }
 }
@@ -0,0 +1,73 @@
+package app.service;
+
+import app.data.Event;
+import org.junit.jupiter.api.Test;
+import service.recurrence.OccurrenceWindow;
+import service.recurrence.RecurrenceRule;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RecurrenceRuleTest {
+
+  private static final LocalDate START = LocalDate.of(2026, 10, 19);
+
+  private List<LocalDate> getOccurrences(RecurrenceRule rule, int days) {
+    OccurrenceWindow window = OccurrenceWindow.create(rule, START, START.plusDays(days));
+    List<LocalDate> occurrences = new ArrayList<>();
+    window.forEach(START, START.plusDays(days), occurrences::add);
+    return occurrences;
+  }
+
+  @Test
+  public void testWeeklyRule_includesStartAndEndDates() {
+    List<LocalDate> occurrences = getOccurrences(RecurrenceRule.weekly(DayOfWeek.MONDAY), 28);
+    assertEquals(5, occurrences.size());
+    assertEquals(START, occurrences.get(0));
+    assertEquals(START.plusDays(28), occurrences.get(4));
+  }
+
+  @Test
+  public void testMonthlyRule_skipsMonthsWithoutFifthWeekday() {
+    List<LocalDate> occurrences = getOccurrences(RecurrenceRule.monthly(DayOfWeek.FRIDAY, 5), 120);
+    assertEquals(List.of(LocalDate.of(2026, 10, 30), LocalDate.of(2027, 1, 29)), occurrences);
+  }
+
+  @Test
+  public void testMonthlyRule_lastWeekdayOfMonth() {
+    List<LocalDate> occurrences = getOccurrences(RecurrenceRule.monthly(DayOfWeek.TUESDAY, -1), 90);
+    assertEquals(
+        List.of(LocalDate.of(2026, 10, 27), LocalDate.of(2026, 11, 24), LocalDate.of(2026, 12, 29)),
+        occurrences
+    );
+  }
+
+  @Test
+  public void testMonthlyRule_rejectsInvalidWeekOfMonth() {
+    assertTrue(RecurrenceRule.isValidWeekOfMonth(-5));
+    assertTrue(RecurrenceRule.isValidWeekOfMonth(5));
+    for (int weekOfMonth : new int[]{0, 6, -6}) {
+      assertFalse(RecurrenceRule.isValidWeekOfMonth(weekOfMonth));
+      assertThrows(IllegalArgumentException.class, () -> RecurrenceRule.monthly(DayOfWeek.MONDAY, weekOfMonth));
+    }
+  }
+
+  @Test
+  public void testFromEvent_noDayOrDate() {
+    Event event = new Event();
+    event.setId(1);
+    event.setName("Game Night");
+    assertNull(RecurrenceRule.fromEvent(event));
+  }
+
+  @Test
+  public void testOneOffRule_onlyOccursOnce() {
+    LocalDate date = LocalDate.of(2026, 11, 2);
+    assertEquals(List.of(date), getOccurrences(RecurrenceRule.once(date), 90));
+    assertNull(RecurrenceRule.once(date).nextOnOrAfter(date.plusDays(1)));
+  }
+}
@@ -0,0 +1,67 @@
+package app.service;
+
+import org.junit.jupiter.api.Test;
+import utils.metrics.RequestTrace;
+import utils.metrics.TraceStore;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RequestTraceTest {
+
+  @Test
+  public void testServerTiming_sumsSpansByNameAndLabel() {
+    RequestTrace trace = RequestTrace.start("GET", "/groups", "/groups");
+    try {
+      try (RequestTrace.Span span = RequestTrace.span(RequestTrace.DB_ACQUIRE)) {
+      }
+      try (RequestTrace.Span span = RequestTrace.span(RequestTrace.DB_ACQUIRE)) {
+      }
+      try (RequestTrace.Span span = RequestTrace.span(RequestTrace.DB_QUERY, "search.group")) {
+      }
+    } finally {
+      RequestTrace.detach();
+    }
+    trace.finish(200, 5_000_000);
+
+    String header = trace.toServerTiming();
+    assertTrue(header.startsWith("db.acquire;desc=\"x2\";dur="), header);
+    assertTrue(header.contains(", db.query;desc=\"search.group\";dur="), header);
+    assertTrue(header.endsWith(", total;dur=5.000"), header);
+    assertEquals(3, trace.getSpans().size());
+    assertTrue(trace.toLogLine().contains("db.acquire_count=2"));
+  }
+
+  @Test
+  public void testSpan_notRecordedWithoutTrace() {
+    RequestTrace.detach();
+    try (RequestTrace.Span span = RequestTrace.span(RequestTrace.AUTH)) {
+      assertNull(RequestTrace.current());
+    }
+  }
+
+  @Test
+  public void testTraceStore_keepsNewestSlowTraces() {
+    TraceStore store = new TraceStore(2, 100, 1);
+    RequestTrace fast = createTrace("/fast");
+    assertFalse(store.offer(fast, 99_000_000));
+
+    RequestTrace first = createTrace("/first");
+    RequestTrace second = createTrace("/second");
+    RequestTrace third = createTrace("/third");
+    assertTrue(store.offer(first, 100_000_000));
+    assertTrue(store.offer(second, 200_000_000));
+    assertTrue(store.offer(third, 300_000_000));
+
+    assertEquals(List.of(third, second), store.getTraces(10));
+    assertEquals(List.of(third), store.getTraces(1));
+    assertEquals(3, store.getTotalKept());
+  }
+
+  private static RequestTrace createTrace(String path) {
+    RequestTrace trace = RequestTrace.start("GET", path, path);
+    RequestTrace.detach();
+    return trace;
+  }
+}
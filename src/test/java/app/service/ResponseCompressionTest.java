@@ -0,0 +1,42 @@
+package app.service;
+
+import app.http.ResponseCompression;
+import app.http.ResponseCompression.Encoding;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ResponseCompressionTest {
+
+  private static final byte[] BODY = "{\"name\":\"Board game night\"},".repeat(200).getBytes(StandardCharsets.UTF_8);
+
+  @Test
+  public void testCompress_roundTrip() throws Exception {
+    byte[] gzip = ResponseCompression.compress(BODY, Encoding.GZIP);
+    byte[] deflate = ResponseCompression.compress(BODY, Encoding.DEFLATE);
+
+    assertTrue(gzip.length < BODY.length);
+    assertArrayEquals(BODY, new GZIPInputStream(new ByteArrayInputStream(gzip)).readAllBytes());
+    assertArrayEquals(BODY, new InflaterInputStream(new ByteArrayInputStream(deflate)).readAllBytes());
+  }
+
+  @Test
+  public void testCompress_smallBodyIsNotCompressed() {
+    assertNull(ResponseCompression.compress("{}".getBytes(StandardCharsets.UTF_8), Encoding.GZIP));
+  }
+
+  @Test
+  public void testNegotiate() {
+    assertEquals(Encoding.GZIP, ResponseCompression.negotiate("gzip, deflate, br", encoding -> true));
+    assertEquals(Encoding.DEFLATE, ResponseCompression.negotiate("gzip;q=0.5, deflate", encoding -> true));
+    assertEquals(Encoding.DEFLATE, ResponseCompression.negotiate("gzip;q=0, *", encoding -> true));
+    assertNull(ResponseCompression.negotiate("gzip", encoding -> encoding == Encoding.DEFLATE));
+    assertNull(ResponseCompression.negotiate("identity", encoding -> true));
+    assertNull(ResponseCompression.negotiate(null, encoding -> true));
+  }
+}
@@ -0,0 +1,35 @@
+package app.service;
+
+import app.http.ResponseFormat;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ResponseFormatTest {
+
+  @Test
+  public void testNegotiate_defaultsToJson() {
+    assertEquals(ResponseFormat.JSON, ResponseFormat.negotiate(null));
+    assertEquals(ResponseFormat.JSON, ResponseFormat.negotiate("*/*"));
+    assertEquals(ResponseFormat.JSON, ResponseFormat.negotiate("application/json, application/cbor;q=0"));
+  }
+
+  @Test
+  public void testNegotiate_prefersJsonUnlessBinaryFormatHasHigherQuality() {
+    assertEquals(ResponseFormat.JSON, ResponseFormat.negotiate("application/json, application/cbor;q=0.5"));
+    assertEquals(ResponseFormat.JSON, ResponseFormat.negotiate("application/cbor, application/json"));
+    assertEquals(ResponseFormat.JSON, ResponseFormat.negotiate("application/x-jackson-smile;q=0.9, */*"));
+    assertEquals(ResponseFormat.CBOR, ResponseFormat.negotiate("application/cbor, */*;q=0.1"));
+    assertEquals(ResponseFormat.CBOR, ResponseFormat.negotiate("application/cbor, application/json;q=0.5, */*"));
+  }
+
+  @Test
+  public void testNegotiate_binaryFormats() {
+    assertEquals(ResponseFormat.CBOR, ResponseFormat.negotiate("application/cbor"));
+    assertEquals(ResponseFormat.SMILE, ResponseFormat.negotiate("application/x-jackson-smile, application/json;q=0.5"));
+    assertEquals(
+        ResponseFormat.SMILE,
+        ResponseFormat.negotiate("application/cbor;q=0.8, application/x-jackson-smile")
+    );
+  }
+}
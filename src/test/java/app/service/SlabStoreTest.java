@@ -0,0 +1,90 @@
+package app.service;
+
+import org.junit.jupiter.api.Test;
+import utils.cache.SlabStore;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SlabStoreTest {
+
+  private static final int SLAB_SIZE = 8 * 1024;
+  private static final int BUDGET = 8 * SLAB_SIZE;
+
+  private byte[] read(ByteBuffer buffer) {
+    byte[] bytes = new byte[buffer.remaining()];
+    buffer.get(bytes);
+    return bytes;
+  }
+
+  @Test
+  public void testPutAndAcquire_returnsVariants() {
+    SlabStore<String, String> store = new SlabStore<>("test", BUDGET, SLAB_SIZE);
+    byte[] body = "body".getBytes();
+    byte[] compressed = "zip".getBytes();
+    assertTrue(store.put("key", "metadata", body, null, compressed));
+
+    try (SlabStore.Handle<String> handle = store.acquire("key")) {
+      assertEquals("metadata", handle.getMetadata());
+      assertArrayEquals(body, read(handle.getVariant(0)));
+      assertNull(handle.getVariant(1));
+      assertArrayEquals(compressed, read(handle.getVariant(2)));
+    }
+    assertNull(store.acquire("missing"));
+  }
+
+  @Test
+  public void testValueLargerThanSlab_isNotStored() {
+    SlabStore<String, String> store = new SlabStore<>("test", BUDGET, SLAB_SIZE);
+    assertFalse(store.put("key", "metadata", new byte[SLAB_SIZE + 1]));
+    assertEquals(0, store.size());
+  }
+
+  @Test
+  public void testManyWrites_stayWithinBudgetAndKeepValues() {
+    SlabStore<Integer, Integer> store = new SlabStore<>("test", BUDGET, SLAB_SIZE);
+    Map<Integer, byte[]> expected = new HashMap<>();
+    Random random = new Random(7);
+
+    for (int i = 0; i < 20000; i++) {
+      int key = random.nextInt(200);
+      byte[] value = new byte[random.nextInt(3000)];
+      random.nextBytes(value);
+      if (store.put(key, key, value)) {
+        expected.put(key, value);
+      } else {
+        expected.remove(key);
+      }
+      assertTrue(store.getAllocatedBytes() <= BUDGET);
+    }
+
+    assertTrue(store.getCompactions() > 0);
+    for (int key = 0; key < 200; key++) {
+      try (SlabStore.Handle<Integer> handle = store.acquire(key)) {
+        if (handle != null) {
+          assertTrue(Arrays.equals(expected.get(key), read(handle.getVariant(0))));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testSlabBeingRead_isNotReused() {
+    SlabStore<Integer, Integer> store = new SlabStore<>("test", 2 * SLAB_SIZE, SLAB_SIZE);
+    byte[] value = new byte[SLAB_SIZE];
+    Arrays.fill(value, (byte) 1);
+    assertTrue(store.put(1, 1, value));
+
+    try (SlabStore.Handle<Integer> handle = store.acquire(1)) {
+      // The only slab is being read, so there is no room for another value.
+      assertFalse(store.put(2, 2, new byte[SLAB_SIZE]));
+      assertArrayEquals(value, read(handle.getVariant(0)));
+    }
+    assertTrue(store.put(2, 2, new byte[SLAB_SIZE]));
+  }
+}
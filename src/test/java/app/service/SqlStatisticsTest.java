@@ -0,0 +1,96 @@
+package app.service;
+
+import app.database.utils.DbUtils;
+import app.database.utils.IntegrationTestConnectionProvider;
+import database.jdbc.InstrumentedJdbc;
+import database.jdbc.SlowQuery;
+import database.jdbc.SlowQueryLog;
+import database.jdbc.SqlNormalizer;
+import database.jdbc.SqlStatistics;
+import database.jdbc.StatementStats;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import utils.metrics.RequestTrace;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SqlStatisticsTest {
+
+  private static IntegrationTestConnectionProvider testConnectionProvider;
+
+  @BeforeAll
+  static void setup() {
+    testConnectionProvider = new IntegrationTestConnectionProvider();
+    try {
+      Connection conn = testConnectionProvider.getDatabaseConnection();
+      DbUtils.createTables(conn);
+      DbUtils.initializeData(testConnectionProvider);
+    } catch (Exception e) {
+      e.printStackTrace();
+      fail("Error initializing database:" + e.getMessage());
+    }
+  }
+
+  @Test
+  public void testNormalize_replacesLiteralsAndPlaceholderLists() {
+    assertEquals(
+        "SELECT * FROM groups WHERE id IN (?) AND name = ? AND url = ? LIMIT ?",
+        SqlNormalizer.normalize("SELECT *\n  FROM groups WHERE id IN (?, ?,?) AND name = 'it''s' AND url = ?   LIMIT 10")
+    );
+    assertEquals("SELECT t1.id FROM t1", SqlNormalizer.normalize("SELECT t1.id -- first table\nFROM t1"));
+  }
+
+  @Test
+  public void testInstrumentedConnection_recordsExecutionsRowsAndRepeats() throws Exception {
+    String sql = "SELECT id, name FROM groups WHERE id > ?";
+    Connection conn = InstrumentedJdbc.wrap(testConnectionProvider.getDatabaseConnection());
+    StatementStats stats = SqlStatistics.get(SqlNormalizer.normalize(sql));
+    long calls = stats.getCalls();
+    long rows = stats.getRows();
+    long repeatedRequests = stats.getRepeatedRequests();
+
+    int rowCount = 0;
+    RequestTrace.start("GET", "/groups", "/groups");
+    try {
+      for (int i = 0; i <= SqlStatistics.getRepeatedThreshold(); i++) {
+        PreparedStatement statement = conn.prepareStatement(sql);
+        statement.setInt(1, 0);
+        ResultSet rs = statement.executeQuery();
+        assertSame(statement, rs.getStatement());
+        rowCount = 0;
+        while (rs.next()) {
+          rs.getString("name");
+          rowCount++;
+        }
+      }
+    } finally {
+      RequestTrace.detach();
+    }
+
+    assertTrue(rowCount > 0);
+    assertEquals(calls + SqlStatistics.getRepeatedThreshold() + 1, stats.getCalls());
+    assertEquals(rows + (long) rowCount * (SqlStatistics.getRepeatedThreshold() + 1), stats.getRows());
+    assertTrue(stats.getBytes() > 0);
+    assertEquals(repeatedRequests + 1, stats.getRepeatedRequests());
+    assertSame(conn, conn.prepareStatement(sql).getConnection());
+  }
+
+  @Test
+  public void testSlowQuery_loggedWithParameterTypes() throws Exception {
+    Connection conn = InstrumentedJdbc.wrap(testConnectionProvider.getDatabaseConnection());
+    PreparedStatement statement = conn.prepareStatement("SELECT pg_sleep(?), ? AS name");
+    statement.setDouble(1, (SlowQueryLog.getThresholdMillis() + 50) / 1000.0);
+    statement.setString(2, "secret");
+    statement.executeQuery();
+
+    SlowQuery query = SlowQueryLog.getQueries(1).get(0);
+    assertEquals("SELECT pg_sleep(?), ? AS name", query.getSql());
+    assertEquals(List.of("$1=double", "$2=string(6)"), query.getParameters());
+    assertTrue(query.getDurationMillis() >= SlowQueryLog.getThresholdMillis());
+  }
+}
@@ -0,0 +1,62 @@
+package app.service;
+
+import app.data.Event;
+import app.database.utils.local.SyntheticDataGenerator;
+import app.groups.data.Group;
+import app.request.BulkUpdateRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import service.data.SearchParameterValidator;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SyntheticDataGeneratorTest {
+
+  private byte[] writeJson(SyntheticDataGenerator.Options options) throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    new SyntheticDataGenerator(options).writeJson(out);
+    return out.toByteArray();
+  }
+
+  @Test
+  public void testWriteJson_sameSeedGeneratesSameData() throws Exception {
+    SyntheticDataGenerator.Options options = SyntheticDataGenerator.Options.scaled(3);
+    assertArrayEquals(writeJson(options), writeJson(options));
+
+    SyntheticDataGenerator.Options otherSeed = SyntheticDataGenerator.Options.scaled(3);
+    otherSeed.seed = 2;
+    assertFalse(Arrays.equals(writeJson(options), writeJson(otherSeed)));
+  }
+
+  @Test
+  public void testWriteJson_matchesGeneratedRequest() throws Exception {
+    SyntheticDataGenerator.Options options = SyntheticDataGenerator.Options.scaled(10);
+    BulkUpdateRequest generated = new SyntheticDataGenerator(options).generate();
+    BulkUpdateRequest read = new ObjectMapper().readValue(writeJson(options), BulkUpdateRequest.class);
+
+    assertEquals(options.groups, read.getGroups().length);
+    assertEquals(options.conventions, read.getConventions().length);
+    assertEquals(options.stores, read.getGameStores().length);
+    assertEquals(options.restaurants, read.getGameRestaurants().length);
+    assertEquals(options.locationTags, read.getLocationTags().length);
+
+    Set<String> urls = new HashSet<>();
+    for (int i = 0; i < read.getGroups().length; i++) {
+      Group group = read.getGroups()[i];
+      assertTrue(urls.add(group.getUrl()));
+      assertEquals(generated.getGroups()[i].getName(), group.getName());
+      assertEquals(generated.getGroups()[i].countEvents(), group.countEvents());
+
+      Set<String> eventNames = new HashSet<>();
+      for (Event event : group.getEvents()) {
+        assertTrue(eventNames.add(event.getName()));
+        assertTrue(SearchParameterValidator.isValidAddress(event.getLocation()));
+      }
+    }
+  }
+}
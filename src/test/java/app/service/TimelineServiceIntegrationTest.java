@@ -0,0 +1,123 @@
+package app.service;
+
+import app.database.utils.DbUtils;
+import app.database.utils.IntegrationTestConnectionProvider;
+import app.data.Event;
+import app.groups.data.Group;
+import app.result.timeline.TimelineEntry;
+import app.result.timeline.TimelinePage;
+import app.utils.CreateGroupUtils;
+import database.content.EventRepository;
+import database.content.GroupsRepository;
+import database.search.GroupSearchParams;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import service.data.SearchParameterException;
+import service.read.TimelineService;
+
+import java.sql.Connection;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TimelineServiceIntegrationTest {
+
+  private static IntegrationTestConnectionProvider testConnectionProvider;
+  private static TimelineService timelineService;
+
+  @BeforeAll
+  static void setup() {
+    testConnectionProvider = new IntegrationTestConnectionProvider();
+    try {
+      Connection conn = testConnectionProvider.getDatabaseConnection();
+      DbUtils.createTables(conn);
+      DbUtils.initializeData(testConnectionProvider);
+      timelineService = new TimelineService();
+    } catch (Exception e) {
+      e.printStackTrace();
+      fail("Error initializing database:" + e.getMessage());
+    }
+  }
+
+  private static LinkedHashMap<String, String> getDmvParams() {
+    LinkedHashMap<String, String> params = new LinkedHashMap<>();
+    params.put(GroupSearchParams.AREA, "dmv");
+    return params;
+  }
+
+  @Test
+  public void testTimeline_entriesInChronologicalOrder() throws Exception {
+    LocalDate from = LocalDate.of(2025, 1, 1);
+    LocalDate to = from.plusDays(30);
+    TimelinePage result = timelineService.getTimeline(getDmvParams(), from, to, 0, 100, testConnectionProvider);
+
+    assertFalse(result.getEntries().isEmpty());
+    LocalDate previous = from;
+    for (TimelineEntry entry : result.getEntries()) {
+      assertFalse(entry.getDate().isBefore(previous));
+      assertFalse(entry.getDate().isAfter(to));
+      previous = entry.getDate();
+    }
+  }
+
+  @Test
+  public void testTimeline_pagesMatchSinglePage() throws Exception {
+    LocalDate from = LocalDate.of(2025, 1, 1);
+    LocalDate to = from.plusDays(60);
+    TimelinePage all = timelineService.getTimeline(getDmvParams(), from, to, 0, 20, testConnectionProvider);
+    TimelinePage first = timelineService.getTimeline(getDmvParams(), from, to, 0, 10, testConnectionProvider);
+    TimelinePage second = timelineService.getTimeline(getDmvParams(), from, to, 1, 10, testConnectionProvider);
+
+    List<Integer> pagedIds = new ArrayList<>();
+    first.getEntries().forEach(entry -> pagedIds.add(entry.getEventId()));
+    second.getEntries().forEach(entry -> pagedIds.add(entry.getEventId()));
+    List<Integer> allIds = new ArrayList<>();
+    all.getEntries().forEach(entry -> allIds.add(entry.getEventId()));
+
+    assertEquals(allIds, pagedIds);
+    assertTrue(first.getHasMore());
+  }
+
+  @Test
+  public void testTimeline_multiDayEventOnEachDay() throws Exception {
+    Connection conn = testConnectionProvider.getDatabaseConnection();
+    Group group = CreateGroupUtils.createGroupObject();
+    group.setCities(new String[0]);
+    for (String day : new String[]{"Monday", "Wednesday"}) {
+      Event event = new Event();
+      event.setName("Game Night");
+      event.setDay(day);
+      event.setLocation("123 Main St, Arlington, VA 22201");
+      event.setSummary("Game night twice a week");
+      group.addEvent(event);
+    }
+    new GroupsRepository().insertGroups(new Group[]{group}, conn);
+    new EventRepository().addEvents(new Group[]{group}, conn);
+
+    LinkedHashMap<String, String> params = new LinkedHashMap<>();
+    params.put(GroupSearchParams.NAME, group.getName());
+    // 2025-01-06 is a Monday.
+    LocalDate from = LocalDate.of(2025, 1, 6);
+    TimelinePage result = timelineService.getTimeline(params, from, from.plusDays(6), 0, 10, testConnectionProvider);
+
+    List<LocalDate> dates = new ArrayList<>();
+    result.getEntries().forEach(entry -> dates.add(entry.getDate()));
+    assertEquals(List.of(from, from.plusDays(2)), dates);
+  }
+
+  @Test
+  public void testTimeline_invalidRange() {
+    LocalDate from = LocalDate.of(2025, 1, 1);
+    assertThrows(
+        SearchParameterException.class,
+        () -> timelineService.getTimeline(getDmvParams(), from, from.minusDays(1), 0, 10, testConnectionProvider)
+    );
+    assertThrows(
+        SearchParameterException.class,
+        () -> timelineService.getTimeline(getDmvParams(), from, from.plusDays(400), 0, 10, testConnectionProvider)
+    );
+  }
+}
@@ -0,0 +1,90 @@
+package app.service.auth;
+
+import app.data.auth.User;
+import app.data.auth.UserType;
+import app.database.utils.DbUtils;
+import app.database.utils.IntegrationTestConnectionProvider;
+import database.user.UserRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ActiveUserCacheIntegrationTest {
+
+  private static IntegrationTestConnectionProvider testConnectionProvider;
+  private static UserRepository userRepository;
+
+  @BeforeAll
+  static void setup() {
+    testConnectionProvider = new IntegrationTestConnectionProvider();
+    try {
+      Connection conn = testConnectionProvider.getDatabaseConnection();
+      DbUtils.createTables(conn);
+      DbUtils.initializeData(testConnectionProvider);
+      userRepository = new UserRepository(conn);
+    } catch (Exception e) {
+      e.printStackTrace();
+      fail("Error initializing database:" + e.getMessage());
+    }
+  }
+
+  private static String createEmail() {
+    return "cache-" + UUID.randomUUID() + "@freegather.org";
+  }
+
+  @Test
+  public void testActivateUser_afterMiss() throws Exception {
+    String email = createEmail();
+    userRepository.createStandardUser(email);
+
+    // Users are created inactive, so the lookup misses.
+    assertNull(userRepository.getActiveUserFromEmail(email));
+
+    userRepository.activateUser(email);
+    User user = userRepository.getActiveUserFromEmail(email);
+    assertNotNull(user);
+    assertEquals(email, user.getEmail());
+
+    long hits = UserRepository.getActiveUserCache().getHits();
+    assertEquals(user.getId(), userRepository.getActiveUserFromEmail(email).getId());
+    assertEquals(hits + 1, UserRepository.getActiveUserCache().getHits());
+  }
+
+  @Test
+  public void testCreateUser_invalidatesCachedUser() throws Exception {
+    String email = createEmail();
+    UserRepository.getActiveUserCache().put(email, new User(email, UserType.SITE_ADMIN, -1));
+
+    User created = userRepository.createStandardUser(email);
+    assertNull(UserRepository.getActiveUserCache().get(email));
+
+    userRepository.activateUser(email);
+    User user = userRepository.getActiveUserFromEmail(email);
+    assertEquals(created.getId(), user.getId());
+    assertFalse(user.isSiteAdmin());
+  }
+
+  @Test
+  public void testDeleteAllUsers_clearsCache() throws Exception {
+    // The users are deleted in a transaction that is rolled back, so other tests keep their users.
+    Connection conn = testConnectionProvider.getDatabaseConnection();
+    conn.setAutoCommit(false);
+    UserRepository transactionRepository = new UserRepository(conn);
+    try {
+      String email = createEmail();
+      transactionRepository.createStandardUser(email);
+      transactionRepository.activateUser(email);
+      assertNotNull(transactionRepository.getActiveUserFromEmail(email));
+
+      transactionRepository.deleteAllUsers();
+      assertNull(transactionRepository.getActiveUserFromEmail(email));
+    } finally {
+      transactionRepository.rollbackChanges();
+      conn.close();
+    }
+  }
+}
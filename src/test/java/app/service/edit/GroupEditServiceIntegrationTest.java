@@ -4,6 +4,7 @@ import app.groups.data.Group;
 import app.data.auth.User;
 import app.database.utils.DbUtils;
 import app.database.utils.IntegrationTestConnectionProvider;
+import app.result.error.GroupNotFoundError;
 import app.utils.CreateGroupUtils;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
@@ -150,6 +151,30 @@ public class GroupEditServiceIntegrationTest {
 
   }
 
+  @Test
+  public void testStandardUserCannotEditGroupThatDoesNotExist() throws Exception{
+    Group updated = CreateGroupUtils.createGroupObject();
+    updated.setId((int)(Math.random()*999999));
+    Exception exception = assertThrows(
+        GroupNotFoundError.class,
+        ()->{
+          groupEditService.editGroup(standardUser, updated, testConnectionProvider);
+        }
+    );
+    assertTrue(exception.getMessage().contains("not found"));
+  }
+
+  @Test
+  public void testStandardUserCannotDeleteGroupThatDoesNotExist() throws Exception {
+    Exception exception = assertThrows(
+        GroupNotFoundError.class,
+        ()->{
+          groupEditService.deleteGroup(standardUser, (int)(Math.random()*999999), testConnectionProvider);
+        }
+    );
+    assertTrue(exception.getMessage().contains("not found"));
+  }
+
   @Test
   public void testGroupAdminCannotEditGroup_whenTheyAreNotAdminOfThatGroup() throws Exception{
     Group group = CreateGroupUtils.createGroup(standardUser, testConnectionProvider);
@@ -1,6 +1,7 @@
 package app.service.edit.permissions;
 
 import app.groups.data.Group;
+import app.data.auth.GroupAdminType;
 import app.data.auth.User;
 import app.database.utils.DbUtils;
 import app.database.utils.IntegrationTestConnectionProvider;
@@ -11,6 +12,8 @@ import service.permissions.GroupPermissionService;
 import service.user.UserService;
 
 import java.sql.Connection;
+import java.util.HashMap;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -132,4 +135,23 @@ public class EditPermissionServiceIntegrationTest {
     );
     assertTrue(exception.getMessage().contains("does not have permission"));
   }
+
+  @Test
+  public void testGetEditableGroups_returnsAdminLevelForEachGroup() throws Exception{
+    Group adminGroup = CreateGroupUtils.createGroup(user, testConnectionProvider);
+    Group moderatorGroup = CreateGroupUtils.createGroup(user3, testConnectionProvider);
+    Group otherGroup = CreateGroupUtils.createGroup(user3, testConnectionProvider);
+    groupPermissionService.addGroupModerator(user3, user, moderatorGroup.getId(), testConnectionProvider);
+
+    List<Integer> groupIds = List.of(adminGroup.getId(), moderatorGroup.getId(), otherGroup.getId());
+    HashMap<Integer, GroupAdminType> editableGroups =
+        groupPermissionService.getEditableGroups(user, groupIds, testConnectionProvider);
+
+    assertEquals(2, editableGroups.size());
+    assertEquals(GroupAdminType.GROUP_ADMIN, editableGroups.get(adminGroup.getId()));
+    assertEquals(GroupAdminType.GROUP_MODERATOR, editableGroups.get(moderatorGroup.getId()));
+    assertFalse(editableGroups.containsKey(otherGroup.getId()));
+
+    assertEquals(3, groupPermissionService.getEditableGroups(admin, groupIds, testConnectionProvider).size());
+  }
 }